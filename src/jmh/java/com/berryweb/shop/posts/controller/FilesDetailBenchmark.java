@@ -0,0 +1,44 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// 게시글 상세 응답의 filesDetail (파일마다 HashMap 생성 + 크기 포맷, PostController 는 PostFile.toDetailMap 을 모아 응답)
+@State(Scope.Benchmark)
+public class FilesDetailBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int fileCount;
+
+    private List<PostFile> files;
+
+    @Setup
+    public void setUp() {
+        Post post = new Post("제목", "내용", "작성자");
+        post.setId(1L);
+        files = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            PostFile file = new PostFile("image-" + i + ".png", "stored-" + i + ".png", "uploads/stored-" + i + ".png",
+                    1024L * 1024 + i * 4096L, "image/png", post);
+            file.setId((long) i + 1);
+            file.setCreatedAt(LocalDateTime.now());
+            files.add(file);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> toFilesDetail() {
+        return files.stream().map(PostFile::toDetailMap).toList();
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.berryweb.shop.posts.dto;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 목록 응답 JSON 직렬화 (엔티티 Page 와 PostSummary Page 비교)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    @Param({"200", "4000"})
+    private int contentLength;
+
+    private ObjectMapper objectMapper;
+    private Page<Post> postPage;
+    private Page<PostSummary> summaryPage;
+
+    @Setup
+    public void setUp() {
+        // Spring Boot 기본 설정과 같게 (JavaTimeModule, 날짜를 문자열로)
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        String content = "게시글 본문 내용입니다. ".repeat(contentLength / 14 + 1).substring(0, contentLength);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Post> posts = new ArrayList<>();
+        List<PostSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Post post = new Post("게시글 제목 " + i, content, "작성자" + i);
+            post.setId((long) i + 1);
+            post.setCreatedAt(now);
+            post.setUpdatedAt(now);
+            posts.add(post);
+            summaries.add(new PostSummary(post.getId(), post.getTitle(), post.getAuthor(), post.getIsNotice(),
+                    post.getIsPinned(), post.getIsActive(), post.getExpiryDate(), post.getViewCount(),
+                    post.getCommentCount(), post.getFileCount(), post.getExcerpt(), post.getThumbnailName(), now, now));
+        }
+
+        PageRequest pageable = PageRequest.of(0, pageSize);
+        postPage = new PageImpl<>(posts, pageable, 1000);
+        summaryPage = new PageImpl<>(summaries, pageable, 1000);
+    }
+
+    @Benchmark
+    public byte[] postPage() throws Exception {
+        return objectMapper.writeValueAsBytes(postPage);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+}
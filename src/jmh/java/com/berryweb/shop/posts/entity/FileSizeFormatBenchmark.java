@@ -0,0 +1,36 @@
+package com.berryweb.shop.posts.entity;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// 파일 크기 표시 문자열 (첨부파일 목록/상세 응답마다 파일 수만큼 호출)
+// PostFileService.formatFileSize 도 PostFile.formatFileSize 를 그대로 쓴다.
+@State(Scope.Benchmark)
+public class FileSizeFormatBenchmark {
+
+    @Param({"512", "123456", "987654321"})
+    private long fileSize;
+
+    private PostFile file;
+
+    @Setup
+    public void setUp() {
+        Post post = new Post("제목", "내용", "작성자");
+        post.setId(1L);
+        file = new PostFile("report.pdf", "stored.pdf", "uploads/stored.pdf", fileSize, "application/pdf", post);
+    }
+
+    @Benchmark
+    public String postFileFormattedFileSize() {
+        return file.getFormattedFileSize();
+    }
+
+    @Benchmark
+    public String formatFileSize() {
+        return PostFile.formatFileSize(fileSize);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.berryweb.shop.posts.loadtest;
+
+import com.berryweb.shop.posts.dto.PostImportReq;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import com.berryweb.shop.posts.service.PostFileService;
+import com.berryweb.shop.posts.service.PostImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// 합성 데이터 시딩 (게시글 + 댓글은 일괄 가져오기, 첨부파일은 스트리밍 업로드 경로로 저장)
+// 고정 시드를 써서 실행마다 같은 데이터가 만들어진다.
+class DataSeeder {
+
+    // 제목/본문에 섞어 쓰는 단어 (검색 요청의 검색어로도 사용)
+    private static final List<String> WORDS = List.of(
+            "공지", "이벤트", "배송", "환불", "교환", "할인", "쿠폰", "회원", "주문", "결제",
+            "리뷰", "문의", "신상품", "재입고", "점검", "안내", "berry", "shop", "sale", "update");
+
+    private final ConfigurableApplicationContext context;
+    private final LoadTestConfig config;
+    private final Random random = new Random(42);
+
+    DataSeeder(ConfigurableApplicationContext context, LoadTestConfig config) {
+        this.context = context;
+        this.config = config;
+    }
+
+    SeedData seed() throws IOException, InterruptedException {
+        long startedAt = System.currentTimeMillis();
+
+        PostImportService.ImportResult result = context.getBean(PostImportService.class)
+                .importNdjson(new ByteArrayInputStream(buildNdjson()));
+
+        List<Long> postIds = context.getBean(JdbcTemplate.class)
+                .queryForList("SELECT id FROM posts WHERE is_notice = false ORDER BY id", Long.class);
+
+        byte[] payload = new byte[config.fileSizeBytes()];
+        random.nextBytes(payload);
+
+        PostFileService postFileService = context.getBean(PostFileService.class);
+        List<String> storedNames = new ArrayList<>();
+        for (int i = 0; i < config.seedFiles() && i < postIds.size(); i++) {
+            // 첨부파일은 내용 기준으로 중복 제거되므로 파일마다 내용을 조금씩 다르게 한다
+            byte[] content = payload.clone();
+            ByteBuffer.wrap(content).putInt(0, i);
+            PostFile file = postFileService.uploadFileStream(postIds.get(i), "seed-" + i + ".bin",
+                    "application/octet-stream", new ByteArrayInputStream(content));
+            storedNames.add(file.getStoredName());
+        }
+
+        // 검색 색인 구축이 끝나야 검색 요청이 색인 경로를 탄다
+        PostSearchIndex searchIndex = context.getBean(PostSearchIndex.class);
+        while (!searchIndex.isReady()) {
+            Thread.sleep(100);
+        }
+
+        System.out.println("시딩 완료: 게시글 " + result.posts() + "개, 댓글 " + result.comments() + "개, 파일 "
+                + storedNames.size() + "개 (" + (System.currentTimeMillis() - startedAt) + "ms)");
+        return new SeedData(postIds, storedNames, WORDS, payload);
+    }
+
+    private byte[] buildNdjson() throws IOException {
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDateTime base = LocalDateTime.now().minusDays(365);
+
+        int total = config.seedPosts() + config.seedNotices();
+        for (int i = 0; i < total; i++) {
+            boolean notice = i < config.seedNotices();
+
+            PostImportReq post = new PostImportReq();
+            post.setTitle((notice ? "[공지] " : "") + sentence(4) + " " + i);
+            post.setContent(paragraph(20 + random.nextInt(200)));
+            post.setAuthor("user" + random.nextInt(500));
+            post.setIsNotice(notice);
+            post.setIsPinned(notice && i % 5 == 0);
+            post.setViewCount((long) random.nextInt(10000));
+            post.setCreatedAt(base.plusMinutes(i * 10L));
+
+            int commentCount = random.nextInt(config.maxCommentsPerPost() + 1);
+            for (int c = 0; c < commentCount; c++) {
+                PostImportReq.CommentItem comment = new PostImportReq.CommentItem();
+                comment.setContent(sentence(8));
+                comment.setAuthor("user" + random.nextInt(500));
+                comment.setCreatedAt(post.getCreatedAt().plusMinutes(c + 1));
+                post.getComments().add(comment);
+            }
+
+            out.write(objectMapper.writeValueAsBytes(post));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private String sentence(int words) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return builder.toString();
+    }
+
+    private String paragraph(int words) {
+        return sentence(words) + ".";
+    }
+
+}
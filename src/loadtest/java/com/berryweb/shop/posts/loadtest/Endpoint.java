@@ -0,0 +1,92 @@
+package com.berryweb.shop.posts.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 부하 테스트 대상 엔드포인트 (요청 하나를 만드는 방법)
+enum Endpoint {
+
+    LIST {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/posts?page=" + random.nextInt(20) + "&size=20");
+        }
+    },
+    DETAIL {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/posts/" + pick(data.postIds(), random));
+        }
+    },
+    SEARCH {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            String keyword = URLEncoder.encode(pick(data.keywords(), random), StandardCharsets.UTF_8);
+            return get(baseUrl + "/api/posts/search?keyword=" + keyword + "&size=20");
+        }
+    },
+    COMMENT {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            String body = "{\"postId\":" + pick(data.postIds(), random)
+                    + ",\"content\":\"부하 테스트 댓글 " + random.nextInt(1_000_000) + "\",\"author\":\"loadtest\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/comments"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    UPLOAD {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            // 같은 내용은 중복 제거되어 쓰기가 생략되므로, 매번 새 내용을 저장하도록 앞부분을 바꾼다
+            byte[] content = data.uploadPayload().clone();
+            ByteBuffer.wrap(content).putLong(0, random.nextLong());
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/files/upload/" + pick(data.postIds(), random)
+                            + "/stream?filename=loadtest-" + random.nextInt(1_000_000) + ".bin"))
+                    .header("Content-Type", "application/octet-stream")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(content));
+        }
+    },
+    DOWNLOAD {
+        @Override
+        HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random) {
+            return get(baseUrl + "/api/files/download/" + pick(data.storedNames(), random));
+        }
+    };
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    abstract HttpRequest.Builder request(String baseUrl, SeedData data, ThreadLocalRandom random);
+
+    HttpRequest build(String baseUrl, SeedData data, ThreadLocalRandom random) {
+        return request(baseUrl, data, random).timeout(REQUEST_TIMEOUT).build();
+    }
+
+    String key() {
+        return name().toLowerCase();
+    }
+
+    static Endpoint fromName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key().equalsIgnoreCase(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 엔드포인트: " + name);
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET();
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.berryweb.shop.posts.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 엔드포인트별 지연 시간 히스토그램 (마이크로초, 유효숫자 3자리) + 오류 수
+class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    // 보고서에 넣는 백분위
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99};
+
+    private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // 지연 시간은 "보내려던 시각" 부터 잰다 (서버가 밀려 전송이 늦어진 시간도 포함, coordinated omission 방지)
+    void record(long latencyNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS);
+        recorder.recordValue(Math.max(micros, 1));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    // 동시 요청 한도를 넘어 보내지 못한 요청
+    void drop() {
+        dropped.increment();
+    }
+
+    Map<String, Object> report(double elapsedSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("min", toMillis(histogram.getMinValue()));
+        latency.put("mean", Math.round(histogram.getMean()) / 1000.0);
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + formatPercentile(percentile), toMillis(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("max", toMillis(histogram.getMaxValue()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("count", histogram.getTotalCount());
+        report.put("errors", errors.sum());
+        report.put("dropped", dropped.sum());
+        report.put("throughputPerSecond", Math.round(histogram.getTotalCount() / elapsedSeconds * 10) / 10.0);
+        report.put("latencyMs", latency);
+        // 원본 히스토그램 (HdrHistogram 압축 + Base64, 버전 간 정밀 비교/병합용)
+        report.put("hdrHistogram", encode(histogram));
+        return report;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.floor(percentile)
+                ? String.valueOf((long) percentile)
+                : String.valueOf(percentile).replace(".", "_");
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.berryweb.shop.posts.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// 부하 테스트 설정 (시스템 프로퍼티 loadtest.*, gradle 에서는 -Ploadtest.rate=200 처럼 전달)
+record LoadTestConfig(
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int maxInFlight,
+        Map<Endpoint, Integer> mix,
+        int seedPosts,
+        int seedNotices,
+        int maxCommentsPerPost,
+        int seedFiles,
+        int fileSizeBytes,
+        String threads,
+        String label,
+        Path output
+) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                intProperty("loadtest.rate", 200),
+                Duration.ofSeconds(intProperty("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(intProperty("loadtest.duration-seconds", 60)),
+                intProperty("loadtest.max-in-flight", 1000),
+                parseMix(System.getProperty("loadtest.mix", "list:40,detail:30,search:10,comment:10,upload:5,download:5")),
+                intProperty("loadtest.seed-posts", 10000),
+                intProperty("loadtest.seed-notices", 20),
+                intProperty("loadtest.max-comments-per-post", 5),
+                intProperty("loadtest.seed-files", 200),
+                intProperty("loadtest.file-size-bytes", 256 * 1024),
+                threadsProperty(System.getProperty("loadtest.threads", "platform")),
+                System.getProperty("loadtest.label", "local"),
+                Path.of(System.getProperty("loadtest.output", "build/results/loadtest/result.json"))
+        );
+    }
+
+    // 예: list:40,detail:30,search:10 (빠진 엔드포인트는 0)
+    static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("잘못된 loadtest.mix 항목: " + entry);
+            }
+            mix.put(Endpoint.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix 의 비중 합계는 0 보다 커야 합니다.");
+        }
+        return mix;
+    }
+
+    // 서빙 모드: platform (Tomcat 스레드 풀) 또는 virtual (virtual-threads 프로필)
+    static String threadsProperty(String value) {
+        String threads = value.trim().toLowerCase();
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("loadtest.threads 는 platform 또는 virtual 이어야 합니다: " + value);
+        }
+        return threads;
+    }
+
+    boolean virtualThreads() {
+        return threads.equals("virtual");
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value != null && !value.isBlank() ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+}
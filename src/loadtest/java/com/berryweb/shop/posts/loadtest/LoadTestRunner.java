@@ -0,0 +1,171 @@
+package com.berryweb.shop.posts.loadtest;
+
+import com.berryweb.shop.posts.PostsApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// 부하 테스트 (./gradlew loadTest)
+// PostsApplication 을 loadtest 프로필(H2, MariaDB 모드)로 띄우고 합성 데이터를 시딩한 뒤,
+// 목표 초당 요청 수로 엔드포인트 혼합 트래픽을 보낸다 (open model: 응답을 기다리지 않고 일정 간격으로 전송).
+// 결과는 엔드포인트별 처리량 / 지연 시간 백분위를 JSON 으로 저장한다.
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        SpringApplication application = new SpringApplication(PostsApplication.class);
+        if (config.virtualThreads()) {
+            application.setAdditionalProfiles("loadtest", "virtual-threads");
+        } else {
+            application.setAdditionalProfiles("loadtest");
+        }
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment environment = context.getEnvironment();
+            String port = environment.getProperty("local.server.port");
+            String baseUrl = "http://localhost:" + port;
+
+            // Java 21 미만에서는 virtual-threads 프로필이어도 플랫폼 스레드로 동작하므로 비교가 무의미하다
+            if (config.virtualThreads() && !Threading.VIRTUAL.isActive(environment)) {
+                throw new IllegalStateException("가상 스레드 모드는 Java 21 이상에서 실행해야 합니다 (현재 "
+                        + Runtime.version().feature() + ").");
+            }
+
+            SeedData data = new DataSeeder(context, config).seed();
+            Map<String, Object> result = run(config, baseUrl, data);
+            result.put("serving", serving(environment));
+            write(config, result);
+        }
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, String baseUrl, SeedData data) throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : config.mix().keySet()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        Endpoint[] weighted = weightedEndpoints(config.mix());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long startedAt = System.nanoTime();
+        long warmupEnd = startedAt + config.warmup().toNanos();
+        long end = warmupEnd + config.duration().toNanos();
+
+        System.out.println("부하 테스트 시작: " + config.rate() + " req/s, 워밍업 " + config.warmup().toSeconds()
+                + "s, 측정 " + config.duration().toSeconds() + "s, 비중 " + config.mix());
+
+        for (long sent = 0; ; sent++) {
+            long intended = startedAt + sent * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // 워밍업 구간에 보낸 요청은 결과에 넣지 않는다
+            boolean measured = intended >= warmupEnd;
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Endpoint endpoint = weighted[random.nextInt(weighted.length)];
+            EndpointStats endpointStats = stats.get(endpoint);
+
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    endpointStats.drop();
+                }
+                continue;
+            }
+            HttpRequest request = endpoint.build(baseUrl, data, random);
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (measured) {
+                            boolean success = error == null && response.statusCode() / 100 == 2;
+                            endpointStats.record(System.nanoTime() - intended, success);
+                        }
+                    });
+        }
+
+        // 남은 응답 대기
+        inFlight.acquire(config.maxInFlight());
+        double elapsedSeconds = config.duration().toNanos() / 1e9;
+        executor.shutdown();
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> endpoints.put(endpoint.key(), endpointStats.report(elapsedSeconds)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", config.label());
+        result.put("threads", config.threads());
+        result.put("finishedAt", LocalDateTime.now().toString());
+        result.put("targetRate", config.rate());
+        result.put("durationSeconds", config.duration().toSeconds());
+        result.put("warmupSeconds", config.warmup().toSeconds());
+        result.put("mix", config.mix());
+        result.put("seedPosts", data.postIds().size());
+        result.put("seedFiles", data.storedNames().size());
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    // 실행한 서빙 모드와 동시성 관련 설정 (결과 비교 시 함께 확인)
+    private static Map<String, Object> serving(Environment environment) {
+        Map<String, Object> serving = new LinkedHashMap<>();
+        serving.put("threads", Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform");
+        serving.put("javaVersion", Runtime.version().toString());
+        serving.put("tomcatMaxThreads", environment.getProperty("server.tomcat.threads.max", "200"));
+        serving.put("tomcatMaxConnections", environment.getProperty("server.tomcat.max-connections", "8192"));
+        serving.put("hikariMaximumPoolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+        serving.put("hikariConnectionTimeoutMs", environment.getProperty("spring.datasource.hikari.connection-timeout", "30000"));
+        return serving;
+    }
+
+    // 비중만큼 엔드포인트를 반복한 배열 (무작위 선택용)
+    private static Endpoint[] weightedEndpoints(Map<Endpoint, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Endpoint[]::new);
+    }
+
+    private static void write(LoadTestConfig config, Map<String, Object> result) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        if (config.output().getParent() != null) {
+            Files.createDirectories(config.output().getParent());
+        }
+        objectMapper.writeValue(config.output().toFile(), result);
+        System.out.println("부하 테스트 결과: " + config.output().toAbsolutePath());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> endpoints = (Map<String, Map<String, Object>>) result.get("endpoints");
+        endpoints.forEach((name, report) -> System.out.printf("  %-8s count=%s errors=%s dropped=%s rps=%s latencyMs=%s%n",
+                name, report.get("count"), report.get("errors"), report.get("dropped"),
+                report.get("throughputPerSecond"), report.get("latencyMs")));
+    }
+
+}
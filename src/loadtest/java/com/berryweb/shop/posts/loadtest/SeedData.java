@@ -0,0 +1,7 @@
+package com.berryweb.shop.posts.loadtest;
+
+import java.util.List;
+
+// 시딩 결과 (요청을 만들 때 쓰는 ID / 파일명 / 검색어)
+record SeedData(List<Long> postIds, List<String> storedNames, List<String> keywords, byte[] uploadPayload) {
+}
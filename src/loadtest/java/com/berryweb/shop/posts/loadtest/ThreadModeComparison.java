@@ -0,0 +1,89 @@
+package com.berryweb.shop.posts.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 플랫폼 스레드 / 가상 스레드 부하 테스트 결과 비교 (./gradlew loadTestThreads)
+// 인자: <platform 결과> <virtual 결과> <비교 결과 저장 경로>
+// 엔드포인트별 처리량과 p99 지연 시간, 오류 / 누락 수를 나란히 놓고 변화율을 계산한다.
+public class ThreadModeComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("사용법: ThreadModeComparison <platform.json> <virtual.json> <output.json>");
+        }
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        JsonNode platform = objectMapper.readTree(Path.of(args[0]).toFile());
+        JsonNode virtual = objectMapper.readTree(Path.of(args[1]).toFile());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = platform.path("endpoints").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode other = virtual.path("endpoints").path(entry.getKey());
+            if (!other.isMissingNode()) {
+                endpoints.put(entry.getKey(), compare(entry.getValue(), other));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("targetRate", platform.path("targetRate").asInt());
+        result.put("durationSeconds", platform.path("durationSeconds").asLong());
+        result.put("platform", objectMapper.convertValue(platform.path("serving"), Map.class));
+        result.put("virtual", objectMapper.convertValue(virtual.path("serving"), Map.class));
+        result.put("endpoints", endpoints);
+
+        Path output = Path.of(args[2]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        objectMapper.writeValue(output.toFile(), result);
+
+        System.out.println("서빙 모드 비교 결과: " + output.toAbsolutePath());
+        System.out.printf("  %-8s %12s %12s %8s %12s %12s %8s%n",
+                "", "rps(plat)", "rps(virt)", "diff", "p99(plat)", "p99(virt)", "diff");
+        endpoints.forEach((name, value) -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> row = (Map<String, Object>) value;
+            System.out.printf("  %-8s %12s %12s %8s %12s %12s %8s%n", name,
+                    row.get("platformRps"), row.get("virtualRps"), row.get("rpsChange"),
+                    row.get("platformP99Ms"), row.get("virtualP99Ms"), row.get("p99Change"));
+        });
+    }
+
+    private static Map<String, Object> compare(JsonNode platform, JsonNode virtual) {
+        double platformRps = platform.path("throughputPerSecond").asDouble();
+        double virtualRps = virtual.path("throughputPerSecond").asDouble();
+        double platformP99 = platform.path("latencyMs").path("p99").asDouble();
+        double virtualP99 = virtual.path("latencyMs").path("p99").asDouble();
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("platformRps", platformRps);
+        row.put("virtualRps", virtualRps);
+        row.put("rpsChange", change(platformRps, virtualRps));
+        row.put("platformP99Ms", platformP99);
+        row.put("virtualP99Ms", virtualP99);
+        row.put("p99Change", change(platformP99, virtualP99));
+        row.put("platformErrors", platform.path("errors").asLong());
+        row.put("virtualErrors", virtual.path("errors").asLong());
+        row.put("platformDropped", platform.path("dropped").asLong());
+        row.put("virtualDropped", virtual.path("dropped").asLong());
+        return row;
+    }
+
+    // 변화율 (예: +12.5%), 기준값이 0 이면 "n/a"
+    private static String change(double base, double value) {
+        if (base == 0) {
+            return "n/a";
+        }
+        return String.format("%+.1f%%", (value - base) / base * 100);
+    }
+
+}
@@ -1,13 +1,20 @@
 package com.berryweb.shop.posts;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class})
-@ComponentScan(basePackages = {"com.berryweb.shop"})
+// @SpringBootApplication 의 기본 필터를 그대로 둬야 @DataJpaTest 같은 테스트 슬라이스가 컨트롤러/서비스를 빼고 뜬다
+@ComponentScan(basePackages = {"com.berryweb.shop"}, excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class)
+})
 @EnableScheduling
 public class PostsApplication {
 
@@ -0,0 +1,38 @@
+package com.berryweb.shop.posts.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+// @Modifying 리포지토리 메서드(JPQL / 네이티브 일괄 UPDATE, DELETE)는 엔티티 이벤트가 없으므로
+// 리포지토리의 엔티티 영역 전체를 다른 인스턴스에서도 비우도록 보낸다
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class BulkUpdateCacheInvalidationAspect {
+
+    // 애스펙트가 만들어질 때 EntityManagerFactory 를 미리 끌어오지 않도록 지연 조회
+    private final ObjectProvider<SecondLevelCacheInvalidator> invalidator;
+
+    @AfterReturning("execution(* com.berryweb.shop.posts.repository.*.*(..))")
+    public void afterRepositoryCall(JoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        if (!signature.getMethod().isAnnotationPresent(Modifying.class)) {
+            return;
+        }
+        Class<?> entityClass = ResolvableType.forClass(signature.getDeclaringType())
+                .as(Repository.class)
+                .resolveGeneric(0);
+        if (entityClass != null) {
+            invalidator.getObject().bulkUpdated(entityClass);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.berryweb.shop.posts.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// 다른 인스턴스에 보내는 2차 캐시 무효화 메시지
+// entities: 엔티티 이름 -> 지울 ID, evictAll: 영역 전체를 지울 엔티티 (일괄 UPDATE), spaces: 쿼리 캐시를 무효화할 테이블
+public record CacheInvalidation(String origin, Map<String, Set<Long>> entities, Set<String> evictAll, Set<String> spaces) {
+
+    public CacheInvalidation {
+        entities = entities != null ? entities : Map.of();
+        evictAll = evictAll != null ? evictAll : Set.of();
+        spaces = spaces != null ? spaces : Set.of();
+    }
+
+    // 전송 전까지 여러 변경을 하나로 모은다 (CacheInvalidationBroadcaster 의 lock 안에서만 사용)
+    static class Builder {
+
+        private final Map<String, Set<Long>> entities = new HashMap<>();
+        private final Set<String> evictAll = new HashSet<>();
+        private final Set<String> spaces = new HashSet<>();
+
+        void entity(String entityName, Long id) {
+            if (!evictAll.contains(entityName)) {
+                entities.computeIfAbsent(entityName, name -> new HashSet<>()).add(id);
+            }
+        }
+
+        void entities(String entityName, Collection<Long> ids) {
+            ids.forEach(id -> entity(entityName, id));
+        }
+
+        void evictAll(String entityName) {
+            evictAll.add(entityName);
+            entities.remove(entityName);
+        }
+
+        void spaces(Collection<String> tables) {
+            spaces.addAll(tables);
+        }
+
+        CacheInvalidation build(String origin) {
+            return new CacheInvalidation(origin, entities, evictAll, spaces);
+        }
+    }
+
+}
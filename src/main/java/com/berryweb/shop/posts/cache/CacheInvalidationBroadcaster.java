@@ -0,0 +1,165 @@
+package com.berryweb.shop.posts.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// 2차 캐시 무효화를 같은 서비스의 다른 인스턴스(Eureka 로 조회)에 HTTP 로 전파
+// 커밋 후 들어온 변경을 모아 전용 스레드 하나에서 보낸다 (보내는 동안 들어온 변경은 다음 메시지로 합쳐짐).
+// 실패는 재시도하지 않는다. 놓친 무효화는 엔티티/쿼리 영역의 TTL 이 지나면 정리된다.
+// 받는 쪽은 같은 토큰을 가진 메시지만 받으므로 (SecurityConfig), 토큰을 설정하지 않으면 보내지도 받지도 않는다.
+@Slf4j
+@Component
+public class CacheInvalidationBroadcaster {
+
+    public static final String PATH = "/internal/cache/invalidate";
+    public static final String TOKEN_HEADER = "X-Cache-Invalidation-Token";
+
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final String serviceId;
+    private final String instanceId;
+    private final String token;
+    private final boolean enabled;
+    private final RestClient restClient;
+
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private CacheInvalidation.Builder pending; // lock 으로 보호, null 이면 보낼 것 없음
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public CacheInvalidationBroadcaster(ObjectProvider<DiscoveryClient> discoveryClient,
+                                        ObjectProvider<Registration> registration, MeterRegistry meterRegistry,
+                                        @Value("${second-level-cache.invalidation.service-id:${spring.application.name:posts}}") String serviceId,
+                                        @Value("${second-level-cache.invalidation.token:}") String token,
+                                        @Value("${second-level-cache.enabled:true}") boolean cacheEnabled,
+                                        @Value("${second-level-cache.invalidation.enabled:true}") boolean invalidationEnabled,
+                                        @Value("${second-level-cache.invalidation.connect-timeout-ms:500}") int connectTimeoutMs,
+                                        @Value("${second-level-cache.invalidation.read-timeout-ms:2000}") int readTimeoutMs) {
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        Registration self = registration.getIfAvailable();
+        this.instanceId = self != null && self.getInstanceId() != null ? self.getInstanceId() : UUID.randomUUID().toString();
+        this.token = token;
+        this.enabled = cacheEnabled && invalidationEnabled && !token.isEmpty();
+        if (cacheEnabled && invalidationEnabled && token.isEmpty()) {
+            log.warn("second-level-cache.invalidation.token 이 없어 다른 인스턴스와 캐시 무효화를 주고받지 않습니다. "
+                    + "여러 인스턴스로 실행하면 모든 인스턴스에 같은 CACHE_INVALIDATION_TOKEN 을 설정하세요.");
+        }
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+
+        this.sent = Counter.builder("posts.cache.invalidation.sent")
+                .description("다른 인스턴스에 보낸 캐시 무효화 메시지 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("posts.cache.invalidation.failed")
+                .description("보내지 못한 캐시 무효화 메시지 수")
+                .register(meterRegistry);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    // 받은 메시지의 토큰 확인 (토큰을 설정하지 않았으면 모두 거부)
+    public boolean isTrusted(String receivedToken) {
+        if (token.isEmpty()) {
+            return false;
+        }
+        return receivedToken != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), receivedToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 보낼 변경 추가 (커밋 후 호출)
+    void publish(Consumer<CacheInvalidation.Builder> change) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            if (pending == null) {
+                try {
+                    sender.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    return; // 종료 중
+                }
+                pending = new CacheInvalidation.Builder();
+            }
+            change.accept(pending);
+        }
+    }
+
+    private void send() {
+        CacheInvalidation invalidation;
+        synchronized (lock) {
+            invalidation = pending.build(instanceId);
+            pending = null;
+        }
+
+        for (ServiceInstance peer : peers()) {
+            try {
+                restClient.post()
+                        .uri(peer.getUri().resolve(PATH))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(TOKEN_HEADER, token)
+                        .body(invalidation)
+                        .retrieve()
+                        .toBodilessEntity();
+                sent.increment();
+            } catch (RestClientException e) {
+                failed.increment();
+                log.warn("캐시 무효화 전송 실패: peer={}, reason={}", peer.getUri(), e.getMessage());
+            }
+        }
+    }
+
+    // 자신을 제외한 같은 서비스의 인스턴스
+    private List<ServiceInstance> peers() {
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client == null) {
+            return List.of();
+        }
+        try {
+            return client.getInstances(serviceId).stream()
+                    .filter(instance -> !instanceId.equals(instance.getInstanceId()))
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("캐시 무효화 대상 조회 실패: serviceId={}, reason={}", serviceId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+    }
+
+}
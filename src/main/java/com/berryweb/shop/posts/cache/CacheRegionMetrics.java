@@ -0,0 +1,57 @@
+package com.berryweb.shop.posts.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// 2차 캐시 영역별 적중 / 실패 / 저장 수 (Hibernate 통계 기반)
+// posts.cache.requests{region, result=hit|miss}, posts.cache.puts{region}
+// 쿼리 영역은 처음 사용될 때 만들어지므로 그 전에는 0 으로 보인다.
+public class CacheRegionMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final List<String> regions;
+
+    public CacheRegionMetrics(EntityManagerFactory entityManagerFactory, List<String> regions) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.regions = regions;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : regions) {
+            FunctionCounter.builder("posts.cache.requests", statistics, s -> count(s, region, CacheRegionStatistics::getHitCount))
+                    .description("2차 캐시 조회 수")
+                    .tag("region", region)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("posts.cache.requests", statistics, s -> count(s, region, CacheRegionStatistics::getMissCount))
+                    .description("2차 캐시 조회 수")
+                    .tag("region", region)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("posts.cache.puts", statistics, s -> count(s, region, CacheRegionStatistics::getPutCount))
+                    .description("2차 캐시 저장 수")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static double count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> value) {
+        try {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            return regionStatistics != null ? value.applyAsLong(regionStatistics) : 0;
+        } catch (IllegalArgumentException e) {
+            return 0; // 아직 만들어지지 않은 영역
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.berryweb.shop.posts.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// 2차 캐시 무효화
+// - 이 인스턴스의 변경: Hibernate 가 로컬 캐시를 정리하고, 여기서는 다른 인스턴스에 같은 무효화를 보낸다.
+//   (Hibernate 를 거치지 않는 JDBC 한 행 갱신은 rowUpdated 로 로컬도 함께 지운다)
+// - 다른 인스턴스의 변경: apply 로 로컬 캐시에서 지운다 (다시 전파하지 않음).
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final CacheInvalidationBroadcaster broadcaster;
+    private final Counter received;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory, CacheInvalidationBroadcaster broadcaster,
+                                       MeterRegistry meterRegistry) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.broadcaster = broadcaster;
+        this.received = Counter.builder("posts.cache.invalidation.received")
+                .description("다른 인스턴스에서 받아 적용한 캐시 무효화 메시지 수")
+                .register(meterRegistry);
+    }
+
+    // 엔티티 INSERT / UPDATE / DELETE 커밋 후 (id 가 null 이면 새 행이라 쿼리 캐시만 무효화)
+    void entityChanged(EntityPersister persister, Object id) {
+        List<String> spaces = spacesOf(persister);
+        String entityName = persister.getEntityName();
+        broadcaster.publish(pending -> {
+            if (id instanceof Long value) {
+                pending.entity(entityName, value);
+            } else if (id != null) {
+                pending.evictAll(entityName);
+            }
+            pending.spaces(spaces);
+        });
+    }
+
+    // JPQL / 네이티브 일괄 UPDATE: 로컬에서 Hibernate 가 영역 전체를 비우므로 다른 인스턴스도 영역 전체를 비운다
+    void bulkUpdated(Class<?> entityClass) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        List<String> spaces = spacesOf(persister);
+        String entityName = persister.getEntityName();
+        afterCommit(() -> broadcaster.publish(pending -> {
+            pending.evictAll(entityName);
+            pending.spaces(spaces);
+        }));
+    }
+
+    // Hibernate 를 거치지 않고 JDBC 로 한 행만 바꾼 경우: 그 엔티티만 지우고 테이블을 읽은 쿼리 캐시를 무효화 (다른 인스턴스에도 전파)
+    // 커밋 전에 한 번 지워 두고, 그 사이 다른 요청이 옛 값을 다시 캐시에 넣었을 수 있으므로 커밋 후에 한 번 더 지운다.
+    public void rowUpdated(Class<?> entityClass, Long id) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        List<String> spaces = spacesOf(persister);
+        String entityName = persister.getEntityName();
+        sessionFactory.getCache().evictEntityData(entityName, id);
+        afterCommit(() -> {
+            sessionFactory.getCache().evictEntityData(entityName, id);
+            invalidateSpaces(spaces);
+            broadcaster.publish(pending -> {
+                pending.entity(entityName, id);
+                pending.spaces(spaces);
+            });
+        });
+    }
+
+    // 다른 인스턴스에서 받은 무효화 적용
+    public void apply(CacheInvalidation invalidation) {
+        if (broadcaster.getInstanceId().equals(invalidation.origin())) {
+            return;
+        }
+        invalidation.entities().forEach((entityName, ids) ->
+                ids.forEach(id -> sessionFactory.getCache().evictEntityData(entityName, id)));
+        invalidation.evictAll().forEach(entityName -> sessionFactory.getCache().evictEntityData(entityName));
+
+        invalidateSpaces(invalidation.spaces());
+        received.increment();
+        log.debug("캐시 무효화 적용: origin={}, entities={}, evictAll={}, spaces={}", invalidation.origin(),
+                invalidation.entities().keySet(), invalidation.evictAll(), invalidation.spaces());
+    }
+
+    // 테이블 변경 시각을 갱신해 그 테이블을 읽은 쿼리 캐시 결과를 무효화 (로컬 커밋과 같은 방식)
+    private void invalidateSpaces(Collection<String> spaces) {
+        var timestampsCache = sessionFactory.getCache().getTimestampsCache();
+        if (spaces.isEmpty() || timestampsCache == null) {
+            return;
+        }
+        try (var session = sessionFactory.openSession()) {
+            timestampsCache.invalidate(spaces.toArray(String[]::new), (SharedSessionContractImplementor) session);
+        }
+    }
+
+    private static List<String> spacesOf(EntityPersister persister) {
+        return Arrays.stream(persister.getPropertySpaces()).map(Object::toString).toList();
+    }
+
+    // 트랜잭션 안이면 커밋 후에, 아니면 바로 실행
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+}
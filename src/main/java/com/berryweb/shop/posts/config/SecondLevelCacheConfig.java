@@ -0,0 +1,93 @@
+package com.berryweb.shop.posts.config;
+
+import com.berryweb.shop.posts.cache.CacheRegionMetrics;
+import com.berryweb.shop.posts.entity.Comment;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.repository.PostRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate 2차 캐시 (게시글 / 댓글 / 첨부파일 엔티티 + 목록 / 공지사항 쿼리)
+// 인스턴스마다 크기 제한이 있는 Caffeine(JCache) 영역을 미리 만들어 Hibernate 에 넘긴다.
+// 여기서 만들지 않은 영역은 시작 시 실패한다 (제한 없는 캐시가 생기지 않도록).
+@Configuration
+@ConditionalOnProperty(name = "second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    private static final List<String> METRIC_REGIONS = List.of(
+            Post.CACHE_REGION, Comment.CACHE_REGION, PostFile.CACHE_REGION,
+            PostRepository.LIST_CACHE_REGION, PostRepository.NOTICE_CACHE_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${second-level-cache.post-max-entries:5000}") long postMaxEntries,
+            @Value("${second-level-cache.comment-max-entries:20000}") long commentMaxEntries,
+            @Value("${second-level-cache.file-max-entries:20000}") long fileMaxEntries,
+            @Value("${second-level-cache.entity-ttl-seconds:600}") long entityTtlSeconds,
+            @Value("${second-level-cache.query-max-entries:2000}") long queryMaxEntries,
+            @Value("${second-level-cache.query-ttl-seconds:30}") long queryTtlSeconds) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // 기본 CacheManager 는 JVM 안에서 공유되므로 (테스트 컨텍스트 등) 컨텍스트마다 따로 만든다
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("urn:posts:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, Post.CACHE_REGION, OptionalLong.of(postMaxEntries), entityTtlSeconds);
+        createRegion(cacheManager, Comment.CACHE_REGION, OptionalLong.of(commentMaxEntries), entityTtlSeconds);
+        createRegion(cacheManager, PostFile.CACHE_REGION, OptionalLong.of(fileMaxEntries), entityTtlSeconds);
+        createRegion(cacheManager, PostRepository.LIST_CACHE_REGION, OptionalLong.of(queryMaxEntries), queryTtlSeconds);
+        createRegion(cacheManager, PostRepository.NOTICE_CACHE_REGION, OptionalLong.of(queryMaxEntries), queryTtlSeconds);
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                OptionalLong.of(queryMaxEntries), queryTtlSeconds);
+        // 테이블별 마지막 변경 시각 (테이블 수만큼만 쌓이고, 사라지면 오래된 쿼리 결과가 유효하게 보이므로 제한/만료 없음)
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, OptionalLong.empty(), 0);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    @Bean
+    public CacheRegionMetrics cacheRegionMetrics(EntityManagerFactory entityManagerFactory) {
+        return new CacheRegionMetrics(entityManagerFactory, METRIC_REGIONS);
+    }
+
+    // ttlSeconds 가 0 이면 만료 없음
+    private static void createRegion(CacheManager cacheManager, String name, OptionalLong maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maxEntries);
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        // Hibernate 캐시 항목은 불변이므로 직렬화 복사 없이 참조로 보관
+        configuration.setStoreByValue(false);
+        cacheManager.createCache(name, configuration);
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.berryweb.shop.posts.config;
 
+import com.berryweb.shop.posts.cache.CacheInvalidationBroadcaster;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -12,10 +14,13 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, CacheInvalidationBroadcaster broadcaster) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authz -> authz
+                        // 인스턴스 사이 캐시 무효화: 같은 토큰을 보낸 요청만 (토큰을 설정하지 않았으면 모두 거부)
+                        .requestMatchers("/internal/cache/**").access((authentication, context) -> new AuthorizationDecision(
+                                broadcaster.isTrusted(context.getRequest().getHeader(CacheInvalidationBroadcaster.TOKEN_HEADER))))
                         .requestMatchers("/api/**").permitAll() // API 경로 모두 허용
                         .anyRequest().permitAll()
                 );
@@ -0,0 +1,37 @@
+package com.berryweb.shop.posts.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+// 서빙 모드 확인 (virtual-threads 프로필)
+// spring.threads.virtual.enabled=true 이고 Java 21 이상이면 Tomcat 요청 처리, @Scheduled 작업,
+// 그 안에서 하는 JDBC / 파일 I/O 가 모두 가상 스레드에서 실행된다. Java 21 미만이면 조용히 플랫폼 스레드로 돌아가므로 시작 시 알린다.
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ThreadingConfig {
+
+    private final Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logServingMode() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("서빙 모드: virtual, hikariMaximumPoolSize={}, tomcatMaxConnections={}",
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10"),
+                    environment.getProperty("server.tomcat.max-connections", "8192"));
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled=true 이지만 Java {} 에서는 가상 스레드를 쓸 수 없어 플랫폼 스레드로 실행합니다 (Java 21 이상 필요)",
+                    Runtime.version().feature());
+        } else {
+            log.info("서빙 모드: platform, tomcatMaxThreads={}",
+                    environment.getProperty("server.tomcat.threads.max", "200"));
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.cache.CacheInvalidation;
+import com.berryweb.shop.posts.cache.CacheInvalidationBroadcaster;
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// 다른 인스턴스가 보낸 2차 캐시 무효화 수신 (CacheInvalidationBroadcaster)
+// 토큰 확인은 SecurityConfig 에서 한다 (토큰이 맞지 않으면 여기까지 오지 않음)
+@RestController
+@RequiredArgsConstructor
+public class CacheInvalidationController {
+
+    private final SecondLevelCacheInvalidator invalidator;
+
+    @PostMapping(CacheInvalidationBroadcaster.PATH)
+    public ResponseEntity<Void> invalidate(@RequestBody CacheInvalidation invalidation) {
+        invalidator.apply(invalidation);
+        return ResponseEntity.noContent().build();
+    }
+
+}
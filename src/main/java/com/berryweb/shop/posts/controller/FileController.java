@@ -1,23 +1,33 @@
 package com.berryweb.shop.posts.controller;
 
+import com.berryweb.shop.posts.dto.UploadSessionCreateReq;
 import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.service.ChunkedUploadService;
+import com.berryweb.shop.posts.service.ContentEncoding;
+import com.berryweb.shop.posts.service.ImageDerivativeService;
 import com.berryweb.shop.posts.service.PostFileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
@@ -25,6 +35,9 @@ import java.util.Map;
 public class FileController {
 
     private final PostFileService postFileService;
+    private final FileDownloadWriter fileDownloadWriter;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ChunkedUploadService chunkedUploadService;
 
     // 특정 게시글의 파일 목록 조회 (일반 게시글)
     @GetMapping("/post/{postId}")
@@ -46,9 +59,7 @@ public class FileController {
             @PathVariable Long postId,
             @RequestParam("files") MultipartFile[] files) {
 
-        System.out.println("=== 게시글 파일 업로드 시작 ===");
-        System.out.println("게시글 ID: " + postId);
-        System.out.println("받은 파일 개수: " + files.length);
+        log.debug("게시글 파일 업로드 요청: postId={}, files={}", postId, files.length);
 
         return processFileUpload(postId, files, "게시글");
     }
@@ -59,9 +70,7 @@ public class FileController {
             @PathVariable Long noticeId,
             @RequestParam("files") MultipartFile[] files) {
 
-        System.out.println("=== 공지사항 파일 업로드 시작 ===");
-        System.out.println("공지사항 ID: " + noticeId);
-        System.out.println("받은 파일 개수: " + files.length);
+        log.debug("공지사항 파일 업로드 요청: noticeId={}, files={}", noticeId, files.length);
 
         return processFileUpload(noticeId, files, "공지사항");
     }
@@ -77,7 +86,6 @@ public class FileController {
 
             for (MultipartFile file : files) {
                 if (!file.isEmpty()) {
-                    System.out.println("처리 중인 파일: " + file.getOriginalFilename());
                     PostFile postFile = postFileService.uploadFile(targetId, file);
                     uploadedFiles.add(postFile);
                 }
@@ -89,14 +97,119 @@ public class FileController {
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            System.err.println("업로드 실패: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("업로드 실패: type={}, targetId={}", type, targetId, e);
             response.put("error", e.getMessage());
             response.put("type", type);
             return ResponseEntity.badRequest().body(response);
         }
     }
 
+    // 요청 본문 스트리밍 업로드 (multipart 임시 파일 없이 한 번에 저장)
+    // 예: curl -X POST --data-binary @file.pdf -H "Content-Type: application/pdf" ".../upload/1/stream?filename=file.pdf"
+    // X-Content-SHA256 헤더로 내용 해시를 보내면, 같은 내용이 이미 저장되어 있을 때 본문을 읽지 않고 바로 등록한다.
+    @PostMapping("/upload/{postId}/stream")
+    public ResponseEntity<Map<String, Object>> uploadFileStream(
+            @PathVariable Long postId,
+            @RequestParam("filename") String filename,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String contentSha256,
+            HttpServletRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            PostFile postFile = postFileService.uploadFileStream(
+                    postId, filename, request.getContentType(), contentSha256, request.getInputStream());
+
+            response.put("message", "1개 파일 업로드 완료");
+            response.put("file", postFile);
+            return ResponseEntity.ok(response);
+
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("스트리밍 업로드 실패: postId={}, reason={}", postId, e.getMessage());
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // ---- 분할(재개 가능) 업로드 ----
+    // 1) POST /upload/{postId}/sessions  {filename, contentType, size, sha256} -> uploadId, chunkSize, chunkCount
+    // 2) PUT  /upload/sessions/{uploadId}/chunks/{index}  (요청 본문 = 조각, X-Chunk-SHA256 = 조각의 SHA-256, 순서 무관, 동시 전송 가능)
+    // 3) POST /upload/sessions/{uploadId}/complete  -> 등록된 파일
+    // 연결이 끊기면 GET /upload/sessions/{uploadId} 의 receivedChunks 를 보고 빠진 조각만 다시 보낸다.
+    // 진행 중인 세션이 너무 많으면 세션 생성은 429 (Retry-After) 로 거절한다.
+    @PostMapping("/upload/{postId}/sessions")
+    public ResponseEntity<Map<String, Object>> createUploadSession(
+            @PathVariable Long postId,
+            @RequestBody UploadSessionCreateReq request) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.createSession(postId, request.getFilename(),
+                    request.getContentType(), request.getSize(), request.getSha256()));
+        } catch (ChunkedUploadService.TooManyUploadSessionsException e) {
+            // 진행 중인 세션이 정리될 때까지 (만료 정리 주기) 기다렸다가 다시 시도
+            log.warn("분할 업로드 세션 생성 거절: postId={}, reason={}", postId, e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "60").body(response);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("분할 업로드 세션 생성 실패: postId={}, reason={}", postId, e.getMessage());
+            return errorResponse(e);
+        }
+    }
+
+    @GetMapping("/upload/sessions/{uploadId}")
+    public ResponseEntity<Map<String, Object>> getUploadSession(@PathVariable String uploadId) {
+        Map<String, Object> status = chunkedUploadService.getStatus(uploadId);
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @PutMapping("/upload/sessions/{uploadId}/chunks/{index}")
+    public ResponseEntity<Map<String, Object>> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String chunkSha256,
+            HttpServletRequest request) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.writeChunk(uploadId, index, chunkSha256, request.getInputStream()));
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("조각 업로드 실패: uploadId={}, index={}, reason={}", uploadId, index, e.getMessage());
+            return errorResponse(e);
+        }
+    }
+
+    @PostMapping("/upload/sessions/{uploadId}/complete")
+    public ResponseEntity<Map<String, Object>> completeUploadSession(@PathVariable String uploadId) {
+        try {
+            PostFile postFile = chunkedUploadService.complete(uploadId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "1개 파일 업로드 완료");
+            response.put("file", postFile);
+            return ResponseEntity.ok(response);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("분할 업로드 완료 실패: uploadId={}, reason={}", uploadId, e.getMessage());
+            return errorResponse(e);
+        }
+    }
+
+    @DeleteMapping("/upload/sessions/{uploadId}")
+    public ResponseEntity<Map<String, Object>> abortUploadSession(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "업로드가 취소되었습니다.");
+            return ResponseEntity.ok(response);
+        } catch (IOException | IllegalArgumentException e) {
+            return errorResponse(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(Exception e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
     // 다중 파일 업로드 (레거시 지원)
     @PostMapping("/upload-multiple/{postId}")
     public ResponseEntity<Map<String, Object>> uploadMultipleFiles(
@@ -120,29 +233,91 @@ public class FileController {
         }
     }
 
-    // 파일 다운로드
+    // 파일 다운로드 (Range 요청 지원, 힙에 파일 전체를 올리지 않고 스트리밍)
     @GetMapping("/download/{storedName}")
-    public ResponseEntity<ByteArrayResource> downloadFile(@PathVariable String storedName) {
+    public void downloadFile(@PathVariable String storedName,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        PostFile fileEntity;
+        Path filePath;
         try {
-            PostFile fileEntity = postFileService.getFileByStoredName(storedName);
-            byte[] fileData = postFileService.downloadFile(storedName);
+            fileEntity = postFileService.getFileByStoredName(storedName);
+            filePath = postFileService.getDownloadPath(fileEntity);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // 파일명 인코딩 (한글 파일명 지원)
+        String encodedFileName = URLEncoder.encode(fileEntity.getOriginalName(), StandardCharsets.UTF_8)
+                .replaceAll("\\+", "%20");
 
-            ByteArrayResource resource = new ByteArrayResource(fileData);
+        String contentDisposition = "attachment; filename=\"" + encodedFileName + "\"";
 
-            // 파일명 인코딩 (한글 파일명 지원)
-            String encodedFileName = URLEncoder.encode(fileEntity.getOriginalName(), StandardCharsets.UTF_8)
-                    .replaceAll("\\+", "%20");
+        // 저장 파일명은 UUID 라 내용이 바뀌지 않으므로 그대로 ETag 로 사용
+        List<ContentEncoding> encodings = postFileService.getStoredEncodings(filePath);
+        if (encodings.isEmpty()) {
+            fileDownloadWriter.write(request, response, filePath, "\"" + storedName + "\"", contentDisposition);
+            return;
+        }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + encodedFileName + "\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .contentLength(fileData.length)
-                    .body(resource);
+        // 압축 저장된 파일: 받을 수 있는 인코딩이면 압축본을 그대로, 아니면 풀어서 전송
+        // (표현마다 바이트가 다르므로 ETag 도 인코딩별로 다르게)
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        ContentEncoding accepted = ContentEncoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), encodings);
+        if (accepted != null) {
+            fileDownloadWriter.write(request, response, postFileService.getEncodedPath(filePath, accepted),
+                    "\"" + storedName + "-" + accepted.token() + "\"", contentDisposition,
+                    "application/octet-stream", accepted);
+        } else {
+            ContentEncoding stored = encodings.get(0);
+            fileDownloadWriter.writeDecoded(request, response, postFileService.getEncodedPath(filePath, stored),
+                    stored, fileEntity.getFileSize(), "\"" + storedName + "\"", contentDisposition);
+        }
+    }
 
-        } catch (IOException e) {
-            return ResponseEntity.notFound().build();
+    // 이미지 썸네일 / 미리보기 (JPEG)
+    // 업로드 후 백그라운드에서 만들어 두고, 아직 없으면 잠시 기다렸다가 그래도 없으면 503 + Retry-After
+    @GetMapping("/thumbnail/{storedName}")
+    public void downloadThumbnail(@PathVariable String storedName,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        writeDerivative(storedName, ImageDerivativeService.Variant.THUMBNAIL, request, response);
+    }
+
+    @GetMapping("/preview/{storedName}")
+    public void downloadPreview(@PathVariable String storedName,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        writeDerivative(storedName, ImageDerivativeService.Variant.PREVIEW, request, response);
+    }
+
+    private void writeDerivative(String storedName, ImageDerivativeService.Variant variant,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PostFile fileEntity;
+        Path derivativePath;
+        String etag;
+        try {
+            fileEntity = postFileService.getFileByStoredName(storedName);
+
+            // 파생 이미지는 원본 내용(해시)이 같으면 같으므로, 브라우저에 있으면 생성/조회 없이 304
+            etag = "\"" + fileEntity.getContentHash() + "-" + variant.key() + "\"";
+            if (fileEntity.getContentHash() != null && new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+            derivativePath = imageDerivativeService.getDerivative(fileEntity, variant);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+
+        if (derivativePath == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        fileDownloadWriter.write(request, response, derivativePath, etag, "inline", MediaType.IMAGE_JPEG_VALUE);
     }
 
     // 파일 삭제
@@ -0,0 +1,194 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.service.ContentEncoding;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 첨부파일 스트리밍 응답
+// 파일 내용을 힙에 올리지 않고 FileChannel 에서 소켓으로 바로 보낸다. (Range / If-Range, If-None-Match / If-Modified-Since 지원)
+// 같은 URL 의 내용은 바뀌지 않으므로 (저장 이름은 업로드마다 새로 만들고, 파생 이미지는 원본 해시로 찾는다) 1년 immutable 로 캐시한다.
+@Component
+public class FileDownloadWriter {
+
+    private final Counter downloadedBytes;
+
+    public FileDownloadWriter(MeterRegistry meterRegistry) {
+        this.downloadedBytes = Counter.builder("posts.files.downloaded.bytes")
+                .description("다운로드 응답으로 보낸 첨부파일 바이트 수 (Range 요청은 범위만큼)")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Tomcat sendfile 연동 속성 (NIO 커넥터가 커널 sendfile 로 전송)
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue();
+
+    // 이보다 작은 파일은 sendfile 대신 바로 쓴다 (Tomcat DefaultServlet 기본값과 동일)
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    public void write(HttpServletRequest request, HttpServletResponse response, Path path,
+                      String etag, String contentDisposition) throws IOException {
+        write(request, response, path, etag, contentDisposition, "application/octet-stream");
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, Path path,
+                      String etag, String contentDisposition, String contentType) throws IOException {
+        write(request, response, path, etag, contentDisposition, contentType, null);
+    }
+
+    // contentEncoding: 압축 저장된 파일을 그대로 보낼 때 (Range 는 압축된 바이트 기준)
+    public void write(HttpServletRequest request, HttpServletResponse response, Path path,
+                      String etag, String contentDisposition, String contentType,
+                      ContentEncoding contentEncoding) throws IOException {
+        long length = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+
+        // 304 면 파일을 열지 않는다 (ETag, Last-Modified 헤더는 여기서 설정됨)
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentType(contentType);
+        if (contentEncoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding.token());
+        }
+
+        long start = 0;
+        long end = length - 1;
+
+        HttpRange range = resolveRange(request, etag, lastModified);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            if (start >= length) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            end = range.getRangeEnd(length);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            downloadedBytes.increment(count);
+            return;
+        }
+
+        long sent = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (sent < count) {
+                long written = channel.transferTo(start + sent, count - sent, out);
+                if (written <= 0) {
+                    break;
+                }
+                sent += written;
+            }
+        } finally {
+            // 클라이언트가 중간에 끊어도 실제로 보낸 만큼만 집계
+            downloadedBytes.increment(sent);
+        }
+    }
+
+    // 압축 저장된 파일을 풀면서 전송 (Accept-Encoding 이 맞지 않는 클라이언트용)
+    // 풀린 내용의 중간부터 읽을 수 없으므로 Range 는 무시하고 전체를 보낸다.
+    public void writeDecoded(HttpServletRequest request, HttpServletResponse response, Path path,
+                             ContentEncoding encoding, long decodedLength, String etag,
+                             String contentDisposition) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentType("application/octet-stream");
+        response.setContentLengthLong(decodedLength);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        long sent = 0;
+        try (InputStream in = encoding.decode(Files.newInputStream(path))) {
+            OutputStream out = response.getOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                sent += read;
+            }
+        } finally {
+            downloadedBytes.increment(sent);
+        }
+    }
+
+    // 적용할 Range 반환 (없거나, If-Range 불일치, 다중 범위, 잘못된 헤더면 null -> 전체 전송)
+    private HttpRange resolveRange(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            long ifRangeDate;
+            try {
+                ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            // HTTP 날짜는 초 단위
+            if (ifRangeDate == -1 || ifRangeDate / 1000 != lastModified / 1000) {
+                return null;
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
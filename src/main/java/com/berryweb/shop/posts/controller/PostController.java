@@ -1,25 +1,40 @@
 package com.berryweb.shop.posts.controller;
 
+import com.berryweb.shop.posts.dto.CursorPage;
 import com.berryweb.shop.posts.dto.PostCreateReq;
+import com.berryweb.shop.posts.dto.PostStats;
+import com.berryweb.shop.posts.dto.PostSummary;
 import com.berryweb.shop.posts.dto.PostUpdateReq;
 import com.berryweb.shop.posts.entity.Comment;
 import com.berryweb.shop.posts.entity.Post;
 import com.berryweb.shop.posts.entity.PostFile;
-import com.berryweb.shop.posts.service.CommentService;
+import com.berryweb.shop.posts.search.SearchField;
 import com.berryweb.shop.posts.service.PostFileService;
+import com.berryweb.shop.posts.service.PostImportService;
 import com.berryweb.shop.posts.service.PostService;
+import com.berryweb.shop.posts.service.PostStatsService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
@@ -27,64 +42,80 @@ import java.util.Map;
 public class PostController {
 
     private final PostService postService;
-    private final CommentService commentService;
     private final PostFileService postFileService;
+    private final PostStatsService postStatsService;
+    private final PostImportService postImportService;
 
     // ============ 기존 게시글 API ============
 
     // 일반 게시글 목록 조회 (페이징) - 공지사항 제외
     @GetMapping("/posts")
-    public ResponseEntity<Page<Post>> getAllPosts(
+    public ResponseEntity<Page<PostSummary>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.getAllPosts(pageable);
+        Page<PostSummary> posts = postService.getAllPosts(pageable);
         return ResponseEntity.ok(posts);
     }
 
     // 전체 게시글 목록 조회 (공지사항 + 일반 게시글)
     @GetMapping("/posts/all")
-    public ResponseEntity<Page<Post>> getAllPostsWithNotices(
+    public ResponseEntity<Page<PostSummary>> getAllPostsWithNotices(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.getAllPostsWithNotices(pageable);
+        Page<PostSummary> posts = postService.getAllPostsWithNotices(pageable);
         return ResponseEntity.ok(posts);
     }
 
+    // 일반 게시글 목록 조회 (커서) - 깊은 페이지도 첫 페이지와 같은 비용
+    // direction=prev 이면 cursor 이전(더 최신) 페이지
+    @GetMapping("/posts/cursor")
+    public ResponseEntity<CursorPage<PostSummary>> getAllPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(postService.getAllPostsByCursor(cursor, "prev".equals(direction), size));
+    }
+
+    // 전체 게시글 목록 조회 (공지사항 + 일반 게시글, 커서)
+    @GetMapping("/posts/all/cursor")
+    public ResponseEntity<CursorPage<PostSummary>> getAllPostsWithNoticesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(postService.getAllPostsWithNoticesByCursor(cursor, "prev".equals(direction), size));
+    }
+
     // 게시글/공지사항 상세 조회
     @GetMapping("/posts/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, Object>> getPostById(@PathVariable Long id) {
-        System.out.println("=== 게시글 상세 조회 시작 ===");
-        System.out.println("요청된 게시글 ID: " + id);
-
+    public ResponseEntity<Map<String, Object>> getPostById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            // 게시글 조회 (조회수 증가)
-            Post post = postService.getPostByIdWithViewCount(id);
-            System.out.println("게시글 조회 완료: " + post.getTitle());
-
-            // 댓글 조회
-            List<Comment> comments = commentService.getCommentsByPostId(id);
-            System.out.println("댓글 조회 완료: " + comments.size() + "개");
-
-            // 파일 조회
-            List<PostFile> files = postFileService.getFilesByPostId(id);
-            System.out.println("파일 조회 완료: " + files.size() + "개");
+            // 내용이 바뀌지 않았으면 게시글/댓글/파일을 읽지 않고 304 (조회수는 증가)
+            String etag = detailETag(id);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                postService.recordView(id);
+                return null;
+            }
 
-            // 통계 정보
-            long commentCount = commentService.getCommentCountByPostId(id);
-            long fileCount = postFileService.getFileCountByPostId(id);
+            // 게시글 + 댓글 + 파일 조회 (조회수 증가)
+            Post post = postService.getPostDetailWithViewCount(id);
+            List<Comment> comments = post.getComments();
+            List<PostFile> files = post.getFiles();
+            log.debug("게시글 상세 조회: id={}, comments={}, files={}", id, comments.size(), files.size());
 
             // 응답 데이터 구성
             Map<String, Object> response = new HashMap<>();
             response.put("post", post);  // "posts" → "post"로 변경 (더 명확함)
             response.put("comments", comments);
             response.put("files", files);
-            response.put("commentCount", commentCount);
-            response.put("fileCount", fileCount);
+            response.put("commentCount", comments.size());
+            response.put("fileCount", files.size());
 
             // 게시글 타입 정보 추가
             response.put("isNotice", post.isNotice());
@@ -95,29 +126,13 @@ public class PostController {
 
             // 파일 정보 요약
             if (!files.isEmpty()) {
-                List<Map<String, Object>> filesSummary = files.stream().map(file -> {
-                    Map<String, Object> fileInfo = new HashMap<>();
-                    fileInfo.put("id", file.getId());
-                    fileInfo.put("originalName", file.getOriginalName());
-                    fileInfo.put("storedName", file.getStoredName());
-                    fileInfo.put("fileSize", file.getFileSize());
-                    fileInfo.put("formattedFileSize", file.getFormattedFileSize());
-                    fileInfo.put("contentType", file.getContentType());
-                    fileInfo.put("isImage", file.isImage());
-                    fileInfo.put("downloadUrl", file.getDownloadUrl());
-                    fileInfo.put("postId", file.getPostId());
-                    fileInfo.put("createdAt", file.getCreatedAt());
-                    return fileInfo;
-                }).toList();
-
-                response.put("filesDetail", filesSummary);
+                response.put("filesDetail", toFilesDetail(files));
             }
 
-            System.out.println("=== 게시글 상세 조회 완료 ===");
-            return ResponseEntity.ok(response);
+            return detailResponse(etag, response);
 
         } catch (Exception e) {
-            System.err.println("게시글 상세 조회 실패: " + e.getMessage());
+            log.warn("게시글 상세 조회 실패: id={}, reason={}", id, e.getMessage());
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "게시글을 불러올 수 없습니다.");
@@ -126,11 +141,29 @@ public class PostController {
         }
     }
 
+    // 상세 조회 ETag (조회수는 버전에 포함하지 않으므로 약한 ETag)
+    private String detailETag(Long id) {
+        String version = postService.getDetailVersion(id);
+        return version != null ? "W/\"" + DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8)) + "\"" : null;
+    }
+
+    // 캐시는 하되 매번 재검증 (no-cache + ETag)
+    private ResponseEntity<Map<String, Object>> detailResponse(String etag, Map<String, Object> body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(body);
+    }
+
+    // 파일 정보 요약 (게시글/공지사항 상세 공통)
+    private static List<Map<String, Object>> toFilesDetail(List<PostFile> files) {
+        return files.stream().map(PostFile::toDetailMap).toList();
+    }
+
     // 게시글 생성 (일반 게시글 또는 공지사항)
     @PostMapping("/posts")
     public ResponseEntity<Post> createPost(@RequestBody PostCreateReq request) {
-        System.out.println("Received post data: " + request);
-
         try {
             Post post;
 
@@ -153,14 +186,23 @@ public class PostController {
                 );
             }
 
-            System.out.println("Created post: " + post);
+            log.info("게시글 생성: id={}, notice={}, author={}, title={}, contentLength={}",
+                    post.getId(), post.isNotice(), post.getAuthor(), post.getTitle(), lengthOf(post.getContent()));
             return ResponseEntity.ok(post);
         } catch (Exception e) {
-            System.err.println("Error creating post: " + e.getMessage());
+            log.warn("게시글 생성 실패: author={}, title={}, reason={}", request.getAuthor(), request.getTitle(), e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // 게시글 일괄 가져오기 (NDJSON, 한 줄에 게시글 하나 + 댓글 목록)
+    // 예: {"title":"...","content":"...","author":"...","createdAt":"2020-01-01T10:00:00","comments":[{"content":"...","author":"..."}]}
+    @PostMapping(value = "/posts/import", consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<Map<String, Object>> importPosts(HttpServletRequest request) throws IOException {
+        PostImportService.ImportResult result = postImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(result.toMap());
+    }
+
     // 게시글 수정 (일반 게시글 또는 공지사항)
     @PutMapping("/posts/{id}")
     public ResponseEntity<Post> updatePost(
@@ -189,7 +231,7 @@ public class PostController {
 
             return ResponseEntity.ok(updatedPost);
         } catch (Exception e) {
-            System.err.println("Error updating post: " + e.getMessage());
+            log.warn("게시글 수정 실패: id={}, reason={}", id, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -206,16 +248,17 @@ public class PostController {
 
     // 게시글 검색 (일반 게시글)
     @GetMapping("/posts/search")
-    public ResponseEntity<Page<Post>> searchPosts(
+    public ResponseEntity<Page<PostSummary>> searchPosts(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String content,
             @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) List<String> fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts;
+        Page<PostSummary> posts;
 
         if (title != null && !title.trim().isEmpty()) {
             posts = postService.searchByTitle(title, pageable);
@@ -224,6 +267,9 @@ public class PostController {
         } else if (content != null && !content.trim().isEmpty()) {
             // 내용 검색은 키워드 검색으로 처리
             posts = postService.searchByTitleOrContent(content, pageable);
+        } else if (keyword != null && !keyword.trim().isEmpty() && fields != null && !fields.isEmpty()) {
+            // 검색 필드 지정 (예: fields=title,author)
+            posts = postService.search(keyword, toSearchFields(fields), null, pageable);
         } else if (keyword != null && !keyword.trim().isEmpty()) {
             posts = postService.searchByTitleOrContent(keyword, pageable);
         } else {
@@ -233,14 +279,46 @@ public class PostController {
         return ResponseEntity.ok(posts);
     }
 
+    // 일괄 가져오기 중간 실패: 이미 커밋된 chunk / 행 수와 실패한 줄을 함께 돌려준다
+    @ExceptionHandler(PostImportService.ImportFailedException.class)
+    public ResponseEntity<Map<String, Object>> handleImportFailed(PostImportService.ImportFailedException e) {
+        return ResponseEntity.badRequest().body(e.toMap());
+    }
+
+    // 잘못된 커서/파라미터
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    // 로그에는 본문 대신 길이만 남긴다
+    private static int lengthOf(String content) {
+        return content != null ? content.length() : 0;
+    }
+
+    // 검색 필드 파라미터 변환 (title, author, content / 알 수 없는 값은 무시)
+    private Set<SearchField> toSearchFields(List<String> fields) {
+        Set<SearchField> searchFields = EnumSet.noneOf(SearchField.class);
+        for (String field : fields) {
+            for (SearchField searchField : SearchField.values()) {
+                if (searchField.name().equalsIgnoreCase(field.trim())) {
+                    searchFields.add(searchField);
+                }
+            }
+        }
+        return searchFields;
+    }
+
     // 파일이 첨부된 게시글 조회
     @GetMapping("/posts/with-files")
-    public ResponseEntity<Page<Post>> getPostsWithFiles(
+    public ResponseEntity<Page<PostSummary>> getPostsWithFiles(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> posts = postService.getPostsWithFiles(pageable);
+        Page<PostSummary> posts = postService.getPostsWithFiles(pageable);
         return ResponseEntity.ok(posts);
     }
 
@@ -248,31 +326,45 @@ public class PostController {
 
     // 전체 공지사항 조회 (관리자용)
     @GetMapping("/notices")
-    public ResponseEntity<Page<Post>> getAllNotices(
+    public ResponseEntity<Page<PostSummary>> getAllNotices(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> notices = postService.getAllNotices(pageable);
+        Page<PostSummary> notices = postService.getAllNotices(pageable);
         return ResponseEntity.ok(notices);
     }
 
+    // 전체 공지사항 조회 (커서)
+    @GetMapping("/notices/cursor")
+    public ResponseEntity<CursorPage<PostSummary>> getAllNoticesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "next") String direction,
+            @RequestParam(defaultValue = "10") int size) {
+
+        return ResponseEntity.ok(postService.getAllNoticesByCursor(cursor, "prev".equals(direction), size));
+    }
+
     // 활성 공지사항만 조회
     @GetMapping("/notices/active")
-    public ResponseEntity<List<Post>> getActiveNotices() {
-        List<Post> notices = postService.getActiveNoticesList();
+    public ResponseEntity<List<PostSummary>> getActiveNotices() {
+        List<PostSummary> notices = postService.getActiveNoticesList();
         return ResponseEntity.ok(notices);
     }
 
     // 공지사항 상세 조회 (별도 엔드포인트)
     @GetMapping("/notices/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, Object>> getNoticeById(@PathVariable Long id) {
-        System.out.println("=== 공지사항 상세 조회 시작 ===");
-        System.out.println("요청된 공지사항 ID: " + id);
-
+    public ResponseEntity<Map<String, Object>> getNoticeById(@PathVariable Long id, WebRequest webRequest) {
         try {
-            Post notice = postService.getPostByIdWithViewCount(id);
+            // 304 는 이전에 공지사항으로 응답한 ETag 와 같을 때만 나가므로 공지 여부 확인이 필요 없다
+            String etag = detailETag(id);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                postService.recordView(id);
+                return null;
+            }
+
+            Post notice = postService.getPostDetailWithViewCount(id);
 
             if (!notice.isNotice()) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -280,17 +372,15 @@ public class PostController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
 
-            List<Comment> comments = commentService.getCommentsByPostId(id);
-            List<PostFile> files = postFileService.getFilesByPostId(id);
-            long commentCount = commentService.getCommentCountByPostId(id);
-            long fileCount = postFileService.getFileCountByPostId(id);
+            List<Comment> comments = notice.getComments();
+            List<PostFile> files = notice.getFiles();
 
             Map<String, Object> response = new HashMap<>();
             response.put("notice", notice);  // "post" 대신 "notice" 사용
             response.put("comments", comments);
             response.put("files", files);
-            response.put("commentCount", commentCount);
-            response.put("fileCount", fileCount);
+            response.put("commentCount", comments.size());
+            response.put("fileCount", files.size());
 
             // 공지사항 전용 정보
             response.put("isPinned", notice.isPinned());
@@ -302,29 +392,14 @@ public class PostController {
 
             // 파일 정보 요약 (게시글과 동일)
             if (!files.isEmpty()) {
-                List<Map<String, Object>> filesSummary = files.stream().map(file -> {
-                    Map<String, Object> fileInfo = new HashMap<>();
-                    fileInfo.put("id", file.getId());
-                    fileInfo.put("originalName", file.getOriginalName());
-                    fileInfo.put("storedName", file.getStoredName());
-                    fileInfo.put("fileSize", file.getFileSize());
-                    fileInfo.put("formattedFileSize", file.getFormattedFileSize());
-                    fileInfo.put("contentType", file.getContentType());
-                    fileInfo.put("isImage", file.isImage());
-                    fileInfo.put("downloadUrl", file.getDownloadUrl());
-                    fileInfo.put("postId", file.getPostId());
-                    fileInfo.put("createdAt", file.getCreatedAt());
-                    return fileInfo;
-                }).toList();
-
-                response.put("filesDetail", filesSummary);
+                response.put("filesDetail", toFilesDetail(files));
             }
 
-            System.out.println("=== 공지사항 상세 조회 완료 ===");
-            return ResponseEntity.ok(response);
+            log.debug("공지사항 상세 조회: id={}, comments={}, files={}", id, comments.size(), files.size());
+            return detailResponse(etag, response);
 
         } catch (Exception e) {
-            System.err.println("공지사항 상세 조회 실패: " + e.getMessage());
+            log.warn("공지사항 상세 조회 실패: id={}, reason={}", id, e.getMessage());
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "공지사항을 불러올 수 없습니다.");
@@ -336,8 +411,6 @@ public class PostController {
     // 공지사항 생성 (전용 엔드포인트)
     @PostMapping("/notices")
     public ResponseEntity<Post> createNotice(@RequestBody PostCreateReq request) {
-        System.out.println("Creating notice: " + request);
-
         try {
             Post notice = postService.createNotice(
                     request.getTitle(),
@@ -349,10 +422,11 @@ public class PostController {
                     request.getSendNotification()
             );
 
-            System.out.println("Created notice: " + notice);
+            log.info("공지사항 생성: id={}, pinned={}, author={}, title={}, contentLength={}",
+                    notice.getId(), notice.isPinned(), notice.getAuthor(), notice.getTitle(), lengthOf(notice.getContent()));
             return ResponseEntity.ok(notice);
         } catch (Exception e) {
-            System.err.println("Error creating notice: " + e.getMessage());
+            log.warn("공지사항 생성 실패: author={}, title={}, reason={}", request.getAuthor(), request.getTitle(), e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -376,7 +450,7 @@ public class PostController {
 
             return ResponseEntity.ok(notice);
         } catch (Exception e) {
-            System.err.println("Error updating notice: " + e.getMessage());
+            log.warn("공지사항 수정 실패: id={}, reason={}", id, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
@@ -406,23 +480,24 @@ public class PostController {
             Post notice = postService.toggleNoticeStatus(id);
             return ResponseEntity.ok(notice);
         } catch (Exception e) {
-            System.err.println("Error toggling notice status: " + e.getMessage());
+            log.warn("공지사항 상태 토글 실패: id={}, reason={}", id, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
     // 공지사항 검색
     @GetMapping("/notices/search")
-    public ResponseEntity<Page<Post>> searchNotices(
+    public ResponseEntity<Page<PostSummary>> searchNotices(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String content,
             @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) List<String> fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Post> notices;
+        Page<PostSummary> notices;
 
         if (title != null && !title.trim().isEmpty()) {
             notices = postService.searchNoticesByTitle(title, pageable);
@@ -430,6 +505,8 @@ public class PostController {
             notices = postService.searchNoticesByAuthor(author, pageable);
         } else if (content != null && !content.trim().isEmpty()) {
             notices = postService.searchNoticesByContent(content, pageable);
+        } else if (keyword != null && !keyword.trim().isEmpty() && fields != null && !fields.isEmpty()) {
+            notices = postService.search(keyword, toSearchFields(fields), true, pageable);
         } else if (keyword != null && !keyword.trim().isEmpty()) {
             notices = postService.searchNoticesByKeyword(keyword, pageable);
         } else {
@@ -441,56 +518,58 @@ public class PostController {
 
     // 중요 공지사항 조회
     @GetMapping("/notices/pinned")
-    public ResponseEntity<List<Post>> getPinnedNotices() {
-        List<Post> notices = postService.getPinnedNotices();
+    public ResponseEntity<List<PostSummary>> getPinnedNotices() {
+        List<PostSummary> notices = postService.getPinnedNotices();
         return ResponseEntity.ok(notices);
     }
 
     // 일반 공지사항 조회 (중요공지 제외)
     @GetMapping("/notices/regular")
-    public ResponseEntity<List<Post>> getRegularNotices() {
-        List<Post> notices = postService.getRegularNotices();
+    public ResponseEntity<List<PostSummary>> getRegularNotices() {
+        List<PostSummary> notices = postService.getRegularNotices();
         return ResponseEntity.ok(notices);
     }
 
     // 만료 임박 공지사항 조회
     @GetMapping("/notices/expiring-soon")
-    public ResponseEntity<List<Post>> getNoticesExpiringSoon() {
-        List<Post> notices = postService.getNoticesExpiringSoon();
+    public ResponseEntity<List<PostSummary>> getNoticesExpiringSoon() {
+        List<PostSummary> notices = postService.getNoticesExpiringSoon();
         return ResponseEntity.ok(notices);
     }
 
     // ============ 통계 API ============
 
-    // 전체 통계
+    // 전체 통계 (메모리 스냅샷, DB 조회 없음)
     @GetMapping("/posts/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
+        PostStats snapshot = postStatsService.getSnapshot();
         Map<String, Object> stats = new HashMap<>();
 
         // 게시글 통계
-        stats.put("totalPosts", postService.getTotalPostCount());
-        stats.put("regularPosts", postService.getRegularPostCount());
-        stats.put("totalNotices", postService.getNoticeCount());
-        stats.put("activeNotices", postService.getActiveNoticeCount());
-        stats.put("pinnedNotices", postService.getPinnedNoticeCount());
-        stats.put("expiredNotices", postService.getExpiredNoticeCount());
+        stats.put("totalPosts", snapshot.getTotalPosts());
+        stats.put("regularPosts", snapshot.getRegularPosts());
+        stats.put("totalNotices", snapshot.getTotalNotices());
+        stats.put("activeNotices", snapshot.getActiveNotices());
+        stats.put("pinnedNotices", snapshot.getPinnedNotices());
+        stats.put("expiredNotices", snapshot.getExpiredNotices());
 
         // 파일 통계
-        stats.put("totalFileSize", postFileService.formatFileSize(postFileService.getTotalFileSize()));
+        stats.put("totalFileSize", postFileService.formatFileSize(snapshot.getTotalFileSize()));
 
         return ResponseEntity.ok(stats);
     }
 
-    // 공지사항 통계
+    // 공지사항 통계 (메모리 스냅샷, DB 조회 없음)
     @GetMapping("/notices/stats")
     public ResponseEntity<Map<String, Object>> getNoticeStats() {
+        PostStats snapshot = postStatsService.getSnapshot();
         Map<String, Object> stats = new HashMap<>();
 
-        stats.put("total", postService.getNoticeCount());
-        stats.put("active", postService.getActiveNoticeCount());
-        stats.put("pinned", postService.getPinnedNoticeCount());
-        stats.put("expired", postService.getExpiredNoticeCount());
-        stats.put("expiringSoon", postService.getNoticesExpiringSoon().size());
+        stats.put("total", snapshot.getTotalNotices());
+        stats.put("active", snapshot.getActiveNotices());
+        stats.put("pinned", snapshot.getPinnedNotices());
+        stats.put("expired", snapshot.getExpiredNotices());
+        stats.put("expiringSoon", snapshot.getExpiringSoonNotices());
 
         return ResponseEntity.ok(stats);
     }
@@ -0,0 +1,27 @@
+package com.berryweb.shop.posts.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 키셋 페이지네이션 응답 (전체 개수는 세지 않는다)
+@Getter
+public class CursorPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+    private final String prevCursor;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+
+    public CursorPage(List<T> content, String nextCursor, String prevCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.hasNext = nextCursor != null;
+        this.hasPrevious = prevCursor != null;
+    }
+
+}
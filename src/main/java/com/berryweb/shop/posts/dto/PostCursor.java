@@ -0,0 +1,58 @@
+package com.berryweb.shop.posts.dto;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 키셋 페이지네이션 커서 (is_notice, is_pinned, created_at, id)
+// 클라이언트에는 Base64 문자열로만 노출한다.
+@Getter
+public class PostCursor {
+
+    private final boolean notice;
+    private final boolean pinned;
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public PostCursor(boolean notice, boolean pinned, LocalDateTime createdAt, Long id) {
+        this.notice = notice;
+        this.pinned = pinned;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    // created_at 이 없는 행은 키셋 비교(created_at < ?)에 걸리지 않아 커서로 이어 갈 수 없다 (posts.created_at 은 NOT NULL)
+    public static PostCursor of(PostSummary post) {
+        if (post.getCreatedAt() == null) {
+            throw new IllegalStateException("created_at 이 없는 게시글은 커서를 만들 수 없습니다: id=" + post.getId());
+        }
+        return new PostCursor(post.isNotice(), post.isPinned(), post.getCreatedAt(), post.getId());
+    }
+
+    public String encode() {
+        String raw = (notice ? 1 : 0) + "|" + (pinned ? 1 : 0) + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            return new PostCursor(
+                    "1".equals(parts[0]),
+                    "1".equals(parts[1]),
+                    LocalDateTime.parse(parts[2]),
+                    Long.parseLong(parts[3])
+            );
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.berryweb.shop.posts.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// 일괄 가져오기 한 줄 (NDJSON: 게시글 하나 + 댓글 목록)
+// createdAt 을 주면 원본 작성 시각을 그대로 보존한다.
+@Data
+public class PostImportReq {
+
+    private String title;
+    private String content;
+    private String author;
+
+    private Boolean isNotice = false;
+    private Boolean isPinned = false;
+    private Boolean isActive = true;
+    private LocalDateTime expiryDate;
+    private Long viewCount = 0L;
+    private LocalDateTime createdAt;
+
+    private List<CommentItem> comments = new ArrayList<>();
+
+    @Data
+    public static class CommentItem {
+
+        private String content;
+        private String author;
+        private LocalDateTime createdAt;
+    }
+
+}
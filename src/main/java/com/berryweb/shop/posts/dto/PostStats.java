@@ -0,0 +1,23 @@
+package com.berryweb.shop.posts.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 게시판 통계 스냅샷 (/posts/stats, /notices/stats)
+@Getter
+@AllArgsConstructor
+public class PostStats {
+
+    private final long totalPosts;
+    private final long regularPosts;
+    private final long totalNotices;
+    private final long activeNotices;
+    private final long pinnedNotices;
+    private final long expiredNotices;
+    private final long expiringSoonNotices;
+    private final long totalFileSize;
+    private final LocalDateTime generatedAt;
+
+}
@@ -0,0 +1,55 @@
+package com.berryweb.shop.posts.dto;
+
+import com.berryweb.shop.posts.entity.PostFile;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 목록용 게시글 요약 (본문 대신 작성 시 만들어 둔 excerpt 와 대표 이미지 썸네일만 포함)
+// PostRepository 의 목록 쿼리가 생성자 표현식으로 필요한 컬럼만 읽어 채운다.
+@Getter
+@AllArgsConstructor
+public class PostSummary {
+
+    private final Long id;
+    private final String title;
+    private final String author;
+    private final Boolean isNotice;
+    private final Boolean isPinned;
+    private final Boolean isActive;
+    private final LocalDateTime expiryDate;
+    private final Long viewCount;
+    private final Integer commentCount;
+    private final Integer fileCount;
+    private final String excerpt;
+    private final String thumbnailName;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    // 공지사항 여부 확인
+    public boolean isNotice() {
+        return Boolean.TRUE.equals(isNotice);
+    }
+
+    // 중요 공지사항 여부 확인
+    public boolean isPinned() {
+        return Boolean.TRUE.equals(isPinned);
+    }
+
+    // 활성 상태 확인
+    public boolean isActive() {
+        return Boolean.TRUE.equals(isActive);
+    }
+
+    // 만료 여부 확인
+    public boolean isExpired() {
+        return expiryDate != null && LocalDateTime.now().isAfter(expiryDate);
+    }
+
+    // 대표 이미지 썸네일 URL (이미지 첨부파일이 없으면 null)
+    public String getThumbnailUrl() {
+        return PostFile.thumbnailUrlOf(thumbnailName);
+    }
+
+}
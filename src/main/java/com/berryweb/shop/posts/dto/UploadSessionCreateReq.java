@@ -0,0 +1,14 @@
+package com.berryweb.shop.posts.dto;
+
+import lombok.Data;
+
+// 분할 업로드 세션 생성 요청
+@Data
+public class UploadSessionCreateReq {
+
+    private String filename;
+    private String contentType;
+    private Long size;      // 전체 바이트 수
+    private String sha256;  // 전체 내용의 SHA-256 (hex), 완료 시 확인
+
+}
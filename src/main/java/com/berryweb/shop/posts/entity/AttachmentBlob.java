@@ -0,0 +1,27 @@
+package com.berryweb.shop.posts.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// 첨부파일 내용(SHA-256)별 잠금 행
+// 업로드가 내용을 재사용하거나 새로 저장할 때와, 정리가 참조 수를 세고 파일을 지울 때 모두 이 행을 SELECT ... FOR UPDATE 로 잠근다.
+// 여러 인스턴스가 같은 uploads 를 공유해도, 다른 인스턴스의 커밋 전 새 참조를 모르고 파일을 지우는 일이 없다.
+@Entity
+@Table(name = "attachment_blobs")
+@Getter
+@NoArgsConstructor
+public class AttachmentBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,66 @@
+package com.berryweb.shop.posts.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// 알림 발송 대기열 (transactional outbox)
+// 공지사항과 같은 트랜잭션에서 기록하고, NotificationDispatcher 가 커밋된 행을 읽어 발송한 뒤 지운다.
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        // 발송할 행 조회 (status, available_at 순)
+        @Index(name = "idx_outbox_pending", columnList = "status, available_at")
+})
+@Data
+@NoArgsConstructor
+public class NotificationOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_FAILED = "FAILED";    // max-attempts 를 넘겨 더 이상 시도하지 않음
+
+    public static final String TYPE_NOTICE_CREATED = "NOTICE_CREATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(nullable = false, length = 255)
+    private String title;
+
+    @Column(nullable = false, length = 20)
+    private String status = STATUS_PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // 다음 발송 시도 시각 (발송 중에는 임대 만료 시각)
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // 새 공지사항 알림
+    public static NotificationOutbox noticeCreated(Post notice) {
+        NotificationOutbox outbox = new NotificationOutbox();
+        outbox.type = TYPE_NOTICE_CREATED;
+        outbox.postId = notice.getId();
+        outbox.title = notice.getTitle();
+        outbox.availableAt = LocalDateTime.now();
+        return outbox;
+    }
+
+}
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,13 +15,29 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        // 목록 키셋 페이지네이션용 (중요 여부를 지정한 구간)
+        @Index(name = "idx_posts_keyset", columnList = "is_notice, is_pinned, created_at, id"),
+        // 중요 여부를 가리지 않는 구간 (isPinned = null 이면 is_pinned 조건이 빠져 위 인덱스로는 정렬할 수 없다)
+        @Index(name = "idx_posts_notice_created", columnList = "is_notice, created_at, id")
+})
+// 2차 캐시 (SecondLevelCacheConfig), 캐시된 사본의 조회수/댓글 수가 일괄 UPDATE 값을 덮어쓰지 않도록 바뀐 컬럼만 UPDATE
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Post.CACHE_REGION)
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 public class Post {
 
+    public static final String CACHE_REGION = "posts.post";
+
+    // 목록용 본문 요약 길이 (문자 수)
+    public static final int EXCERPT_LENGTH = 200;
+
+    // 시퀀스 ID (IDENTITY 는 Hibernate 의 INSERT 배치를 막는다, 50개씩 미리 할당)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -30,6 +49,10 @@ public class Post {
     @Column(nullable = false, length = 100)
     private String author;
 
+    // 본문 요약 (목록 응답용, 본문이 바뀔 때 setContent 에서 다시 만든다)
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
+
     // 공지사항 관련 필드 추가
     @Column(name = "is_notice", nullable = false)
     private Boolean isNotice = false;
@@ -43,14 +66,27 @@ public class Post {
     @Column(name = "expiry_date")
     private LocalDateTime expiryDate;
 
-    @Column(name = "view_count", nullable = false)
+    // ViewCountAccumulator 가 JDBC 로만 갱신한다 (엔티티 UPDATE 에 포함하지 않음).
+    // 2차 캐시에 담긴 값은 그 시점 값이라 응답에 그대로 쓰지 않는다 (PostService 참고).
+    @Column(name = "view_count", nullable = false, updatable = false)
     private Long viewCount = 0L;
 
     @Column(name = "send_notification", nullable = false)
     private Boolean sendNotification = false;
 
+    // 댓글/첨부파일 개수 (비정규화, CommentService / PostFileService 가 같은 트랜잭션에서 갱신)
+    @Column(name = "comment_count", nullable = false)
+    private Integer commentCount = 0;
+
+    @Column(name = "file_count", nullable = false)
+    private Integer fileCount = 0;
+
+    // 대표 이미지 (첫 번째 이미지 첨부파일의 stored_name, 목록 썸네일용, PostFileService 가 갱신)
+    @Column(name = "thumbnail_name")
+    private String thumbnailName;
+
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @UpdateTimestamp
@@ -70,20 +106,22 @@ public class Post {
     // 기존 생성자 (일반 게시글용)
     public Post(String title, String content, String author) {
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.author = author;
         this.isNotice = false;
         this.isPinned = false;
         this.isActive = true;
         this.viewCount = 0L;
         this.sendNotification = false;
+        this.commentCount = 0;
+        this.fileCount = 0;
     }
 
     // 공지사항용 생성자
     public Post(String title, String content, String author, Boolean isNotice, Boolean isPinned,
                 Boolean isActive, LocalDateTime expiryDate, Boolean sendNotification) {
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.author = author;
         this.isNotice = isNotice != null ? isNotice : false;
         this.isPinned = isPinned != null ? isPinned : false;
@@ -91,6 +129,26 @@ public class Post {
         this.expiryDate = expiryDate;
         this.viewCount = 0L;
         this.sendNotification = sendNotification != null ? sendNotification : false;
+        this.commentCount = 0;
+        this.fileCount = 0;
+    }
+
+    // 본문 변경 시 요약도 함께 갱신
+    public void setContent(String content) {
+        this.content = content;
+        this.excerpt = excerptOf(content);
+    }
+
+    // 공백을 하나로 줄이고 EXCERPT_LENGTH 자까지 자른 본문 요약
+    public static String excerptOf(String content) {
+        if (content == null) {
+            return null;
+        }
+        String normalized = content.replaceAll("\\s+", " ").strip();
+        if (normalized.codePointCount(0, normalized.length()) <= EXCERPT_LENGTH) {
+            return normalized;
+        }
+        return normalized.substring(0, normalized.offsetByCodePoints(0, EXCERPT_LENGTH));
     }
 
     // 만료 여부 확인
@@ -126,24 +184,19 @@ public class Post {
         return Boolean.TRUE.equals(this.isActive);
     }
 
-    // 댓글 개수 반환 (편의 메서드)
-    public int getCommentCount() {
-        return comments != null ? comments.size() : 0;
-    }
-
-    // 파일 개수 반환 (편의 메서드)
-    public int getFileCount() {
-        return files != null ? files.size() : 0;
-    }
-
     // 파일 첨부 여부 확인
     public boolean hasFiles() {
-        return files != null && !files.isEmpty();
+        return fileCount != null && fileCount > 0;
     }
 
     // 댓글 존재 여부 확인
     public boolean hasComments() {
-        return comments != null && !comments.isEmpty();
+        return commentCount != null && commentCount > 0;
+    }
+
+    // 대표 이미지 썸네일 URL (이미지 첨부파일이 없으면 null)
+    public String getThumbnailUrl() {
+        return PostFile.thumbnailUrlOf(thumbnailName);
     }
 
 }
@@ -4,16 +4,29 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 
 @Entity
-@Table(name = "files")
+@Table(name = "files", indexes = {
+        // 내용 주소 저장소 참조 수 계산용
+        @Index(name = "idx_files_content_hash", columnList = "content_hash"),
+        // 다운로드 / 썸네일 요청의 저장명 조회용
+        @Index(name = "idx_files_stored_name", columnList = "stored_name")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PostFile.CACHE_REGION)
 @Data
 @NoArgsConstructor
 public class PostFile {
 
+    public static final String CACHE_REGION = "posts.file";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,6 +46,10 @@ public class PostFile {
     @Column(name = "content_type", length = 100)
     private String contentType;
 
+    // 업로드 중 계산한 SHA-256 (hex), 무결성 확인 및 내용 주소 저장소(uploads/blobs/<hash>) 키
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -57,11 +74,30 @@ public class PostFile {
         this.postId = post.getId(); // postId 설정
     }
 
+    public PostFile(String originalName, String storedName, String filePath, long fileSize, String contentType,
+                    String contentHash, Post post) {
+        this(originalName, storedName, filePath, fileSize, contentType, post);
+        this.contentHash = contentHash;
+    }
+
     // 파일 다운로드 URL 생성
     public String getDownloadUrl() {
         return "/api/files/download/" + this.storedName;
     }
 
+    // 썸네일 / 미리보기 URL (이미지만, 아니면 null)
+    public String getThumbnailUrl() {
+        return isImage() ? thumbnailUrlOf(storedName) : null;
+    }
+
+    public String getPreviewUrl() {
+        return isImage() ? "/api/files/preview/" + storedName : null;
+    }
+
+    public static String thumbnailUrlOf(String storedName) {
+        return storedName != null ? "/api/files/thumbnail/" + storedName : null;
+    }
+
     // 파일 타입 확인
     public boolean isImage() {
         return contentType != null && contentType.startsWith("image/");
@@ -69,6 +105,10 @@ public class PostFile {
 
     // 파일 크기를 읽기 쉬운 형태로 변환
     public String getFormattedFileSize() {
+        return formatFileSize(fileSize);
+    }
+
+    public static String formatFileSize(Long fileSize) {
         if (fileSize == null || fileSize == 0) return "0 B";
 
         String[] units = {"B", "KB", "MB", "GB"};
@@ -83,4 +123,22 @@ public class PostFile {
         return String.format("%.1f %s", size, units[unitIndex]);
     }
 
+    // 게시글/공지사항 상세 응답의 filesDetail 항목
+    public Map<String, Object> toDetailMap() {
+        Map<String, Object> fileInfo = new HashMap<>();
+        fileInfo.put("id", id);
+        fileInfo.put("originalName", originalName);
+        fileInfo.put("storedName", storedName);
+        fileInfo.put("fileSize", fileSize);
+        fileInfo.put("formattedFileSize", getFormattedFileSize());
+        fileInfo.put("contentType", contentType);
+        fileInfo.put("isImage", isImage());
+        fileInfo.put("downloadUrl", getDownloadUrl());
+        fileInfo.put("thumbnailUrl", getThumbnailUrl());
+        fileInfo.put("previewUrl", getPreviewUrl());
+        fileInfo.put("postId", postId);
+        fileInfo.put("createdAt", createdAt);
+        return fileInfo;
+    }
+
 }
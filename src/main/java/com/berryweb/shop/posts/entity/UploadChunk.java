@@ -0,0 +1,51 @@
+package com.berryweb.shop.posts.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// 분할 업로드 조각 상태 (upload_sessions 의 세션마다 받기 시작한 조각 번호별 한 행)
+// 조각을 쓰는 동안은 leaseUntil 까지 임대를 걸어 같은 번호를 다른 요청이 동시에 쓰지 못하게 하고,
+// 쓰기와 해시 확인이 끝나면 임대를 풀면서 received 를 표시한다.
+@Entity
+@Table(name = "upload_chunks")
+@IdClass(UploadChunk.Key.class)
+@Data
+@NoArgsConstructor
+public class UploadChunk {
+
+    @Id
+    @Column(name = "upload_id", length = 36)
+    private String uploadId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private Integer chunkIndex;
+
+    @Column(nullable = false)
+    private Boolean received = false;
+
+    // 쓰는 중이면 임대 만료 시각, 아니면 null
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    public UploadChunk(String uploadId, Integer chunkIndex) {
+        this.uploadId = uploadId;
+        this.chunkIndex = chunkIndex;
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String uploadId;
+        private Integer chunkIndex;
+    }
+
+}
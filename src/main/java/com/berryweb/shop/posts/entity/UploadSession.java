@@ -0,0 +1,69 @@
+package com.berryweb.shop.posts.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// 진행 중인 분할 업로드 (ChunkedUploadService)
+// 조립 중인 파일은 공유하는 uploads/sessions/<id>.upload 에 있고, 세션과 조각 상태는 DB 에 두므로
+// 어느 인스턴스로 조각을 보내도 되고, 인스턴스가 재시작해도 이어서 올릴 수 있다.
+// 상태를 바꾸는 요청은 모두 이 행을 SELECT ... FOR UPDATE 로 잠근 짧은 트랜잭션에서 한다.
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        // 게시글별 세션 수 제한
+        @Index(name = "idx_upload_sessions_post", columnList = "post_id"),
+        // 만료된 세션 조회
+        @Index(name = "idx_upload_sessions_activity", columnList = "last_activity")
+})
+@Data
+@NoArgsConstructor
+public class UploadSession {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(nullable = false, length = 255)
+    private String filename;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    // 전체 바이트 수
+    @Column(name = "file_size", nullable = false)
+    private Long size;
+
+    // 전체 내용의 SHA-256 (hex), 완료 시 확인
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "chunk_count", nullable = false)
+    private Integer chunkCount;
+
+    // 마지막 조각 요청 시각 (session-ttl-minutes 가 지나면 만료)
+    @Column(name = "last_activity", nullable = false)
+    private LocalDateTime lastActivity;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    public UploadSession(String id, Long postId, String filename, String contentType, Long size, String sha256,
+                         Integer chunkCount, LocalDateTime lastActivity) {
+        this.id = id;
+        this.postId = postId;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.size = size;
+        this.sha256 = sha256;
+        this.chunkCount = chunkCount;
+        this.lastActivity = lastActivity;
+    }
+
+}
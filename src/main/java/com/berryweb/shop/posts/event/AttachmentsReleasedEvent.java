@@ -0,0 +1,18 @@
+package com.berryweb.shop.posts.event;
+
+import lombok.Getter;
+
+import java.util.List;
+
+// 첨부파일 행 삭제 이벤트 (PostFileService.deleteFile, PostService.deletePost 가 발행)
+// 커밋 후 AttachmentStorage 가 더 이상 참조되지 않는 실제 파일을 지운다.
+@Getter
+public class AttachmentsReleasedEvent {
+
+    private final List<String> filePaths; // 삭제된 행의 file_path
+
+    public AttachmentsReleasedEvent(List<String> filePaths) {
+        this.filePaths = List.copyOf(filePaths);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.berryweb.shop.posts.event;
+
+import com.berryweb.shop.posts.entity.Post;
+import lombok.Getter;
+
+// 게시글/공지사항 변경 이벤트 (PostService 가 발행)
+// 리스너는 @TransactionalEventListener 로 커밋 이후에 받는다.
+@Getter
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BULK_UPDATED // 여러 게시글을 한 번에 갱신 (예: 만료 공지 일괄 비활성화)
+    }
+
+    private final Type type;
+    private final Long postId;
+    private final Post post; // CREATED / UPDATED 일 때 변경 후 상태, 그 외에는 null
+    private final long removedFileSize; // DELETED 일 때 함께 삭제된 첨부파일 크기 합계
+
+    private PostChangedEvent(Type type, Long postId, Post post, long removedFileSize) {
+        this.type = type;
+        this.postId = postId;
+        this.post = post;
+        this.removedFileSize = removedFileSize;
+    }
+
+    public static PostChangedEvent created(Post post) {
+        return new PostChangedEvent(Type.CREATED, post.getId(), post, 0);
+    }
+
+    public static PostChangedEvent updated(Post post) {
+        return new PostChangedEvent(Type.UPDATED, post.getId(), post, 0);
+    }
+
+    public static PostChangedEvent deleted(Long postId, long removedFileSize) {
+        return new PostChangedEvent(Type.DELETED, postId, null, removedFileSize);
+    }
+
+    public static PostChangedEvent bulkUpdated() {
+        return new PostChangedEvent(Type.BULK_UPDATED, null, null, 0);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.berryweb.shop.posts.event;
+
+import com.berryweb.shop.posts.entity.PostFile;
+import lombok.Getter;
+
+// 첨부파일 추가/삭제 이벤트 (PostFileService 가 발행)
+@Getter
+public class PostFileChangedEvent {
+
+    private final Long postId;
+    private final long sizeDelta; // 추가면 +파일 크기, 삭제면 -파일 크기
+    private final PostFile file; // 추가일 때 저장된 파일, 삭제면 null
+
+    public PostFileChangedEvent(Long postId, long sizeDelta) {
+        this(postId, sizeDelta, null);
+    }
+
+    public PostFileChangedEvent(Long postId, long sizeDelta, PostFile file) {
+        this.postId = postId;
+        this.sizeDelta = sizeDelta;
+        this.file = file;
+    }
+
+}
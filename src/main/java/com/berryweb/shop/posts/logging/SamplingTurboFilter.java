@@ -0,0 +1,72 @@
+package com.berryweb.shop.posts.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 카테고리(logger 이름 접두사)별 로그 샘플링
+// 예: "org.hibernate.SQL=100,com.berryweb.shop.posts.controller=10" -> 해당 카테고리의 INFO 이하 로그를 N 건 중 1 건만 남긴다.
+// WARN 이상은 항상 남기고, 가장 긴 접두사 규칙 하나만 적용한다.
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<Category> categories = new ArrayList<>();
+
+    private record Category(String prefix, int rate, AtomicLong counter) {
+
+        boolean matches(String loggerName) {
+            return loggerName.equals(prefix) || loggerName.startsWith(prefix + ".");
+        }
+    }
+
+    // logback 설정의 <categories> 값 (쉼표로 구분한 prefix=rate 목록)
+    public void setCategories(String value) {
+        categories.clear();
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                addWarn("잘못된 샘플링 설정 무시: " + entry);
+                continue;
+            }
+            try {
+                int rate = Integer.parseInt(parts[1].trim());
+                if (rate > 1) {
+                    categories.add(new Category(parts[0].trim(), rate, new AtomicLong()));
+                }
+            } catch (NumberFormatException e) {
+                addWarn("잘못된 샘플링 비율 무시: " + entry);
+            }
+        }
+        categories.sort(Comparator.comparingInt((Category category) -> category.prefix().length()).reversed());
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isDebugEnabled() 같은 확인 호출(format == null)과 WARN 이상은 건드리지 않는다
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN) || categories.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        // 어차피 출력되지 않을 레벨은 샘플 카운트에 넣지 않는다
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        String loggerName = logger.getName();
+        for (Category category : categories) {
+            if (category.matches(loggerName)) {
+                return category.counter().getAndIncrement() % category.rate() == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+}
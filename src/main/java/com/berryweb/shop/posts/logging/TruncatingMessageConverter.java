@@ -0,0 +1,38 @@
+package com.berryweb.shop.posts.logging;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+// 길이 제한 메시지 변환기 (패턴: %tmsg{최대길이})
+// 본문/요청 전체 같은 큰 값이 로그에 섞여도 한 줄이 최대 길이를 넘지 않게 자른다.
+public class TruncatingMessageConverter extends MessageConverter {
+
+    private static final int DEFAULT_MAX_LENGTH = 2000;
+
+    private int maxLength = DEFAULT_MAX_LENGTH;
+
+    @Override
+    public void start() {
+        String option = getFirstOption();
+        if (option != null && !option.isBlank()) {
+            try {
+                maxLength = Math.max(1, Integer.parseInt(option.trim()));
+            } catch (NumberFormatException e) {
+                addWarn("잘못된 최대 길이, 기본값 사용: " + option);
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = super.convert(event);
+        if (message == null || message.length() <= maxLength) {
+            return message;
+        }
+        // 서로게이트 쌍 중간에서 자르지 않는다
+        int end = Character.isHighSurrogate(message.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        return message.substring(0, end) + "...(" + message.length() + " chars)";
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.berryweb.shop.posts.notification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// 파일 발송 대상: 알림을 한 줄에 하나씩 NDJSON 으로 덧붙인다 (외부 연동 전 확인용, 다른 프로세스가 읽어 갈 수 있음)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.sink", havingValue = "file")
+public class FileNotificationSink implements NotificationSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileNotificationSink(ObjectMapper objectMapper,
+                                @Value("${notification.file.path:notifications/outbox.ndjson}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(path);
+    }
+
+    @Override
+    public synchronized void send(List<Notification> batch) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Notification notification : batch) {
+            lines.append(objectMapper.writeValueAsString(notification)).append('\n');
+        }
+        // 묶음을 한 번에 써서 중간에 실패해도 일부만 기록되는 일을 줄인다
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(lines.toString());
+        }
+        log.debug("알림 {}건 기록: path={}", batch.size(), path);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.berryweb.shop.posts.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// 로컬 개발용 발송 대상: 최근 알림을 메모리에 보관하고 로그로만 남긴다
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryNotificationSink implements NotificationSink {
+
+    private final int capacity;
+    private final Deque<Notification> recent = new ArrayDeque<>();
+
+    public InMemoryNotificationSink(@Value("${notification.memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            if (recent.size() == capacity) {
+                recent.removeFirst();
+            }
+            recent.addLast(notification);
+            log.info("알림 발송: type={}, postId={}, title={}", notification.type(), notification.postId(),
+                    notification.title());
+        }
+    }
+
+    // 최근 발송한 알림 (오래된 순)
+    public synchronized List<Notification> getRecent() {
+        return List.copyOf(recent);
+    }
+
+}
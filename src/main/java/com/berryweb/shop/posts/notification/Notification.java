@@ -0,0 +1,7 @@
+package com.berryweb.shop.posts.notification;
+
+import java.time.LocalDateTime;
+
+// 발송할 알림 (outboxId 는 수신 측 중복 제거용, 같은 알림이 두 번 갈 수 있다)
+public record Notification(Long outboxId, String type, Long postId, String title, LocalDateTime createdAt) {
+}
@@ -0,0 +1,12 @@
+package com.berryweb.shop.posts.notification;
+
+import java.util.List;
+
+// 알림 발송 대상 (이메일, 푸시 등 외부 연동은 이 인터페이스로 구현)
+// notification.sink 설정으로 구현을 고른다: memory (기본), file
+public interface NotificationSink {
+
+    // 한 묶음 발송. 예외를 던지면 묶음 전체를 나중에 다시 보낸다 (at-least-once).
+    void send(List<Notification> batch) throws Exception;
+
+}
@@ -0,0 +1,36 @@
+package com.berryweb.shop.posts.repository;
+
+import com.berryweb.shop.posts.entity.AttachmentBlob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    // 내용 잠금 (트랜잭션이 끝날 때까지), 행이 없으면 빈 값
+    // 다른 인스턴스가 잡고 있으면 file.upload.lock-timeout-ms 기본값만큼만 기다린다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT b.hash FROM AttachmentBlob b WHERE b.hash = :hash")
+    Optional<String> lock(@Param("hash") String hash);
+
+    // 잠금 행 추가 (처음 저장하는 내용, 또는 이 테이블 이전에 저장된 내용), 넣은 행은 커밋까지 잠겨 있다
+    @Modifying
+    @Query(value = "INSERT INTO attachment_blobs (hash, created_at) VALUES (:hash, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int insert(@Param("hash") String hash);
+
+    // 파일을 지운 내용의 잠금 행 삭제
+    @Modifying
+    @Query("DELETE FROM AttachmentBlob b WHERE b.hash = :hash")
+    int remove(@Param("hash") String hash);
+
+}
@@ -34,7 +34,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdAndAuthor(Long postId, String author);
 
     // 게시글별 댓글 개수 조회 (통계용)
-    @Query("SELECT c.post.id, COUNT(c) FROM Comment c GROUP BY c.post.id")
+    @Query("SELECT p.id, p.commentCount FROM Post p WHERE p.commentCount > 0")
     List<Object[]> countCommentsByPost();
 
 }
@@ -0,0 +1,52 @@
+package com.berryweb.shop.posts.repository;
+
+import com.berryweb.shop.posts.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // 발송할 행을 잠그고 가져온다 (다른 인스턴스가 잠근 행은 건너뜀, MariaDB 10.6+)
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND available_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // 가져간 행의 임대 설정 (임대가 끝날 때까지 다른 발송기가 가져가지 않음, 발송기가 죽으면 임대 만료 후 재시도)
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.availableAt = :leaseUntil, o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 아래 쓰기는 모두 leaseUntil 이 이 발송기가 건 임대와 같은 행만 바꾼다.
+    // 발송이 임대 시간을 넘겨 다른 발송기가 다시 가져간 행(임대 시각이 바뀜)은 그쪽 결과에 맡긴다.
+
+    // 발송한 행 삭제
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.id IN :ids AND o.availableAt = :leaseUntil")
+    int deleteLeased(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 발송 실패: availableAt 에 다시 시도 (시도 횟수는 임대를 걸 때 이미 늘렸다)
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.availableAt = :availableAt, o.lastError = :error " +
+            "WHERE o.id IN :ids AND o.availableAt = :leaseUntil")
+    int retryLater(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("availableAt") LocalDateTime availableAt, @Param("error") String error);
+
+    // 발송 실패: 시도 횟수를 넘겨 포기
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'FAILED', o.lastError = :error " +
+            "WHERE o.id IN :ids AND o.availableAt = :leaseUntil")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil,
+                   @Param("error") String error);
+
+    // 발송 대기 중인 행 수 (큐 깊이)
+    long countByStatus(String status);
+
+}
@@ -1,7 +1,11 @@
 package com.berryweb.shop.posts.repository;
 
 import com.berryweb.shop.posts.entity.PostFile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,6 +22,40 @@ public interface PostFileRepository extends JpaRepository<PostFile, Long> {
     // 저장된 파일명으로 파일 조회
     Optional<PostFile> findByStoredName(String storedName);
 
+    // 같은 내용(SHA-256)을 참조하는 파일 수 (내용 주소 저장소의 참조 수)
+    long countByContentHash(String contentHash);
+
+    // 같은 내용을 참조하는 행의 원본 크기 (압축 저장되어 파일 크기로 알 수 없을 때)
+    @Query("SELECT MAX(f.fileSize) FROM PostFile f WHERE f.contentHash = :hash")
+    Long findFileSizeByContentHash(@Param("hash") String hash);
+
+    // 게시글의 첫 번째 이미지 (대표 이미지 교체용)
+    Optional<PostFile> findFirstByPostIdAndContentTypeStartingWithOrderByIdAsc(Long postId, String contentTypePrefix);
+
+    // ---- 저장 위치 이전 (UploadLayoutMigrator) ----
+
+    // ID 순 일괄 조회
+    List<PostFile> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 현재 저장 경로 (이전 중 다른 행과 함께 옮겨졌는지 확인)
+    @Query("SELECT f.filePath FROM PostFile f WHERE f.id = :id")
+    Optional<String> findFilePathById(@Param("id") Long id);
+
+    // 삭제할 행의 현재 저장 경로 (행을 잠가 relocate 가 삭제 커밋 전이나 후 한쪽에서만 일어나게 한다)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f.filePath FROM PostFile f WHERE f.id = :id")
+    Optional<String> findFilePathByIdForUpdate(@Param("id") Long id);
+
+    // 게시글과 함께 삭제할 행들의 현재 저장 경로 (위와 같이 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f.filePath FROM PostFile f WHERE f.post.id = :postId")
+    List<String> findFilePathsByPostIdForUpdate(@Param("postId") Long postId);
+
+    // 같은 파일을 가리키는 행을 모두 새 경로로 (예전 파일은 내용 해시도 채운다)
+    @Modifying
+    @Query("UPDATE PostFile f SET f.filePath = :to, f.contentHash = :hash WHERE f.filePath = :from")
+    int relocate(@Param("from") String from, @Param("to") String to, @Param("hash") String hash);
+
     // 원본 파일명으로 검색
     List<PostFile> findByOriginalNameContainingIgnoreCase(String originalName);
 
@@ -43,7 +81,7 @@ public interface PostFileRepository extends JpaRepository<PostFile, Long> {
     Long getTotalFileSize();
 
     // 게시글별 파일 개수 조회 (통계용)
-    @Query("SELECT f.post.id, COUNT(f) FROM PostFile f GROUP BY f.post.id")
+    @Query("SELECT p.id, p.fileCount FROM Post p WHERE p.fileCount > 0")
     List<Object[]> countFilesByPost();
 
 }
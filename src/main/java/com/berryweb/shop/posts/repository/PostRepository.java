@@ -1,103 +1,258 @@
 package com.berryweb.shop.posts.repository;
 
+import com.berryweb.shop.posts.dto.PostSummary;
 import com.berryweb.shop.posts.entity.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostRowUpdates {
+
+    // 목록 조회용 생성자 표현식 (본문 content 는 읽지 않는다)
+    String SUMMARY = "new com.berryweb.shop.posts.dto.PostSummary(p.id, p.title, p.author, p.isNotice, p.isPinned, "
+            + "p.isActive, p.expiryDate, p.viewCount, p.commentCount, p.fileCount, p.excerpt, p.thumbnailName, p.createdAt, p.updatedAt)";
+
+    // 쿼리 캐시 영역 (SecondLevelCacheConfig), posts 테이블이 바뀌면 무효화되고 그 외에는 query-ttl-seconds 동안 유지
+    // 조회수는 flush 로 바뀌어도 무효화하지 않으므로 목록의 조회수는 그만큼 늦게 반영될 수 있다
+    String LIST_CACHE_REGION = "posts.lists";
+    String NOTICE_CACHE_REGION = "posts.notices";
 
     // ============ 기존 쿼리들 ============
 
+    // ---- 목록/검색 조회는 PostSummary 로 반환 (파생 쿼리는 DTO 생성자 파라미터 컬럼만 SELECT) ----
+
     // 제목으로 검색 (페이징)
-    Page<Post> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+    Page<PostSummary> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
     // 작성자로 검색 (페이징)
-    Page<Post> findByAuthorContainingIgnoreCase(String author, Pageable pageable);
+    Page<PostSummary> findByAuthorContainingIgnoreCase(String author, Pageable pageable);
 
     // 제목 또는 내용으로 검색 (페이징)
-    Page<Post> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
+    Page<PostSummary> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
             String title, String content, Pageable pageable);
 
     // 최신 게시글 조회 (페이징)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
     Page<Post> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     // 특정 작성자의 게시글 개수
     long countByAuthor(String author);
 
     // 댓글이 있는 게시글만 조회
-    @Query("SELECT DISTINCT p FROM Post p JOIN p.comments")
+    @Query("SELECT p FROM Post p WHERE p.commentCount > 0")
     List<Post> findPostsWithComments();
 
     // 파일이 첨부된 게시글만 조회
-    @Query("SELECT DISTINCT p FROM Post p JOIN p.files")
-    Page<Post> findPostsWithFiles(Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query(value = "SELECT " + SUMMARY + " FROM Post p WHERE p.fileCount > 0",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.fileCount > 0")
+    Page<PostSummary> findPostsWithFiles(Pageable pageable);
+
+    // ID 목록으로 요약 조회 (검색 색인 결과용)
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ID 순 일괄 조회 (검색 색인 구축용)
+    List<Post> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // 상세 조회용: 게시글 + 첨부파일 (fetch join)
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.files f WHERE p.id = :id ORDER BY f.createdAt ASC")
+    Optional<Post> findWithFilesById(@Param("id") Long id);
+
+    // 상세 조회용: 게시글 + 댓글 (fetch join, 최신순)
+    @Query("SELECT p FROM Post p LEFT JOIN FETCH p.comments c WHERE p.id = :id ORDER BY c.createdAt DESC")
+    Optional<Post> findWithCommentsById(@Param("id") Long id);
+
+    // 상세 조회 ETag 용 버전 정보 (게시글/댓글/첨부파일 행을 읽지 않고 집계만)
+    // [updatedAt, isActive, expiryDate, commentCount, fileCount, thumbnailName, 마지막 댓글 수정 시각, 마지막 파일 ID]
+    @Query("SELECT p.updatedAt, p.isActive, p.expiryDate, p.commentCount, p.fileCount, p.thumbnailName, " +
+            "(SELECT MAX(c.updatedAt) FROM Comment c WHERE c.post.id = p.id), " +
+            "(SELECT MAX(f.id) FROM PostFile f WHERE f.post.id = p.id) " +
+            "FROM Post p WHERE p.id = :id")
+    List<Object[]> findDetailVersion(@Param("id") Long id);
 
     // ============ 공지사항 관련 쿼리들 ============
 
     // 일반 게시글만 조회 (공지사항 제외)
-    Page<Post> findByIsNoticeFalseOrderByCreatedAtDesc(Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    Page<PostSummary> findByIsNoticeFalseOrderByCreatedAtDesc(Pageable pageable);
 
     // 공지사항만 조회 (전체)
-    Page<Post> findByIsNoticeTrueOrderByIsPinnedDescCreatedAtDesc(Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
+    Page<PostSummary> findByIsNoticeTrueOrderByIsPinnedDescCreatedAtDesc(Pageable pageable);
 
     // 활성 공지사항만 조회
-    Page<Post> findByIsNoticeTrueAndIsActiveTrueOrderByIsPinnedDescCreatedAtDesc(Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
+    Page<PostSummary> findByIsNoticeTrueAndIsActiveTrueOrderByIsPinnedDescCreatedAtDesc(Pageable pageable);
 
     // 활성 공지사항만 조회 (List 형태) - 메인 페이지용
-    List<Post> findByIsNoticeTrueAndIsActiveTrueOrderByIsPinnedDescCreatedAtDesc();
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = true AND p.isActive = true " +
+            "ORDER BY p.isPinned DESC, p.createdAt DESC")
+    List<PostSummary> findActiveNoticeSummaries();
 
     // 중요 공지사항만 조회
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
     List<Post> findByIsNoticeTrueAndIsPinnedTrueAndIsActiveTrueOrderByCreatedAtDesc();
 
     // 일반 공지사항만 조회 (중요공지 제외)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
     List<Post> findByIsNoticeTrueAndIsPinnedFalseAndIsActiveTrueOrderByCreatedAtDesc();
 
     // 공지사항 제목으로 검색
-    Page<Post> findByIsNoticeTrueAndTitleContainingIgnoreCase(String title, Pageable pageable);
+    Page<PostSummary> findByIsNoticeTrueAndTitleContainingIgnoreCase(String title, Pageable pageable);
 
     // 공지사항 작성자로 검색
-    Page<Post> findByIsNoticeTrueAndAuthorContainingIgnoreCase(String author, Pageable pageable);
+    Page<PostSummary> findByIsNoticeTrueAndAuthorContainingIgnoreCase(String author, Pageable pageable);
 
     // 공지사항 내용으로 검색
-    Page<Post> findByIsNoticeTrueAndContentContainingIgnoreCase(String content, Pageable pageable);
+    Page<PostSummary> findByIsNoticeTrueAndContentContainingIgnoreCase(String content, Pageable pageable);
 
     // 공지사항 키워드 검색 (제목 + 내용)
-    Page<Post> findByIsNoticeTrueAndTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
+    Page<PostSummary> findByIsNoticeTrueAndTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
             String title, String content, Pageable pageable);
 
     // 공지사항 상태별 조회
-    Page<Post> findByIsNoticeTrueAndIsActiveOrderByIsPinnedDescCreatedAtDesc(Boolean isActive, Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
+    Page<PostSummary> findByIsNoticeTrueAndIsActiveOrderByIsPinnedDescCreatedAtDesc(Boolean isActive, Pageable pageable);
 
     // 공지사항 중요도별 조회
-    Page<Post> findByIsNoticeTrueAndIsPinnedOrderByCreatedAtDesc(Boolean isPinned, Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = NOTICE_CACHE_REGION)})
+    Page<PostSummary> findByIsNoticeTrueAndIsPinnedOrderByCreatedAtDesc(Boolean isPinned, Pageable pageable);
 
     // 만료된 공지사항 조회
     @Query("SELECT p FROM Post p WHERE p.isNotice = true AND p.expiryDate IS NOT NULL AND p.expiryDate < :now")
     List<Post> findExpiredNotices(@Param("now") LocalDateTime now);
 
     // 만료 임박 공지사항 조회 (3일 이내)
-    @Query("SELECT p FROM Post p WHERE p.isNotice = true AND p.expiryDate IS NOT NULL AND p.expiryDate BETWEEN :now AND :threeDaysLater AND p.isActive = true")
-    List<Post> findNoticesExpiringSoon(@Param("now") LocalDateTime now, @Param("threeDaysLater") LocalDateTime threeDaysLater);
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = true AND p.expiryDate IS NOT NULL AND p.expiryDate BETWEEN :now AND :threeDaysLater AND p.isActive = true")
+    List<PostSummary> findNoticesExpiringSoon(@Param("now") LocalDateTime now, @Param("threeDaysLater") LocalDateTime threeDaysLater);
 
     // 만료된 공지사항 자동 비활성화
     @Modifying
     @Query("UPDATE Post p SET p.isActive = false WHERE p.isNotice = true AND p.expiryDate IS NOT NULL AND p.expiryDate < :now AND p.isActive = true")
     int deactivateExpiredNotices(@Param("now") LocalDateTime now);
 
+    // 만료 예정인 활성 공지사항 [id, expiryDate] (NoticeExpiryScheduler 시작 시 적재)
+    @Query("SELECT p.id, p.expiryDate FROM Post p WHERE p.isNotice = true AND p.isActive = true AND p.expiryDate IS NOT NULL")
+    List<Object[]> findScheduledExpiries();
+
+    // 지정한 공지사항 중 만료된 것만 비활성화 (그 사이 만료일이 연장된 공지는 건드리지 않음)
+    @Modifying
+    @Query("UPDATE Post p SET p.isActive = false WHERE p.id IN :ids AND p.isNotice = true AND p.isActive = true " +
+            "AND p.expiryDate IS NOT NULL AND p.expiryDate <= :now")
+    int deactivateExpiredNotices(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // 조회수 증가
     @Modifying
     @Query("UPDATE Post p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
     void incrementViewCount(@Param("id") Long id);
 
+    // 댓글/첨부파일 개수, 대표 이미지 증감 / 지정은 PostRowUpdates (한 행만 캐시에서 지운다)
+
+    // 현재 조회수 (2차 캐시에 있는 게시글의 조회수는 캐시에 담긴 시점 값이므로 응답용으로 DB 에서 읽는다)
+    @Query("SELECT p.viewCount FROM Post p WHERE p.id = :id")
+    Optional<Long> findViewCountById(@Param("id") Long id);
+
+    // 아래 네이티브 UPDATE 는 바꾸는 테이블(posts)을 선언해, Hibernate 가 다른 엔티티 / 쿼리 캐시까지 비우지 않도록 한다
+    // (선언하지 않으면 모든 영역을 비우는데, 다른 인스턴스에는 게시글 영역만 전파되어 서로 달라진다)
+
+    // 댓글/첨부파일 개수 보정 (실제 행 수와 다른 게시글만 갱신)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    @Query(value = "UPDATE posts p SET " +
+            "p.comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id), " +
+            "p.file_count = (SELECT COUNT(*) FROM files f WHERE f.post_id = p.id) " +
+            "WHERE p.comment_count <> (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+            "OR p.file_count <> (SELECT COUNT(*) FROM files f WHERE f.post_id = p.id)",
+            nativeQuery = true)
+    int reconcileCounts();
+
+    // 본문 요약이 비어 있는 게시글 채우기 (excerpt 컬럼 추가 이전 데이터용)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    @Query(value = "UPDATE posts SET excerpt = LEFT(TRIM(REGEXP_REPLACE(content, '[[:space:]]+', ' ')), 200) " +
+            "WHERE excerpt IS NULL", nativeQuery = true)
+    int backfillExcerpts();
+
+    // 이미지 첨부파일이 있는데 대표 이미지가 비어 있는 게시글 채우기 (thumbnail_name 컬럼 추가 이전 데이터용)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "posts"))
+    @Query(value = "UPDATE posts p SET p.thumbnail_name = " +
+            "(SELECT f.stored_name FROM files f WHERE f.post_id = p.id AND f.content_type LIKE 'image/%' ORDER BY f.id LIMIT 1) " +
+            "WHERE p.thumbnail_name IS NULL AND p.file_count > 0 " +
+            "AND EXISTS (SELECT 1 FROM files f WHERE f.post_id = p.id AND f.content_type LIKE 'image/%')",
+            nativeQuery = true)
+    int backfillThumbnails();
+
+    // ============ 키셋(커서) 페이지네이션 ============
+    // 정렬 키 (is_notice, is_pinned, created_at, id) 중 앞의 두 값이 같은 구간 안에서
+    // (created_at, id) 로 seek 한다. isPinned 가 null 이면 중요 여부를 가리지 않는다.
+
+    // 구간의 첫 부분 (최신순)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = :isNotice " +
+            "AND (:isPinned IS NULL OR p.isPinned = :isPinned) AND (:activeOnly = false OR p.isActive = true) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findKeysetHead(@Param("isNotice") boolean isNotice, @Param("isPinned") Boolean isPinned,
+                                     @Param("activeOnly") boolean activeOnly, Limit limit);
+
+    // 커서 다음 (더 오래된 것, 최신순)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = :isNotice " +
+            "AND (:isPinned IS NULL OR p.isPinned = :isPinned) AND (:activeOnly = false OR p.isActive = true) " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findKeysetAfter(@Param("isNotice") boolean isNotice, @Param("isPinned") Boolean isPinned,
+                                      @Param("activeOnly") boolean activeOnly, @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id, Limit limit);
+
+    // 커서 이전 (더 최신인 것, 커서에 가까운 순 = 오래된순)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = :isNotice " +
+            "AND (:isPinned IS NULL OR p.isPinned = :isPinned) AND (:activeOnly = false OR p.isActive = true) " +
+            "AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<PostSummary> findKeysetBefore(@Param("isNotice") boolean isNotice, @Param("isPinned") Boolean isPinned,
+                                       @Param("activeOnly") boolean activeOnly, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id, Limit limit);
+
+    // 구간의 마지막 부분 (오래된순, 이전 페이지를 거슬러 올라갈 때)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query("SELECT " + SUMMARY + " FROM Post p WHERE p.isNotice = :isNotice " +
+            "AND (:isPinned IS NULL OR p.isPinned = :isPinned) AND (:activeOnly = false OR p.isActive = true) " +
+            "ORDER BY p.createdAt ASC, p.id ASC")
+    List<PostSummary> findKeysetTail(@Param("isNotice") boolean isNotice, @Param("isPinned") Boolean isPinned,
+                                     @Param("activeOnly") boolean activeOnly, Limit limit);
+
     // ============ 통계 쿼리들 ============
 
     // 공지사항 개수
@@ -112,6 +267,10 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // 일반 게시글 개수
     long countByIsNoticeFalse();
 
+    // 공지사항 상태 목록 (통계용: id, isActive, isPinned, expiryDate)
+    @Query("SELECT p.id, p.isActive, p.isPinned, p.expiryDate FROM Post p WHERE p.isNotice = true")
+    List<Object[]> findNoticeStates();
+
     // 만료된 공지사항 개수
     @Query("SELECT COUNT(p) FROM Post p WHERE p.isNotice = true AND p.expiryDate IS NOT NULL AND p.expiryDate < :now")
     long countExpiredNotices(@Param("now") LocalDateTime now);
@@ -119,10 +278,15 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // ============ 통합 쿼리들 ============
 
     // 전체 게시글 조회 (공지사항 우선, 그 다음 일반 게시글)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
     @Query("SELECT p FROM Post p ORDER BY p.isNotice DESC, p.isPinned DESC, p.createdAt DESC")
     Page<Post> findAllOrderByNoticeAndPinnedAndCreatedAt(Pageable pageable);
 
     // 활성 게시글만 조회 (공지사항 우선)
-    @Query("SELECT p FROM Post p WHERE (p.isNotice = false) OR (p.isNotice = true AND p.isActive = true) ORDER BY p.isNotice DESC, p.isPinned DESC, p.createdAt DESC")
-    Page<Post> findActivePostsOrderByNoticeAndPinned(Pageable pageable);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = LIST_CACHE_REGION)})
+    @Query(value = "SELECT " + SUMMARY + " FROM Post p WHERE (p.isNotice = false) OR (p.isNotice = true AND p.isActive = true) ORDER BY p.isNotice DESC, p.isPinned DESC, p.createdAt DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE (p.isNotice = false) OR (p.isNotice = true AND p.isActive = true)")
+    Page<PostSummary> findActivePostsOrderByNoticeAndPinned(Pageable pageable);
 }
\ No newline at end of file
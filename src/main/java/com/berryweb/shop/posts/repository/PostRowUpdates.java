@@ -0,0 +1,19 @@
+package com.berryweb.shop.posts.repository;
+
+// 게시글 한 행의 비정규화 컬럼 갱신 (PostRowUpdatesImpl, PostRepository 에 포함)
+// 다른 요청과 동시에 바뀌어도 잃지 않도록 현재 값 기준으로 UPDATE 한다.
+public interface PostRowUpdates {
+
+    // 댓글 개수 증감
+    int adjustCommentCount(Long id, int delta);
+
+    // 첨부파일 개수 증감
+    int adjustFileCount(Long id, int delta);
+
+    // 대표 이미지가 없으면 지정
+    int assignThumbnailIfAbsent(Long id, String name);
+
+    // 대표 이미지가 current 이면 next 로 교체 (next 가 null 이면 해제)
+    int replaceThumbnail(Long id, String current, String next);
+
+}
@@ -0,0 +1,56 @@
+package com.berryweb.shop.posts.repository;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Post;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// JPQL 일괄 UPDATE 는 Hibernate 가 게시글 캐시 영역 전체를 비우므로 (다른 인스턴스에도 전체 무효화 전파)
+// 한 행만 바꾸는 갱신은 JDBC 로 하고, 바뀐 게시글만 2차 캐시에서 지운다.
+@RequiredArgsConstructor
+public class PostRowUpdatesImpl implements PostRowUpdates {
+
+    private static final String ADJUST_COMMENT_COUNT_SQL = "UPDATE posts SET comment_count = comment_count + ? WHERE id = ?";
+    private static final String ADJUST_FILE_COUNT_SQL = "UPDATE posts SET file_count = file_count + ? WHERE id = ?";
+    private static final String ASSIGN_THUMBNAIL_SQL =
+            "UPDATE posts SET thumbnail_name = ? WHERE id = ? AND thumbnail_name IS NULL";
+    private static final String REPLACE_THUMBNAIL_SQL =
+            "UPDATE posts SET thumbnail_name = ? WHERE id = ? AND thumbnail_name = ?";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Override
+    public int adjustCommentCount(Long id, int delta) {
+        return update(id, ADJUST_COMMENT_COUNT_SQL, delta, id);
+    }
+
+    @Override
+    public int adjustFileCount(Long id, int delta) {
+        return update(id, ADJUST_FILE_COUNT_SQL, delta, id);
+    }
+
+    @Override
+    public int assignThumbnailIfAbsent(Long id, String name) {
+        return update(id, ASSIGN_THUMBNAIL_SQL, name, id);
+    }
+
+    @Override
+    public int replaceThumbnail(Long id, String current, String next) {
+        return update(id, REPLACE_THUMBNAIL_SQL, next, id, current);
+    }
+
+    // 호출자 트랜잭션 안에서만 호출 (커밋 후 캐시 무효화)
+    private int update(Long id, String sql, Object... args) {
+        // JPQL UPDATE 처럼 먼저 flush (같은 트랜잭션에서 저장한 게시글 / 댓글 / 첨부파일 INSERT 가 먼저 나가도록)
+        entityManager.flush();
+        int updated = jdbcTemplate.update(sql, args);
+        if (updated > 0) {
+            cacheInvalidator.rowUpdated(Post.class, id);
+        }
+        return updated;
+    }
+
+}
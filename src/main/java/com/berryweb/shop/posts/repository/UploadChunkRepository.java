@@ -0,0 +1,34 @@
+package com.berryweb.shop.posts.repository;
+
+import com.berryweb.shop.posts.entity.UploadChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, UploadChunk.Key> {
+
+    // 받은 조각 번호 (오름차순)
+    @Query("SELECT c.chunkIndex FROM UploadChunk c WHERE c.uploadId = :uploadId AND c.received = true ORDER BY c.chunkIndex")
+    List<Integer> findReceivedIndexes(@Param("uploadId") String uploadId);
+
+    long countByUploadIdAndReceivedTrue(String uploadId);
+
+    // 쓰기가 끝난 조각의 임대를 풀고 결과 표시
+    // leaseUntil 이 이 요청이 건 임대와 같은 행만 바꾼다 (임대가 지나 다른 요청이 이어받은 조각은 그쪽 결과에 맡긴다).
+    @Modifying
+    @Query("UPDATE UploadChunk c SET c.received = :received, c.leaseUntil = NULL " +
+            "WHERE c.uploadId = :uploadId AND c.chunkIndex = :chunkIndex AND c.leaseUntil = :leaseUntil")
+    int finish(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex,
+               @Param("leaseUntil") LocalDateTime leaseUntil, @Param("received") boolean received);
+
+    @Modifying
+    @Query("DELETE FROM UploadChunk c WHERE c.uploadId = :uploadId")
+    int deleteByUploadId(@Param("uploadId") String uploadId);
+
+}
@@ -0,0 +1,32 @@
+package com.berryweb.shop.posts.repository;
+
+import com.berryweb.shop.posts.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // 세션 잠금 (트랜잭션이 끝날 때까지), 없으면 (완료 / 취소 / 만료) 빈 값
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> lock(@Param("id") String id);
+
+    long countByPostId(Long postId);
+
+    // 마지막 요청이 deadline 이전인 세션
+    @Query("SELECT s.id FROM UploadSession s WHERE s.lastActivity < :deadline")
+    List<String> findExpiredIds(@Param("deadline") LocalDateTime deadline);
+
+}
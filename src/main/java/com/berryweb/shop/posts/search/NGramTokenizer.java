@@ -0,0 +1,51 @@
+package com.berryweb.shop.posts.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 2-gram 토크나이저
+// 한국어는 조사/어미가 붙어 공백 단위로는 검색이 안 되므로 단어를 2글자씩 잘라 색인한다.
+// 예: "공지사항입니다" -> 공지, 지사, 사항, 항입, 입니, 니다
+public final class NGramTokenizer {
+
+    private NGramTokenizer() {
+    }
+
+    // 정규화(NFKC, 소문자) 후 문자/숫자 단위로 단어 분리
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // 정규화한 단어를 공백 하나로 이은 문자열 (색인 후보가 검색어를 실제로 포함하는지 확인할 때 양쪽에 같이 쓴다)
+    public static String normalize(String text) {
+        return String.join(" ", words(text));
+    }
+
+    // 2-gram 목록 (중복 포함, 한 글자 단어는 그대로)
+    public static List<String> tokenize(String text) {
+        List<String> grams = new ArrayList<>();
+        for (String word : words(text)) {
+            if (word.length() == 1) {
+                grams.add(word);
+                continue;
+            }
+            for (int i = 0; i < word.length() - 1; i++) {
+                grams.add(word.substring(i, i + 2));
+            }
+        }
+        return grams;
+    }
+
+}
@@ -0,0 +1,292 @@
+package com.berryweb.shop.posts.search;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 게시글/공지사항 검색용 메모리 역색인
+// 시작 시 DB 에서 전체를 읽어 만들고, 이후에는 PostChangedEvent 로 증분 갱신한다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 필드별 역색인: gram -> (게시글 ID -> 출현 횟수)
+    private final Map<SearchField, Map<String, Map<Long, Integer>>> postings = newPostings();
+
+    // 색인된 문서 (삭제/재색인 시 기존 gram 을 지우기 위해 보관)
+    private final Map<Long, IndexedPost> documents = new HashMap<>();
+
+    // 재구축 중 이벤트로 바뀐 게시글 (DB 에서 읽은 예전 값으로 덮어쓰지 않도록)
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    private volatile boolean ready = false;
+    private volatile boolean rebuilding = false;
+
+    // 검색 결과 (현재 페이지의 게시글 ID 를 점수순으로, 전체 건수)
+    public record SearchHits(List<Long> ids, long total) {
+    }
+
+    // 색인으로 처리할 수 있는 검색어인지 (한 글자 단어는 2-gram 이 없으므로 DB 검색으로 처리)
+    public boolean canSearch(String keyword) {
+        if (!ready) {
+            return false;
+        }
+        List<String> words = NGramTokenizer.words(keyword);
+        return !words.isEmpty() && words.stream().allMatch(word -> word.length() >= 2);
+    }
+
+    // 검색 (notice: null 이면 전체, true 면 공지사항만, false 면 일반 게시글만)
+    // gram 교집합으로 후보를 좁힌 뒤, 그 필드의 정규화된 본문이 검색어를 그대로 포함하는지 확인한다
+    // (gram 이 흩어져 있기만 한 문서는 제외, DB 의 LIKE '%검색어%' 와 같은 결과). 점수는 필드 가중치 * 출현 횟수.
+    public SearchHits search(String keyword, Set<SearchField> fields, Boolean notice, Pageable pageable) {
+        Set<String> queryGrams = new HashSet<>(NGramTokenizer.tokenize(keyword));
+        String phrase = NGramTokenizer.normalize(keyword);
+        if (queryGrams.isEmpty()) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (SearchField field : fields) {
+                Map<String, Map<Long, Integer>> fieldPostings = postings.get(field);
+
+                List<Map<Long, Integer>> lists = new ArrayList<>();
+                for (String gram : queryGrams) {
+                    Map<Long, Integer> list = fieldPostings.get(gram);
+                    if (list == null) {
+                        lists = null;
+                        break;
+                    }
+                    lists.add(list);
+                }
+                if (lists == null) {
+                    continue;
+                }
+
+                // 가장 짧은 posting 부터 교집합
+                lists.sort(Comparator.comparingInt(Map::size));
+                candidates:
+                for (Map.Entry<Long, Integer> entry : lists.get(0).entrySet()) {
+                    Long postId = entry.getKey();
+                    IndexedPost document = documents.get(postId);
+                    if (notice != null && document.notice() != notice) {
+                        continue;
+                    }
+                    int score = entry.getValue();
+                    for (int i = 1; i < lists.size(); i++) {
+                        Integer frequency = lists.get(i).get(postId);
+                        if (frequency == null) {
+                            continue candidates;
+                        }
+                        score += frequency;
+                    }
+                    if (!document.texts().get(field).contains(phrase)) {
+                        continue;
+                    }
+                    scores.merge(postId, score * field.getWeight(), Integer::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // 점수 내림차순, 같으면 최신(ID 큰) 순
+        List<Long> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort(Comparator.<Long>comparingInt(scores::get).reversed().thenComparing(Comparator.reverseOrder()));
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        return new SearchHits(List.copyOf(ranked.subList(from, to)), ranked.size());
+    }
+
+    // 게시글 색인 (이미 있으면 교체)
+    public void index(Post post) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(post.getId());
+            }
+            put(post);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 게시글 색인 제거
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(postId);
+            }
+            delete(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> index(event.getPost());
+            case DELETED -> remove(event.getPostId());
+            default -> {
+                // 일괄 갱신은 활성 상태만 바꾸므로 색인과 무관
+            }
+        }
+    }
+
+    // 애플리케이션 시작 후 백그라운드에서 색인 구축 (완료 전까지는 DB 검색 사용)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "post-search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // DB 전체를 ID 순으로 나눠 읽어 색인 재구축
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int indexedCount = 0;
+        try {
+            Long lastId = 0L;
+            while (true) {
+                List<Post> batch = postRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                lock.writeLock().lock();
+                try {
+                    for (Post post : batch) {
+                        if (!changedDuringRebuild.contains(post.getId())) {
+                            put(post);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                indexedCount += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            ready = true;
+        } catch (RuntimeException e) {
+            log.error("검색 색인 구축 실패", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("검색 색인 구축 종료: indexed={}, ready={}, elapsedMs={}",
+                indexedCount, ready, System.currentTimeMillis() - startedAt);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ---- 아래는 write lock 을 잡은 상태에서만 호출 ----
+
+    private void put(Post post) {
+        delete(post.getId());
+
+        Map<SearchField, Set<String>> grams = new EnumMap<>(SearchField.class);
+        Map<SearchField, String> texts = new EnumMap<>(SearchField.class);
+        addField(post.getId(), SearchField.TITLE, post.getTitle(), grams, texts);
+        addField(post.getId(), SearchField.AUTHOR, post.getAuthor(), grams, texts);
+        addField(post.getId(), SearchField.CONTENT, post.getContent(), grams, texts);
+
+        documents.put(post.getId(), new IndexedPost(post.isNotice(), grams, texts));
+    }
+
+    private void addField(Long postId, SearchField field, String text, Map<SearchField, Set<String>> grams,
+                          Map<SearchField, String> texts) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String gram : NGramTokenizer.tokenize(text)) {
+            frequencies.merge(gram, 1, Integer::sum);
+        }
+
+        Map<String, Map<Long, Integer>> fieldPostings = postings.get(field);
+        frequencies.forEach((gram, frequency) ->
+                fieldPostings.computeIfAbsent(gram, g -> new HashMap<>()).put(postId, frequency));
+        grams.put(field, frequencies.keySet());
+        texts.put(field, NGramTokenizer.normalize(text));
+    }
+
+    private void delete(Long postId) {
+        IndexedPost existing = documents.remove(postId);
+        if (existing == null) {
+            return;
+        }
+        existing.grams().forEach((field, grams) -> removePostings(postings.get(field), grams, postId));
+    }
+
+    private void removePostings(Map<String, Map<Long, Integer>> fieldPostings, Collection<String> grams, Long postId) {
+        for (String gram : grams) {
+            Map<Long, Integer> list = fieldPostings.get(gram);
+            if (list != null) {
+                list.remove(postId);
+                if (list.isEmpty()) {
+                    fieldPostings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Map<SearchField, Map<String, Map<Long, Integer>>> newPostings() {
+        Map<SearchField, Map<String, Map<Long, Integer>>> map = new EnumMap<>(SearchField.class);
+        for (SearchField field : SearchField.values()) {
+            map.put(field, new HashMap<>());
+        }
+        return map;
+    }
+
+    // 색인된 게시글 정보 (texts: 필드별 정규화된 본문, 후보 확인용)
+    private record IndexedPost(boolean notice, Map<SearchField, Set<String>> grams, Map<SearchField, String> texts) {
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.berryweb.shop.posts.search;
+
+// 검색 대상 필드 (weight 는 랭킹 가중치)
+public enum SearchField {
+
+    TITLE(3),
+    AUTHOR(2),
+    CONTENT(1);
+
+    private final int weight;
+
+    SearchField(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+}
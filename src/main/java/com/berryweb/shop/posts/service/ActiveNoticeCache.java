@@ -0,0 +1,117 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.dto.PostSummary;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 활성 공지사항 캐시 (메인 페이지용)
+// 공지사항이 바뀌면 커밋 후 무효화하고, 캐시된 공지 중 가장 이른 만료 시각이 되면 다시 읽는다.
+@Component
+@RequiredArgsConstructor
+public class ActiveNoticeCache {
+
+    private final PostRepository postRepository;
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // 무효화 세대 (로딩 중에 무효화되면 읽은 결과를 버린다)
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(List<PostSummary> active, List<PostSummary> pinned, List<PostSummary> regular, LocalDateTime expiresAt) {
+
+        boolean isValid(LocalDateTime now) {
+            return expiresAt == null || now.isBefore(expiresAt);
+        }
+
+        boolean contains(Long postId) {
+            return active.stream().anyMatch(post -> Objects.equals(post.getId(), postId));
+        }
+    }
+
+    // 활성 공지사항 (중요 우선, 최신순)
+    public List<PostSummary> getActiveNotices() {
+        return current().active();
+    }
+
+    // 중요 공지사항
+    public List<PostSummary> getPinnedNotices() {
+        return current().pinned();
+    }
+
+    // 일반 공지사항 (중요공지 제외)
+    public List<PostSummary> getRegularNotices() {
+        return current().regular();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Snapshot cached = snapshot;
+        boolean relevant = switch (event.getType()) {
+            case CREATED, UPDATED -> event.getPost().isNotice() || (cached != null && cached.contains(event.getPostId()));
+            default -> true;
+        };
+        if (relevant) {
+            invalidate();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.isValid(LocalDateTime.now())) {
+            return cached;
+        }
+        return load();
+    }
+
+    // 동시에 여러 요청이 캐시를 채우지 않도록 한 번만 읽는다
+    private Snapshot load() {
+        loadLock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Snapshot cached = snapshot;
+            if (cached != null && cached.isValid(now)) {
+                return cached;
+            }
+
+            long loadGeneration = generation.get();
+
+            // 스케줄러가 아직 비활성화하지 않은 만료 공지도 여기서 걸러낸다
+            List<PostSummary> active = postRepository.findActiveNoticeSummaries()
+                    .stream()
+                    .filter(post -> post.getExpiryDate() == null || now.isBefore(post.getExpiryDate()))
+                    .toList();
+            List<PostSummary> pinned = active.stream().filter(PostSummary::isPinned).toList();
+            List<PostSummary> regular = active.stream().filter(post -> !post.isPinned()).toList();
+            LocalDateTime expiresAt = active.stream()
+                    .map(PostSummary::getExpiryDate)
+                    .filter(Objects::nonNull)
+                    .min(LocalDateTime::compareTo)
+                    .orElse(null);
+
+            Snapshot loaded = new Snapshot(active, pinned, regular, expiresAt);
+            if (generation.get() == loadGeneration) {
+                snapshot = loaded;
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+}
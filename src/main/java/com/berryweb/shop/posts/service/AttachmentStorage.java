@@ -0,0 +1,585 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.event.AttachmentsReleasedEvent;
+import com.berryweb.shop.posts.repository.AttachmentBlobRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 첨부파일 내용 저장소 (내용 주소 방식)
+// 파일은 SHA-256 으로 이름을 붙여 uploads/blobs/<hash 앞 2자리>/<다음 2자리>/<hash> 에 한 번만 저장하고,
+// 참조 수는 files.content_hash 행 수로 센다. (예전 평면 배치 uploads/blobs/<hash> 도 UploadLayoutMigrator 가 옮길 때까지 읽는다)
+// 해시별 잠금을 업로드 트랜잭션이 끝날 때까지 잡아서, 커밋 전의 새 참조를 모르고 GC 가 파일을 지우는 일이 없게 한다.
+// 잠금은 두 단계: 같은 인스턴스 안은 ReentrantLock, 인스턴스 사이는 attachment_blobs 행의 SELECT ... FOR UPDATE (AttachmentBlob).
+// 잠금은 본문을 임시 파일에 다 받은 뒤 옮기기와 행 저장에만 잡고, 오래 기다리지 않도록 제한 시간을 둔다.
+// 텍스트 계열 파일은 새로 저장할 때 <hash>.zst / <hash>.gz 로 압축해 두고 원본은 지운다 (다운로드 시 Accept-Encoding 으로 선택).
+@Slf4j
+@Component
+public class AttachmentStorage {
+
+    private static final String BLOB_DIRECTORY = "blobs";
+    private static final String TEMP_DIRECTORY = "tmp";
+    private static final String DERIVATIVE_DIRECTORY = "derivatives";
+    private static final int LOCK_STRIPES = 256;
+    private static final String BUSY = "첨부파일 저장소가 사용 중입니다. 잠시 후 다시 시도해주세요.";
+
+    // 압축해도 원본의 90% 보다 크면 원본 그대로 둔다
+    private static final double MAX_COMPRESSED_RATIO = 0.9;
+
+    private final PostFileRepository postFileRepository;
+    private final AttachmentBlobRepository attachmentBlobRepository;
+    private final TransactionTemplate releaseTransaction;
+
+    private final Path blobRoot;
+    private final Path tempRoot;
+    private final Path derivativeRoot;
+
+    private final boolean compressionEnabled;
+    private final long compressionMinSize;
+    private final int zstdLevel;
+    private final long lockTimeoutMillis;
+
+    // 해시 앞 두 글자로 나눈 잠금 (같은 해시는 항상 같은 잠금)
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public AttachmentStorage(PostFileRepository postFileRepository,
+                             AttachmentBlobRepository attachmentBlobRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${file.upload.directory:uploads}") String uploadDirectory,
+                             @Value("${file.compression.enabled:true}") boolean compressionEnabled,
+                             @Value("${file.compression.min-size:1KB}") DataSize compressionMinSize,
+                             @Value("${file.compression.zstd-level:6}") int zstdLevel,
+                             @Value("${file.upload.lock-timeout-ms:5000}") long lockTimeoutMillis) {
+        this.postFileRepository = postFileRepository;
+        this.attachmentBlobRepository = attachmentBlobRepository;
+        // 정리는 삭제 트랜잭션이 커밋된 뒤에 따로 (해시마다) 커밋한다
+        this.releaseTransaction = new TransactionTemplate(transactionManager);
+        this.releaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blobRoot = Paths.get(uploadDirectory, BLOB_DIRECTORY);
+        this.tempRoot = Paths.get(uploadDirectory, TEMP_DIRECTORY);
+        this.derivativeRoot = Paths.get(uploadDirectory, DERIVATIVE_DIRECTORY);
+        this.compressionEnabled = compressionEnabled;
+        this.compressionMinSize = compressionMinSize.toBytes();
+        this.zstdLevel = zstdLevel;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // 저장된 내용 (path: 원본 기준 경로, 압축 저장된 경우 파일은 encodedPath 에 있다)
+    // deduplicated: 이미 있던 파일을 재사용해 새로 쓰지 않았는지
+    public record StoredBlob(String hash, Path path, long size, boolean deduplicated) {
+    }
+
+    // 같은 내용이 이미 있으면 재사용 (본문을 읽지 않음), 없으면 null
+    // 트랜잭션 안에서만 호출 (재사용할 때만 잠그고, 잠금은 트랜잭션이 끝날 때 푼다)
+    public StoredBlob reuse(String hash) throws IOException {
+        // 없는 내용은 잠그지 않고 바로 돌려보낸다 (호출자가 본문을 받는 동안 잠금을 잡고 있지 않도록)
+        if (locate(hash) == null) {
+            return null;
+        }
+        // 확인과 잠금 사이에 GC 가 (다른 인스턴스에서) 지웠을 수 있으므로 잠근 뒤 다시 확인한다.
+        // 그 경우 null 을 돌려주고, 호출자가 같은 잠금을 잡은 채로 본문을 받아 새로 저장한다.
+        holdUntilCompletion(hash, acquire(hash));
+        return existingBlob(hash);
+    }
+
+    // 잠금을 잡은 상태에서 기존 내용 확인
+    private StoredBlob existingBlob(String hash) throws IOException {
+        Path blob = locate(hash);
+        if (blob == null) {
+            return null;
+        }
+        if (Files.exists(blob)) {
+            return new StoredBlob(hash, blob, Files.size(blob), true);
+        }
+        if (encodings(blob).isEmpty()) {
+            return null;
+        }
+        // 압축 저장된 내용은 원본 크기를 기존 행에서 가져온다 (행이 없으면 본문을 받아 다시 계산)
+        Long size = postFileRepository.findFileSizeByContentHash(hash);
+        return size != null ? new StoredBlob(hash, blob, size, true) : null;
+    }
+
+    // 스트림을 임시 파일에 쓰면서 해시를 계산하고, 같은 내용이 없을 때만 blobs 로 옮긴다
+    // 본문을 다 받은 뒤에 잠근다.
+    // expectedHash 가 있으면 계산한 해시와 다를 때 거부한다. 트랜잭션 안에서만 호출.
+    // 새로 저장한 텍스트 계열 파일(contentType)은 압축해 둔다.
+    public StoredBlob store(InputStream in, String expectedHash, String contentType) throws IOException {
+        Path temp = newTempFile();
+
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, temp);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            if (size == 0) {
+                throw new IllegalArgumentException("업로드할 파일이 없습니다.");
+            }
+            if (expectedHash != null && !expectedHash.equals(hash)) {
+                throw new IllegalArgumentException("파일 내용이 선언한 SHA-256 과 다릅니다.");
+            }
+
+            HashLock hashLock = lockUntilCompletion(hash);
+            Path existing = locate(hash);
+            if (existing != null) {
+                return new StoredBlob(hash, existing, size, true);
+            }
+
+            Path blob = blobPath(hash);
+            Files.createDirectories(blob.getParent());
+            try {
+                Files.move(temp, blob);
+            } catch (FileAlreadyExistsException e) {
+                // 잠금 밖에서 만들어진 경우 (다른 인스턴스 등) 기존 파일 사용
+                return new StoredBlob(hash, blob, size, true);
+            }
+            hashLock.deleteOnRollback.addAll(representations(blob));
+            if (isCompressible(contentType, size)) {
+                compress(blob);
+            }
+            return new StoredBlob(hash, blob, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // 이미 해시를 확인한 파일(분할 업로드로 조립한 파일)을 복사 없이 blobs 로 옮긴다
+    // 같은 내용이 이미 있으면 옮기지 않고 재사용한다 (조립 파일은 호출자가 지움). 트랜잭션 안에서만 호출.
+    public StoredBlob adopt(Path file, String hash, String contentType) throws IOException {
+        long size = Files.size(file);
+        HashLock hashLock = lockUntilCompletion(hash);
+        Path existing = locate(hash);
+        if (existing != null) {
+            return new StoredBlob(hash, existing, size, true);
+        }
+
+        Path blob = blobPath(hash);
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(file, blob);
+        } catch (FileAlreadyExistsException e) {
+            return new StoredBlob(hash, blob, size, true);
+        }
+        hashLock.deleteOnRollback.addAll(representations(blob));
+        if (isCompressible(contentType, size)) {
+            compress(blob);
+        }
+        return new StoredBlob(hash, blob, size, false);
+    }
+
+    // 압축 대상: 텍스트 계열 (이미지는 썸네일 생성이 원본을 읽으므로 SVG 도 제외)
+    private boolean isCompressible(String contentType, long size) {
+        if (!compressionEnabled || size < compressionMinSize || contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameters = type.indexOf(';');
+        if (parameters >= 0) {
+            type = type.substring(0, parameters).trim();
+        }
+        if (type.startsWith("image/")) {
+            return false;
+        }
+        return type.startsWith("text/")
+                || type.endsWith("+json") || type.endsWith("+xml")
+                || type.equals("application/json") || type.equals("application/x-ndjson")
+                || type.equals("application/xml") || type.equals("application/javascript")
+                || type.equals("application/csv") || type.equals("application/sql")
+                || type.equals("application/x-yaml") || type.equals("application/yaml");
+    }
+
+    // 원본을 인코딩별로 압축해 옆에 두고 원본은 지운다
+    // 압축 효과가 없거나 실패하면 원본만 남긴다 (업로드는 실패시키지 않음)
+    private void compress(Path blob) {
+        List<Path> written = new ArrayList<>();
+        try {
+            long rawSize = Files.size(blob);
+            for (ContentEncoding encoding : ContentEncoding.values()) {
+                Path temp = newTempFile();
+                try {
+                    try (OutputStream out = encoding.encode(Files.newOutputStream(temp), zstdLevel)) {
+                        Files.copy(blob, out);
+                    }
+                    long encodedSize = Files.size(temp);
+                    if (encodedSize > rawSize * MAX_COMPRESSED_RATIO) {
+                        log.debug("압축 효과 없음, 원본 유지: path={}, size={}, {}={}", blob, rawSize, encoding.token(), encodedSize);
+                        deleteAll(written);
+                        return;
+                    }
+                    Path target = encodedPath(blob, encoding);
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    written.add(target);
+                    log.debug("첨부파일 압축: path={}, size={}, {}={}", blob, rawSize, encoding.token(), encodedSize);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            // 모든 인코딩이 준비된 뒤에 원본 삭제
+            Files.delete(blob);
+        } catch (IOException | RuntimeException e) {
+            log.warn("첨부파일 압축 실패, 원본 유지: path={}", blob, e);
+            deleteAll(written);
+        }
+    }
+
+    // 기존 파일을 fan-out 위치로 옮긴다 (UploadLayoutMigrator, 트랜잭션 안에서 행 갱신과 함께 호출)
+    // 새 위치에 하드 링크(안 되면 복사)를 만들고, 예전 파일은 커밋된 뒤에 지운다. 그 사이에는 두 경로 모두 읽을 수 있다.
+    // knownHash 가 없으면 (내용 주소 저장 이전 파일) 내용을 읽어 계산한다. 원본이 없으면 null.
+    public Relocation relocate(Path source, String knownHash) throws IOException {
+        List<Path> sources = new ArrayList<>();
+        if (Files.exists(source)) {
+            sources.add(source);
+        }
+        for (ContentEncoding encoding : encodings(source)) {
+            sources.add(encodedPath(source, encoding));
+        }
+        if (sources.isEmpty() || (knownHash == null && !Files.exists(source))) {
+            return null;
+        }
+
+        String hash = knownHash;
+        if (hash == null) {
+            try (InputStream in = Files.newInputStream(source)) {
+                hash = hash(in);
+            }
+        }
+
+        HashLock hashLock = lockUntilCompletion(hash);
+        Path target = blobPath(hash);
+        if (source.normalize().equals(target.normalize())) {
+            return new Relocation(hash, target);
+        }
+        if (!Files.exists(target) && encodings(target).isEmpty()) {
+            Files.createDirectories(target.getParent());
+            int nameLength = source.getFileName().toString().length();
+            for (Path from : sources) {
+                // 원본은 그대로, 압축본은 접미사(.zst / .gz)를 유지
+                String suffix = from.getFileName().toString().substring(nameLength);
+                Path to = target.resolveSibling(target.getFileName() + suffix);
+                linkOrCopy(from, to);
+                hashLock.deleteOnRollback.add(to);
+            }
+        }
+        // 같은 내용이 이미 새 위치에 있으면 (예전 UUID 파일과 같은 내용이 나중에 올라온 경우) 그 파일을 같이 쓴다
+        hashLock.deleteOnCommit.addAll(sources);
+        return new Relocation(hash, target);
+    }
+
+    // 이전 결과 (hash: 내용 해시, path: 새 경로)
+    public record Relocation(String hash, Path path) {
+    }
+
+    // fan-out 배치의 경로인지
+    public boolean isFanOut(Path path) {
+        String name = path.getFileName().toString();
+        return name.matches("[0-9a-f]{64}") && path.normalize().equals(blobPath(name).normalize());
+    }
+
+    // 저장된 내용의 경로 (원본 기준, fan-out 을 먼저 보고 예전 평면 배치를 본다), 없으면 null
+    public Path locate(String hash) {
+        for (Path blob : List.of(blobPath(hash), flatBlobPath(hash))) {
+            if (Files.exists(blob) || !encodings(blob).isEmpty()) {
+                return blob;
+            }
+        }
+        return null;
+    }
+
+    private void linkOrCopy(Path from, Path to) throws IOException {
+        try {
+            Files.createLink(to, from);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.deleteIfExists(to);
+            Path temp = newTempFile();
+            try {
+                Files.copy(from, temp);
+                Files.move(temp, to, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // 원본과 압축본 경로 (존재 여부와 무관)
+    private List<Path> representations(Path blob) {
+        List<Path> paths = new ArrayList<>();
+        paths.add(blob);
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            paths.add(encodedPath(blob, encoding));
+        }
+        return paths;
+    }
+
+    // 압축 저장된 인코딩 목록 (원본이 그대로 있으면 빈 목록)
+    public List<ContentEncoding> encodings(Path blob) {
+        List<ContentEncoding> encodings = new ArrayList<>();
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            if (Files.exists(encodedPath(blob, encoding))) {
+                encodings.add(encoding);
+            }
+        }
+        return encodings;
+    }
+
+    public Path encodedPath(Path blob, ContentEncoding encoding) {
+        return blob.resolveSibling(blob.getFileName() + encoding.suffix());
+    }
+
+    // 원본과 압축본 모두 삭제, 두 배치 모두 (하나라도 지웠으면 true)
+    private boolean deleteBlob(String hash) throws IOException {
+        boolean deleted = false;
+        for (Path blob : List.of(blobPath(hash), flatBlobPath(hash))) {
+            for (Path path : representations(blob)) {
+                deleted |= Files.deleteIfExists(path);
+            }
+        }
+        return deleted;
+    }
+
+    private void deleteAll(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("압축본 정리 실패: path={}", path, e);
+            }
+        }
+    }
+
+    // 스트림의 SHA-256 (hex)
+    public String hash(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            digestIn.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // 첨부파일 행이 삭제되어 커밋된 뒤 참조가 없는 파일 정리
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttachmentsReleased(AttachmentsReleasedEvent event) {
+        for (String filePath : event.getFilePaths()) {
+            Path path = Paths.get(filePath);
+            try {
+                if (isBlob(path)) {
+                    String hash = path.getFileName().toString();
+                    releaseTransaction.execute(status -> {
+                        try {
+                            collect(hash);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return null;
+                    });
+                } else {
+                    // 내용 주소 저장 이전에 UUID 이름으로 저장된 파일은 행마다 따로 있으므로 바로 삭제
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("첨부파일 정리 실패: path={}", filePath, e);
+            }
+        }
+    }
+
+    // 참조하는 행이 없으면 파일 삭제 (트랜잭션 안)
+    // 해시 행을 잠근 뒤에 세므로, 다른 인스턴스가 같은 내용을 재사용 중이면 그 업로드가 끝난 뒤 커밋된 참조까지 본다.
+    private void collect(String hash) throws IOException {
+        ReentrantLock lock = acquire(hash);
+        try {
+            fence(hash);
+            long references = postFileRepository.countByContentHash(hash);
+            if (references == 0) {
+                if (deleteBlob(hash)) {
+                    log.debug("참조 없는 첨부파일 삭제: sha256={}", hash);
+                }
+                deleteDerivatives(hash);
+                attachmentBlobRepository.remove(hash);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 한 디렉터리에 파일이 몰리지 않도록 해시 앞 두 글자씩 두 단계로 나눈다 (디렉터리당 최대 256개)
+    Path blobPath(String hash) {
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path flatBlobPath(String hash) {
+        return blobRoot.resolve(hash);
+    }
+
+    // 내용에서 만든 파생 파일 (썸네일 등) 위치: uploads/derivatives/<hash>/<name>
+    public Path derivativePath(String hash, String name) {
+        return derivativeRoot.resolve(hash).resolve(name);
+    }
+
+    // 파생 파일을 임시 파일에서 최종 위치로 옮긴다 (읽는 쪽이 쓰다 만 파일을 보지 않도록)
+    public void publishDerivative(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path newTempFile() throws IOException {
+        Files.createDirectories(tempRoot);
+        return tempRoot.resolve(UUID.randomUUID() + ".part");
+    }
+
+    private void deleteDerivatives(String hash) throws IOException {
+        Path directory = derivativeRoot.resolve(hash);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path derivative : stream) {
+                Files.deleteIfExists(derivative);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private boolean isBlob(Path path) {
+        return path.normalize().startsWith(blobRoot.normalize())
+                && path.getFileName().toString().matches("[0-9a-f]{64}");
+    }
+
+    // 트랜잭션이 끝날 때까지 해시 잠금 유지 (새 참조가 커밋되기 전에 GC 가 파일을 지우지 않도록)
+    private HashLock lockUntilCompletion(String hash) throws IOException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("첨부파일 저장은 트랜잭션 안에서 해야 합니다.");
+        }
+        return holdUntilCompletion(hash, acquire(hash));
+    }
+
+    // 이미 잡은 잠금을 트랜잭션이 끝날 때 풀도록 등록하고, 다른 인스턴스와는 해시 행으로 잠근다
+    private HashLock holdUntilCompletion(String hash, ReentrantLock lock) throws IOException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            throw new IllegalStateException("첨부파일 저장은 트랜잭션 안에서 해야 합니다.");
+        }
+        HashLock hashLock = new HashLock(hash, lock);
+        TransactionSynchronizationManager.registerSynchronization(hashLock);
+        fence(hash);
+        return hashLock;
+    }
+
+    // 해시 행을 현재 트랜잭션이 끝날 때까지 잠근다 (없으면 넣어서 잠금)
+    private void fence(String hash) throws IOException {
+        try {
+            if (attachmentBlobRepository.lock(hash).isEmpty()) {
+                attachmentBlobRepository.insert(hash);
+            }
+        } catch (DataAccessException e) {
+            // 다른 인스턴스가 제한 시간 넘게 잡고 있거나, 같은 내용의 행을 동시에 처음 넣으려 한 경우
+            throw new IOException(BUSY, e);
+        }
+    }
+
+    // 트랜잭션 종료 시 잠금 해제
+    // 이번 트랜잭션에서 새로 만든 파일은 롤백되면 참조가 남지 않으므로, 잠금을 푸는 것보다 먼저 지운다.
+    // 위치를 옮긴 경우 예전 파일은 커밋된 뒤에 지운다.
+    private class HashLock implements TransactionSynchronization {
+
+        private final String hash;
+        private final ReentrantLock lock;
+        private final List<Path> deleteOnRollback = new ArrayList<>();
+        private final List<Path> deleteOnCommit = new ArrayList<>();
+
+        HashLock(String hash, ReentrantLock lock) {
+            this.hash = hash;
+            this.lock = lock;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            try {
+                for (Path path : status == STATUS_COMMITTED ? deleteOnCommit : deleteOnRollback) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                log.warn("첨부파일 정리 실패: sha256={}, committed={}", hash, status == STATUS_COMMITTED, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // 제한 시간 안에 해시 잠금을 얻는다 (못 얻으면 업로드/정리를 실패시킨다)
+    private ReentrantLock acquire(String hash) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException(BUSY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("첨부파일 잠금 대기 중 중단되었습니다.");
+        }
+        return lock;
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Integer.parseInt(hash.substring(0, 2), 16) % LOCK_STRIPES];
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    // 이전 실행에서 남은 임시 파일 정리
+    @PostConstruct
+    public void cleanTempFiles() {
+        if (!Files.isDirectory(tempRoot)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(tempRoot, "*.part")) {
+            for (Path temp : stream) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            log.warn("업로드 임시 파일 정리 실패: {}", tempRoot, e);
+        }
+    }
+
+}
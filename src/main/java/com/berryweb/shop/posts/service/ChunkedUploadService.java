@@ -0,0 +1,402 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.entity.UploadChunk;
+import com.berryweb.shop.posts.entity.UploadSession;
+import com.berryweb.shop.posts.repository.UploadChunkRepository;
+import com.berryweb.shop.posts.repository.UploadSessionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// 분할(재개 가능) 업로드
+// 세션을 만들면 전체 크기만큼 파일을 미리 할당하고, 번호 붙은 조각을 순서와 관계없이 (동시에) 받아 위치 지정 쓰기로 채운다.
+// 파일은 조각을 쓸 때만 열고, 조각마다 선언한 SHA-256 이 맞을 때만 받은 것으로 표시한다.
+// 모든 조각이 오면 완료 요청에서 전체 SHA-256 을 확인한 뒤 복사 없이 첨부파일로 등록한다.
+// 최대 파일 크기는 따로 정하지 않으면 프로필의 업로드 제한(spring.servlet.multipart.max-file-size)을 따르고,
+// 진행 중인 세션 수는 전체 / 게시글별로 제한한다 (넘으면 TooManyUploadSessionsException -> 429).
+// 세션과 조각 상태는 DB(upload_sessions / upload_chunks)에, 조립 중인 파일은 인스턴스들이 공유하는 uploads/sessions 에 있으므로
+// 게이트웨이가 조각을 어느 인스턴스로 보내도 되고, 인스턴스가 재시작해도 이어서 올릴 수 있다.
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    private static final String SESSION_DIRECTORY = "sessions";
+
+    private final PostService postService;
+    private final PostFileService postFileService;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadChunkRepository uploadChunkRepository;
+    private final TransactionTemplate transaction;
+
+    private final Path sessionRoot;
+    private final long chunkSize;
+    private final long maxFileSize;
+    private final long sessionTtlMinutes;
+    private final long chunkLeaseSeconds;
+    private final int maxSessions;
+    private final int maxSessionsPerPost;
+
+    public ChunkedUploadService(PostService postService, PostFileService postFileService,
+                                UploadSessionRepository uploadSessionRepository, UploadChunkRepository uploadChunkRepository,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                @Value("${file.upload.directory:uploads}") String uploadDirectory,
+                                @Value("${file.chunked-upload.chunk-size:8MB}") DataSize chunkSize,
+                                @Value("${file.chunked-upload.max-file-size:${spring.servlet.multipart.max-file-size:10MB}}") DataSize maxFileSize,
+                                @Value("${file.chunked-upload.session-ttl-minutes:60}") long sessionTtlMinutes,
+                                @Value("${file.chunked-upload.chunk-lease-seconds:300}") long chunkLeaseSeconds,
+                                @Value("${file.chunked-upload.max-sessions:100}") int maxSessions,
+                                @Value("${file.chunked-upload.max-sessions-per-post:5}") int maxSessionsPerPost) {
+        this.postService = postService;
+        this.postFileService = postFileService;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadChunkRepository = uploadChunkRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sessionRoot = Paths.get(uploadDirectory, SESSION_DIRECTORY);
+        this.chunkSize = chunkSize.toBytes();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.sessionTtlMinutes = sessionTtlMinutes;
+        this.chunkLeaseSeconds = chunkLeaseSeconds;
+        this.maxSessions = maxSessions;
+        this.maxSessionsPerPost = maxSessionsPerPost;
+        Gauge.builder("posts.files.upload_sessions", uploadSessionRepository, UploadSessionRepository::count)
+                .description("진행 중인 분할 업로드 세션 수 (모든 인스턴스)")
+                .register(meterRegistry);
+    }
+
+    // 세션 생성: 세션 수 제한을 확인하고 크기만큼 파일을 미리 할당한다
+    public Map<String, Object> createSession(Long postId, String filename, String contentType, Long size,
+                                             String sha256) throws IOException {
+        postService.getPostById(postId);
+        if (filename == null || filename.isBlank()) {
+            throw new IllegalArgumentException("파일명이 없습니다.");
+        }
+        if (size == null || size <= 0) {
+            throw new IllegalArgumentException("파일 크기가 올바르지 않습니다.");
+        }
+        if (size > maxFileSize) {
+            throw new IllegalArgumentException("파일 크기가 제한(" + maxFileSize + " bytes)을 초과했습니다.");
+        }
+        String hash = sha256 != null ? sha256.trim().toLowerCase() : "";
+        if (!hash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("SHA-256 형식이 올바르지 않습니다: " + sha256);
+        }
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), postId, filename, contentType, size, hash,
+                (int) ((size + chunkSize - 1) / chunkSize), now());
+        transaction.executeWithoutResult(status -> register(session));
+
+        Path file = sessionFile(session.getId());
+        try {
+            Files.createDirectories(sessionRoot);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                // 마지막 바이트를 써서 전체 크기를 미리 잡는다 (조각을 어떤 순서로 써도 파일 크기가 바뀌지 않음)
+                channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+            }
+        } catch (IOException e) {
+            transaction.executeWithoutResult(status -> remove(session.getId()));
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        log.info("분할 업로드 시작: uploadId={}, postId={}, name={}, size={}, chunks={}",
+                session.getId(), postId, filename, size, session.getChunkCount());
+        return toMap(session, List.of());
+    }
+
+    // 전체 / 게시글별 세션 수 제한을 확인하고 등록
+    // 여러 인스턴스에서 동시에 만들면 확인과 등록 사이에 끼어든 만큼 제한을 조금 넘을 수 있다.
+    private void register(UploadSession session) {
+        if (uploadSessionRepository.count() >= maxSessions) {
+            throw new TooManyUploadSessionsException("진행 중인 분할 업로드가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        if (uploadSessionRepository.countByPostId(session.getPostId()) >= maxSessionsPerPost) {
+            throw new TooManyUploadSessionsException("이 게시글에 진행 중인 분할 업로드가 너무 많습니다 (최대 "
+                    + maxSessionsPerPost + "개).");
+        }
+        uploadSessionRepository.save(session);
+    }
+
+    // 세션 상태 (받은 조각 / 남은 조각), 없으면 null
+    public Map<String, Object> getStatus(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .map(session -> toMap(session, uploadChunkRepository.findReceivedIndexes(uploadId)))
+                .orElse(null);
+    }
+
+    private Map<String, Object> toMap(UploadSession session, List<Integer> receivedChunks) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("uploadId", session.getId());
+        result.put("postId", session.getPostId());
+        result.put("filename", session.getFilename());
+        result.put("size", session.getSize());
+        result.put("chunkSize", chunkSize);
+        result.put("chunkCount", session.getChunkCount());
+        result.put("receivedChunks", receivedChunks);
+        result.put("expiresAt", session.getLastActivity().plusMinutes(sessionTtlMinutes));
+        return result;
+    }
+
+    // 조각 쓰기 (같은 번호를 다시 보내면 덮어씀)
+    // 조각에 임대를 건 뒤 (다른 요청이 같은 번호를 쓰는 중이면 거부), 본문을 조각 위치에 바로 쓰면서 SHA-256 을 계산하고,
+    // 길이와 해시(chunkSha256)가 맞을 때만 임대를 풀면서 받은 것으로 표시한다.
+    // 임대(chunk-lease-seconds)가 지나면 쓰기를 멈추므로, 이어받은 요청이나 완료된 파일에 늦게 쓰는 일이 없다.
+    public Map<String, Object> writeChunk(String uploadId, int index, String chunkSha256, InputStream in) throws IOException {
+        String expectedHash = chunkSha256 != null ? chunkSha256.trim().toLowerCase() : "";
+        if (!expectedHash.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("조각 SHA-256(X-Chunk-SHA256) 형식이 올바르지 않습니다: " + chunkSha256);
+        }
+        ChunkLease lease = transaction.execute(status -> lease(uploadId, index));
+        UploadSession session = lease.session();
+        long position = index * chunkSize;
+        long expected = Math.min(chunkSize, session.getSize() - position);
+
+        try {
+            MessageDigest digest = newDigest();
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(sessionFile(uploadId), StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = in.read(buffer.array(), 0, (int) Math.min(buffer.capacity(), expected - written + 1))) != -1) {
+                    if (written + read > expected) {
+                        throw new IllegalArgumentException("조각 크기가 " + expected + " bytes 를 초과했습니다: " + index);
+                    }
+                    if (now().isAfter(lease.until())) {
+                        throw new IllegalArgumentException("조각을 " + chunkLeaseSeconds + "초 안에 받지 못했습니다: " + index);
+                    }
+                    digest.update(buffer.array(), 0, read);
+                    buffer.limit(read).position(0);
+                    while (buffer.hasRemaining()) {
+                        written += channel.write(buffer, position + written);
+                    }
+                    buffer.clear();
+                }
+            }
+            if (written != expected) {
+                throw new IllegalArgumentException("조각 크기가 맞지 않습니다: index=" + index
+                        + ", expected=" + expected + ", received=" + written);
+            }
+            // 해시가 다르면 받지 않은 것으로 남겨 두고 (다시 보내면 덮어씀) 거부한다
+            if (!HexFormat.of().formatHex(digest.digest()).equals(expectedHash)) {
+                throw new IllegalArgumentException("조각 내용이 선언한 SHA-256 과 다릅니다: " + index);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                transaction.execute(status -> finish(uploadId, index, lease.until(), false));
+            } catch (RuntimeException releaseFailure) {
+                // 풀지 못한 임대는 만료되면 다른 요청이 이어받는다
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+
+        Integer received = transaction.execute(status -> finish(uploadId, index, lease.until(), true));
+        if (received == null) {
+            throw new IllegalArgumentException("업로드 세션이 종료되었거나 다른 요청이 조각을 이어받았습니다: " + index);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("uploadId", uploadId);
+        result.put("index", index);
+        result.put("receivedChunks", received);
+        result.put("chunkCount", session.getChunkCount());
+        return result;
+    }
+
+    // 조각 임대 (세션을 잠근 트랜잭션에서)
+    // 다시 보내는 조각이면 다 받을 때까지는 받지 않은 것으로 본다.
+    private ChunkLease lease(String uploadId, int index) {
+        UploadSession session = requireSession(uploadId);
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new IllegalArgumentException("조각 번호가 범위를 벗어났습니다: " + index);
+        }
+        LocalDateTime now = now();
+        UploadChunk chunk = uploadChunkRepository.findById(new UploadChunk.Key(uploadId, index))
+                .orElseGet(() -> new UploadChunk(uploadId, index));
+        if (chunk.getLeaseUntil() != null && chunk.getLeaseUntil().isAfter(now)) {
+            throw new IllegalArgumentException("다른 요청이 이 조각을 받는 중입니다: " + index);
+        }
+        chunk.setReceived(false);
+        chunk.setLeaseUntil(now.plusSeconds(chunkLeaseSeconds));
+        uploadChunkRepository.save(chunk);
+        session.setLastActivity(now);
+        return new ChunkLease(session, chunk.getLeaseUntil());
+    }
+
+    // 임대를 풀고 결과 표시 (세션을 잠근 트랜잭션에서), 받은 조각 수를 돌려준다
+    // 세션이 닫혔거나 임대가 지나 다른 요청이 이어받았으면 null
+    private Integer finish(String uploadId, int index, LocalDateTime leaseUntil, boolean received) {
+        Optional<UploadSession> session = uploadSessionRepository.lock(uploadId);
+        if (session.isEmpty() || uploadChunkRepository.finish(uploadId, index, leaseUntil, received) == 0) {
+            return null;
+        }
+        session.get().setLastActivity(now());
+        return (int) uploadChunkRepository.countByUploadIdAndReceivedTrue(uploadId);
+    }
+
+    // 완료: 모든 조각이 왔는지, 조립된 파일의 SHA-256 이 선언한 값과 같은지 확인한 뒤 첨부파일로 등록
+    // 빠진 조각(쓰는 중인 조각 포함)이 있으면 세션을 유지하고, 해시가 다르거나 등록에 실패하면 세션을 닫는다 (처음부터 다시).
+    public PostFile complete(String uploadId) throws IOException {
+        UploadSession session = transaction.execute(status -> {
+            UploadSession locked = requireSession(uploadId);
+            long missing = locked.getChunkCount() - uploadChunkRepository.countByUploadIdAndReceivedTrue(uploadId);
+            if (missing > 0) {
+                throw new IllegalArgumentException("받지 못한 조각이 " + missing + "개 있습니다.");
+            }
+            remove(uploadId);
+            return locked;
+        });
+
+        Path assembled = sessionFile(uploadId);
+        try {
+            String hash = sha256(assembled);
+            if (!hash.equals(session.getSha256())) {
+                throw new IllegalArgumentException("파일 내용이 선언한 SHA-256 과 다릅니다.");
+            }
+            PostFile file = postFileService.uploadAssembledFile(session.getPostId(), session.getFilename(),
+                    session.getContentType(), assembled, hash);
+            log.info("분할 업로드 완료: uploadId={}, fileId={}, size={}", uploadId, file.getId(), session.getSize());
+            return file;
+        } finally {
+            // 같은 내용이 이미 있어 옮기지 않은 경우 등 남은 조립 파일 정리
+            Files.deleteIfExists(assembled);
+        }
+    }
+
+    // 업로드 취소
+    public void abort(String uploadId) throws IOException {
+        transaction.executeWithoutResult(status -> {
+            requireSession(uploadId);
+            remove(uploadId);
+        });
+        Files.deleteIfExists(sessionFile(uploadId));
+        log.info("분할 업로드 취소: uploadId={}", uploadId);
+    }
+
+    // 마지막 조각 요청 후 session-ttl-minutes 가 지난 세션 정리 (1분마다, 모든 인스턴스에서)
+    // 세션 행이 없는 오래된 조립 파일(세션 정리 도중 인스턴스가 멈춘 경우 등)도 지운다.
+    @Scheduled(fixedDelayString = "${file.chunked-upload.sweep-interval-ms:60000}")
+    public void expireSessions() {
+        LocalDateTime deadline = now().minusMinutes(sessionTtlMinutes);
+        for (String uploadId : uploadSessionRepository.findExpiredIds(deadline)) {
+            try {
+                // 확인 후 잠그기 전에 조각을 받았거나 다른 인스턴스가 먼저 정리했으면 건너뛴다
+                Boolean expired = transaction.execute(status -> uploadSessionRepository.lock(uploadId)
+                        .filter(session -> session.getLastActivity().isBefore(deadline))
+                        .map(session -> {
+                            remove(uploadId);
+                            return true;
+                        })
+                        .orElse(false));
+                if (Boolean.TRUE.equals(expired)) {
+                    Files.deleteIfExists(sessionFile(uploadId));
+                    log.info("분할 업로드 만료: uploadId={}", uploadId);
+                }
+            } catch (IOException | DataAccessException e) {
+                log.warn("만료된 업로드 세션 정리 실패: uploadId={}", uploadId, e);
+            }
+        }
+        deleteOrphanFiles(deadline);
+    }
+
+    private void deleteOrphanFiles(LocalDateTime deadline) {
+        if (!Files.isDirectory(sessionRoot)) {
+            return;
+        }
+        Instant modifiedBefore = deadline.atZone(ZoneId.systemDefault()).toInstant();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(sessionRoot, "*.upload")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                String uploadId = name.substring(0, name.length() - ".upload".length());
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore)
+                        && !uploadSessionRepository.existsById(uploadId)) {
+                    Files.deleteIfExists(file);
+                    log.info("세션 없는 분할 업로드 파일 삭제: {}", file);
+                }
+            }
+        } catch (IOException | DataAccessException e) {
+            log.warn("분할 업로드 임시 파일 정리 실패: {}", sessionRoot, e);
+        }
+    }
+
+    // 세션 잠금 (트랜잭션 안에서 호출)
+    private UploadSession requireSession(String uploadId) {
+        return uploadSessionRepository.lock(uploadId)
+                .orElseThrow(() -> new IllegalArgumentException("업로드 세션을 찾을 수 없습니다: " + uploadId));
+    }
+
+    // 세션을 잠근 트랜잭션에서 호출
+    private void remove(String uploadId) {
+        uploadChunkRepository.deleteByUploadId(uploadId);
+        uploadSessionRepository.deleteById(uploadId);
+    }
+
+    // uploadId 는 세션 행을 찾은 뒤에만 경로로 쓴다
+    private Path sessionFile(String uploadId) {
+        return sessionRoot.resolve(uploadId + ".upload");
+    }
+
+    // DB 에 저장했다가 그대로 비교하는 임대 시각이라 밀리초까지만 쓴다
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record ChunkLease(UploadSession session, LocalDateTime until) {
+    }
+
+    // 진행 중인 세션이 제한에 닿음 (잘못된 요청이 아니라 잠시 후 다시 시도할 요청, 429)
+    public static class TooManyUploadSessionsException extends RuntimeException {
+
+        public TooManyUploadSessionsException(String message) {
+            super(message);
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.berryweb.shop.posts.service;
 import com.berryweb.shop.posts.entity.Comment;
 import com.berryweb.shop.posts.entity.Post;
 import com.berryweb.shop.posts.repository.CommentRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,8 +12,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+// 모든 public 메서드 실행 시간 (posts.service, class/method 태그, 백분위 히스토그램)
 @Service
 @RequiredArgsConstructor
+@Timed(value = "posts.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional(readOnly = true)
 public class CommentService {
 
@@ -40,7 +43,9 @@ public class CommentService {
     public Comment createComment(Long postId, String content, String author) {
         Post post = postService.getPostById(postId);
         Comment comment = new Comment(content, author, post);
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        postService.adjustCommentCount(postId, 1);
+        return savedComment;
     }
 
     // 댓글 수정
@@ -55,7 +60,9 @@ public class CommentService {
     @Transactional
     public void deleteComment(Long id) {
         Comment comment = getCommentById(id);
+        Long postId = comment.getPost().getId();
         commentRepository.delete(comment);
+        postService.adjustCommentCount(postId, -1);
     }
 
     // 작성자별 댓글 조회
@@ -0,0 +1,98 @@
+package com.berryweb.shop.posts.service;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 압축 저장된 첨부파일의 인코딩 (HTTP Content-Encoding 값과 저장 파일 접미사)
+// 선언 순서가 선호 순서다 (zstd 가 같은 압축률에서 더 빠르게 풀린다).
+public enum ContentEncoding {
+
+    ZSTD("zstd", ".zst"),
+    GZIP("gzip", ".gz");
+
+    private final String token;
+    private final String suffix;
+
+    ContentEncoding(String token, String suffix) {
+        this.token = token;
+        this.suffix = suffix;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public String suffix() {
+        return suffix;
+    }
+
+    public OutputStream encode(OutputStream out, int zstdLevel) throws IOException {
+        return switch (this) {
+            case ZSTD -> new ZstdOutputStream(out, zstdLevel);
+            case GZIP -> new GZIPOutputStream(out, 64 * 1024);
+        };
+    }
+
+    public InputStream decode(InputStream in) throws IOException {
+        return switch (this) {
+            case ZSTD -> new ZstdInputStream(in);
+            case GZIP -> new GZIPInputStream(in, 64 * 1024);
+        };
+    }
+
+    // Accept-Encoding 으로 받을 수 있는 인코딩 중 가장 선호하는 것 (없으면 null -> 풀어서 보냄)
+    // q=0 은 거부, "*" 는 따로 적지 않은 인코딩 모두를 뜻한다.
+    public static ContentEncoding negotiate(String acceptEncoding, Collection<ContentEncoding> available) {
+        if (acceptEncoding == null || acceptEncoding.isBlank() || available.isEmpty()) {
+            return null;
+        }
+        ContentEncoding best = null;
+        double bestQuality = 0;
+        for (ContentEncoding encoding : values()) {
+            if (!available.contains(encoding)) {
+                continue;
+            }
+            double quality = quality(acceptEncoding, encoding.token);
+            if (quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String acceptEncoding, String token) {
+        double wildcard = 0;
+        for (String part : acceptEncoding.split(",")) {
+            String[] fields = part.trim().split(";");
+            String coding = fields[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < fields.length; i++) {
+                String parameter = fields[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(token)) {
+                return quality;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        return wildcard;
+    }
+
+}
@@ -0,0 +1,352 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.event.PostFileChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 이미지 첨부파일의 썸네일 / 미리보기 (JPEG) 생성
+// 업로드가 커밋되면 고정 크기 작업자 풀에서 만들어 uploads/derivatives/<hash>/ 에 저장한다.
+// 같은 내용은 한 번만 만들고, 큐가 가득 차서 못 만든 것은 처음 요청될 때 만든다.
+@Slf4j
+@Service
+public class ImageDerivativeService {
+
+    // 만들 수 없는 이미지 표시 (지원하지 않는 형식, 너무 큰 이미지, 깨진 파일), 다시 시도하지 않는다
+    // 원본이 아직 없거나 디스크 오류 등으로 실패한 것은 표시하지 않고 다음 요청 때 다시 만든다
+    private static final String UNSUPPORTED_MARKER = "unsupported";
+
+    public enum Variant {
+        THUMBNAIL("thumbnail"),
+        PREVIEW("preview");
+
+        private final String key;
+
+        Variant(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        String fileName() {
+            return key + ".jpg";
+        }
+    }
+
+    private final AttachmentStorage attachmentStorage;
+
+    private final int thumbnailSize;
+    private final int previewSize;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final long requestWaitMs;
+
+    private final ExecutorService executor;
+
+    // 생성 중인 작업 (해시 -> 완료 시점), 같은 내용을 동시에 두 번 만들지 않는다
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer generateTimer;
+    private final Counter rejectedCounter;
+
+    public ImageDerivativeService(AttachmentStorage attachmentStorage, MeterRegistry meterRegistry,
+                                  @Value("${image-derivatives.workers:2}") int workers,
+                                  @Value("${image-derivatives.queue-capacity:200}") int queueCapacity,
+                                  @Value("${image-derivatives.thumbnail-size:320}") int thumbnailSize,
+                                  @Value("${image-derivatives.preview-size:1280}") int previewSize,
+                                  @Value("${image-derivatives.jpeg-quality:0.85}") float jpegQuality,
+                                  @Value("${image-derivatives.max-pixels:40000000}") long maxPixels,
+                                  @Value("${image-derivatives.request-wait-ms:2000}") long requestWaitMs) {
+        this.attachmentStorage = attachmentStorage;
+        this.thumbnailSize = thumbnailSize;
+        this.previewSize = previewSize;
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        this.requestWaitMs = requestWaitMs;
+
+        // CPU 작업이므로 플랫폼 스레드 고정 개수 + 크기 제한 큐 (가득 차면 거절하고 요청 시 생성)
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "image-derivatives");
+
+        this.generateTimer = Timer.builder("posts.images.derivatives.generate")
+                .description("이미지 하나의 썸네일 / 미리보기 생성 시간")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("posts.images.derivatives.rejected")
+                .description("작업 큐가 가득 차 업로드 직후 만들지 못한 이미지 수 (요청 시 생성)")
+                .register(meterRegistry);
+    }
+
+    // 이미지 업로드가 커밋되면 백그라운드 생성 예약
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostFileChanged(PostFileChangedEvent event) {
+        PostFile file = event.getFile();
+        if (file == null || !file.isImage() || file.getContentHash() == null) {
+            return;
+        }
+        if (Files.exists(derivativePath(file.getContentHash(), Variant.THUMBNAIL))) {
+            return; // 같은 내용이 이미 올라와 있던 경우
+        }
+        schedule(file.getContentHash(), sourceOf(file));
+    }
+
+    // 파생 이미지 경로 반환
+    // 아직 없으면 생성을 예약하고 request-wait-ms 까지 기다린다. 그래도 없으면 null (호출자가 잠시 후 다시 요청)
+    // 이미지가 아니거나 만들 수 없는 이미지면 IllegalArgumentException
+    public Path getDerivative(PostFile file, Variant variant) {
+        if (!file.isImage() || file.getContentHash() == null) {
+            throw new IllegalArgumentException("썸네일을 만들 수 없는 파일입니다: " + file.getStoredName());
+        }
+        String hash = file.getContentHash();
+        Path path = derivativePath(hash, variant);
+        if (Files.exists(path)) {
+            return path;
+        }
+        if (isUnsupported(hash)) {
+            throw new IllegalArgumentException("썸네일을 만들 수 없는 이미지입니다: " + file.getStoredName());
+        }
+
+        try {
+            schedule(hash, sourceOf(file)).get(requestWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        if (Files.exists(path)) {
+            return path;
+        }
+        throw new IllegalArgumentException("썸네일을 만들 수 없는 이미지입니다: " + file.getStoredName());
+    }
+
+    // 원본 위치 (저장 위치 이전 중에도 해시로 찾는다)
+    private Path sourceOf(PostFile file) {
+        Path located = attachmentStorage.locate(file.getContentHash());
+        return located != null ? located : Paths.get(file.getFilePath());
+    }
+
+    private Path derivativePath(String hash, Variant variant) {
+        return attachmentStorage.derivativePath(hash, variant.fileName());
+    }
+
+    private boolean isUnsupported(String hash) {
+        return Files.exists(attachmentStorage.derivativePath(hash, UNSUPPORTED_MARKER));
+    }
+
+    // 생성 예약 (이미 진행 중이면 그 작업을 반환, 큐가 가득 차면 실패한 future)
+    private CompletableFuture<Void> schedule(String hash, Path source) {
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(hash, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            executor.execute(() -> {
+                Throwable failure = null;
+                try {
+                    generateTimer.recordCallable(() -> {
+                        generate(hash, source);
+                        return null;
+                    });
+                } catch (Throwable e) {
+                    log.warn("썸네일 생성 실패, 다음 요청 때 다시 시도: sha256={}, reason={}", hash, e.toString());
+                    failure = e;
+                }
+                // 완료를 알리기 전에 빼 둔다 (실패를 받은 요청이 바로 다시 시도하면 끝난 작업이 아니라 새 작업을 예약하도록)
+                inFlight.remove(hash, created);
+                // 기다리는 요청이 멈추지 않도록 어떤 실패든 완료시킨다
+                if (failure == null) {
+                    created.complete(null);
+                } else {
+                    created.completeExceptionally(failure);
+                    if (failure instanceof Error error) {
+                        throw error;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            inFlight.remove(hash, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    // 원본을 한 번 읽어 모든 크기를 만든다
+    // 만들 수 없는 이미지는 표시만 하고 끝내고, 그 밖의 실패는 예외로 알린다 (표시하지 않으므로 다시 시도된다)
+    private void generate(String hash, Path source) throws IOException {
+        BufferedImage image = decode(hash, source);
+        if (image == null) {
+            return;
+        }
+        BufferedImage preview = resize(image, previewSize);
+        write(hash, Variant.PREVIEW, preview);
+        write(hash, Variant.THUMBNAIL, resize(preview, thumbnailSize));
+    }
+
+    // 원본 디코딩, 형식이나 내용 때문에 읽을 수 없으면 표시하고 null
+    private BufferedImage decode(String hash, Path source) throws IOException {
+        if (!Files.exists(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                throw new IOException("원본을 열 수 없습니다: " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                markUnsupported(hash, "지원하지 않는 형식");
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    markUnsupported(hash, "이미지가 너무 큼 " + width + "x" + height);
+                    return null;
+                }
+
+                // 가장 큰 결과물보다 두 배 이상 크면 읽을 때부터 건너뛰며 읽어 디코딩 메모리 / 시간을 줄인다
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (previewSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                log.debug("이미지 디코딩: sha256={}, source={}x{}, subsampling={}", hash, width, height, subsampling);
+                return image;
+            } catch (IIOException e) {
+                // 읽기 중 입출력 오류는 다시 시도, 그 밖에는 깨진 파일
+                if (e.getCause() instanceof IOException && !(e.getCause() instanceof IIOException)) {
+                    throw e;
+                }
+                log.warn("썸네일을 만들 수 없는 이미지: sha256={}, reason={}", hash, e.getMessage());
+                markUnsupported(hash, e.getMessage());
+                return null;
+            } catch (RuntimeException e) {
+                // 디코더가 처리하지 못하는 내용 (잘못된 헤더 값 등)
+                log.warn("썸네일을 만들 수 없는 이미지: sha256={}, reason={}", hash, e.toString());
+                markUnsupported(hash, e.toString());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변이 maxSize 가 되도록 축소 (확대하지 않음), 알파 채널은 흰 배경으로 합친다
+    // 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 여러 번 줄인다
+    private BufferedImage resize(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private void write(String hash, Variant variant, BufferedImage image) throws IOException {
+        Path temp = attachmentStorage.newTempFile();
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            attachmentStorage.publishDerivative(temp, derivativePath(hash, variant));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void markUnsupported(String hash, String reason) {
+        try {
+            Path marker = attachmentStorage.derivativePath(hash, UNSUPPORTED_MARKER);
+            Files.createDirectories(marker.getParent());
+            Files.writeString(marker, reason != null ? reason : "");
+        } catch (IOException e) {
+            log.warn("썸네일 실패 표시 저장 실패: sha256={}", hash, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledFuture;
+
+// 공지사항 만료 스케줄러
+// 활성 공지의 만료 시각을 시간순 큐에 두고, 가장 이른 만료 시각에 타이머 하나만 걸어 그 시각이 된 공지만 비활성화한다.
+// 시작할 때 DB 에서 큐를 채우고, 이후에는 PostChangedEvent 로 추가/변경/삭제한다.
+// PostService.deactivateExpiredNotices 의 주기적 일괄 UPDATE 는 놓친 경우(다른 인스턴스의 수정 등)를 위한 안전망으로 남긴다.
+@Slf4j
+@Component
+public class NoticeExpiryScheduler {
+
+    // 비활성화에 실패하면 이만큼 뒤에 다시 시도
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final PostRepository postRepository;
+    private final PostService postService;
+    private final TaskScheduler taskScheduler;
+
+    // (만료 시각, ID) 순 큐와 ID -> 만료 시각 (변경 시 기존 항목을 찾기 위해)
+    private final TreeSet<Deadline> queue = new TreeSet<>();
+    private final Map<Long, LocalDateTime> deadlines = new HashMap<>();
+
+    // 현재 걸린 타이머와 그 시각
+    private ScheduledFuture<?> timer;
+    private LocalDateTime timerAt;
+
+    private final Timer lag;
+
+    public NoticeExpiryScheduler(PostRepository postRepository, PostService postService,
+                                 TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.postService = postService;
+        this.taskScheduler = taskScheduler;
+        this.lag = Timer.builder("posts.notices.expiry.lag")
+                .description("만료 시각부터 실제 비활성화까지 걸린 시간")
+                .register(meterRegistry);
+        Gauge.builder("posts.notices.expiry.scheduled", this, NoticeExpiryScheduler::size)
+                .description("만료 대기 중인 활성 공지사항 수")
+                .register(meterRegistry);
+    }
+
+    private record Deadline(LocalDateTime at, Long postId) implements Comparable<Deadline> {
+
+        @Override
+        public int compareTo(Deadline other) {
+            int compared = at.compareTo(other.at);
+            return compared != 0 ? compared : postId.compareTo(other.postId);
+        }
+    }
+
+    // 시작 시 만료 예정 공지 적재 (이미 지난 것은 바로 처리)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Object[]> rows = postRepository.findScheduledExpiries();
+        synchronized (this) {
+            for (Object[] row : rows) {
+                put((Long) row[0], (LocalDateTime) row[1]);
+            }
+            rearm();
+        }
+        log.info("공지사항 만료 스케줄 적재: scheduled={}", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                Post post = event.getPost();
+                if (post.isNotice() && post.isActive() && post.getExpiryDate() != null) {
+                    schedule(post.getId(), post.getExpiryDate());
+                } else {
+                    cancel(post.getId());
+                }
+            }
+            case DELETED -> cancel(event.getPostId());
+            default -> {
+                // 일괄 비활성화된 공지는 만료 시각에 UPDATE 가 0 건이 되어 큐에서 빠진다
+            }
+        }
+    }
+
+    public synchronized void schedule(Long postId, LocalDateTime expiryDate) {
+        put(postId, expiryDate);
+        rearm();
+    }
+
+    public synchronized void cancel(Long postId) {
+        LocalDateTime previous = deadlines.remove(postId);
+        if (previous != null) {
+            queue.remove(new Deadline(previous, postId));
+            rearm();
+        }
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    // 만료 시각이 된 공지 비활성화 (타이머 스레드)
+    private void fire() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Deadline> due = new ArrayList<>();
+        synchronized (this) {
+            timer = null;
+            timerAt = null;
+            while (!queue.isEmpty() && !queue.first().at().isAfter(now)) {
+                Deadline deadline = queue.pollFirst();
+                deadlines.remove(deadline.postId());
+                due.add(deadline);
+            }
+        }
+
+        if (!due.isEmpty()) {
+            try {
+                postService.deactivateNotices(due.stream().map(Deadline::postId).toList());
+                for (Deadline deadline : due) {
+                    lag.record(Duration.between(deadline.at(), LocalDateTime.now()));
+                }
+            } catch (RuntimeException e) {
+                log.warn("공지사항 만료 처리 실패, {}초 후 재시도: ids={}", RETRY_DELAY.toSeconds(),
+                        due.stream().map(Deadline::postId).toList(), e);
+                synchronized (this) {
+                    LocalDateTime retryAt = LocalDateTime.now().plus(RETRY_DELAY);
+                    for (Deadline deadline : due) {
+                        // 그 사이 새 만료 시각이 들어왔으면 그쪽을 따른다
+                        if (!deadlines.containsKey(deadline.postId())) {
+                            put(deadline.postId(), retryAt);
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized (this) {
+            rearm();
+        }
+    }
+
+    // ---- 아래는 this 를 잠근 상태에서만 호출 ----
+
+    private void put(Long postId, LocalDateTime expiryDate) {
+        LocalDateTime previous = deadlines.put(postId, expiryDate);
+        if (previous != null) {
+            queue.remove(new Deadline(previous, postId));
+        }
+        queue.add(new Deadline(expiryDate, postId));
+    }
+
+    // 큐의 첫 만료 시각에 타이머가 걸려 있게 한다
+    private void rearm() {
+        LocalDateTime next = queue.isEmpty() ? null : queue.first().at();
+        if (next != null && next.equals(timerAt)) {
+            return;
+        }
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+            timerAt = null;
+        }
+        if (next != null) {
+            timer = taskScheduler.schedule(this::fire, next.atZone(ZoneId.systemDefault()).toInstant());
+            timerAt = next;
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.NotificationOutbox;
+import com.berryweb.shop.posts.notification.Notification;
+import com.berryweb.shop.posts.notification.NotificationSink;
+import com.berryweb.shop.posts.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 알림 발송기 (notification_outbox -> NotificationSink)
+// poll-interval-ms 마다 발송할 행을 batch-size 개씩 잠가 임대(lease)를 걸고 커밋한 뒤, 트랜잭션 밖에서 발송하고 성공한 행을 지운다.
+// 여러 인스턴스가 같이 돌아도 SKIP LOCKED + 임대로 같은 행을 동시에 가져가지 않는다. 발송은 at-least-once.
+// 발송 후 삭제 / 재시도 예약은 임대 시각이 그대로인 행만 바꿔서, 임대가 끝나 다른 인스턴스가 다시 가져간 행을 건드리지 않는다.
+// 실패하면 지수 백오프로 다시 시도하고 max-attempts 를 넘기면 FAILED 로 남긴다.
+// 발송 대상이 실패하면 그 회차는 바로 멈추고 (back-pressure), rate-per-second 로 초당 발송 수를 제한한다.
+// rate-per-second 는 인스턴스마다 따로 적용되므로, 전체 한도는 (인스턴스 수 x rate-per-second) 이다.
+@Slf4j
+@Component
+public class NotificationDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationSink sink;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double ratePerSecond;
+
+    // 다음 묶음을 보낼 수 있는 시각 (rate-per-second 토큰 버킷, 이 인스턴스 기준)
+    private long nextSendNanos = System.nanoTime();
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Timer deliveryLatency;
+    private final Timer sendTime;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter abandoned;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepository, NotificationSink sink,
+                                  TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                  @Value("${notification.dispatch.batch-size:100}") int batchSize,
+                                  @Value("${notification.dispatch.max-batches-per-run:10}") int maxBatchesPerRun,
+                                  @Value("${notification.dispatch.max-attempts:8}") int maxAttempts,
+                                  @Value("${notification.dispatch.lease-seconds:60}") long leaseSeconds,
+                                  @Value("${notification.dispatch.initial-backoff-seconds:5}") long initialBackoffSeconds,
+                                  @Value("${notification.dispatch.max-backoff-seconds:600}") long maxBackoffSeconds,
+                                  @Value("${notification.dispatch.rate-per-second:50}") double ratePerSecond) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.ratePerSecond = ratePerSecond;
+
+        Gauge.builder("posts.notifications.outbox.pending", pending, AtomicLong::get)
+                .description("발송 대기 중인 알림 수 (직전 발송 회차 기준)")
+                .register(meterRegistry);
+        Gauge.builder("posts.notifications.outbox.failed", failed, AtomicLong::get)
+                .description("재시도를 포기한 알림 수")
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("posts.notifications.delivery.latency")
+                .description("공지사항 커밋부터 발송 완료까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sendTime = Timer.builder("posts.notifications.sink.send")
+                .description("발송 대상 호출 시간 (묶음 단위)")
+                .register(meterRegistry);
+        this.delivered = Counter.builder("posts.notifications.delivered")
+                .description("발송한 알림 수")
+                .register(meterRegistry);
+        this.retried = Counter.builder("posts.notifications.retried")
+                .description("발송 실패로 다시 시도하도록 미룬 알림 수")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("posts.notifications.abandoned")
+                .description("max-attempts 를 넘겨 FAILED 로 남긴 알림 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Claim batch = claim();
+                if (batch.rows().isEmpty() || !deliver(batch)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("알림 발송 회차 실패", e);
+        } finally {
+            pending.set(outboxRepository.countByStatus(NotificationOutbox.STATUS_PENDING));
+            failed.set(outboxRepository.countByStatus(NotificationOutbox.STATUS_FAILED));
+        }
+    }
+
+    // 가져간 묶음 (leaseUntil: 건 임대 시각, 이후 쓰기의 조건으로 쓴다)
+    private record Claim(List<NotificationOutbox> rows, LocalDateTime leaseUntil) {
+
+        List<Long> ids() {
+            return rows.stream().map(NotificationOutbox::getId).toList();
+        }
+    }
+
+    // 발송할 행을 잠가 임대를 걸고 바로 커밋 (발송하는 동안 DB 잠금/커넥션을 잡지 않도록)
+    private Claim claim() {
+        // DB 에 저장되는 정밀도(마이크로초)로 맞춰야 나중에 같은 값으로 비교할 수 있다
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease).truncatedTo(ChronoUnit.MICROS);
+        List<NotificationOutbox> rows = transactionTemplate.execute(status -> {
+            List<NotificationOutbox> due = outboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                outboxRepository.lease(due.stream().map(NotificationOutbox::getId).toList(), leaseUntil);
+            }
+            return due;
+        });
+        return new Claim(rows != null ? rows : List.of(), leaseUntil);
+    }
+
+    // 한 묶음 발송, 성공하면 true
+    private boolean deliver(Claim claim) throws InterruptedException {
+        List<NotificationOutbox> batch = claim.rows();
+        throttle(batch.size());
+
+        List<Notification> notifications = batch.stream()
+                .map(row -> new Notification(row.getId(), row.getType(), row.getPostId(), row.getTitle(), row.getCreatedAt()))
+                .toList();
+        long startedAt = System.nanoTime();
+        try {
+            sink.send(notifications);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            sendTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            reschedule(claim, e);
+            return false;
+        }
+        sendTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteLeased(claim.ids(), claim.leaseUntil()));
+        if (deleted != null && deleted < batch.size()) {
+            // 임대가 끝난 뒤에 발송이 끝나 다른 발송기가 다시 가져간 행 (그쪽에서 한 번 더 발송될 수 있음)
+            log.warn("임대가 끝난 알림 {}건은 삭제하지 않았습니다 (lease-seconds 확인)", batch.size() - deleted);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox row : batch) {
+            if (row.getCreatedAt() != null) {
+                deliveryLatency.record(Duration.between(row.getCreatedAt(), now));
+            }
+        }
+        delivered.increment(batch.size());
+        log.debug("알림 {}건 발송", batch.size());
+        return true;
+    }
+
+    // 실패한 묶음: 지수 백오프로 미루거나, 시도 횟수를 넘기면 FAILED
+    // 행 전체를 저장하지 않고 시도 횟수별로 묶어 필요한 컬럼만 임대 조건과 함께 갱신한다.
+    private void reschedule(Claim claim, Exception cause) {
+        LocalDateTime now = LocalDateTime.now();
+        String message = String.valueOf(cause.getMessage());
+        String error = message.length() > 500 ? message.substring(0, 500) : message;
+
+        // 임대를 걸 때 DB 에서 1 증가했으므로 읽은 값 + 1 이 현재 시도 횟수
+        Map<Integer, List<Long>> idsByAttempts = new TreeMap<>();
+        for (NotificationOutbox row : claim.rows()) {
+            idsByAttempts.computeIfAbsent(row.getAttempts() + 1, attempts -> new ArrayList<>()).add(row.getId());
+        }
+
+        int[] counts = new int[2]; // [다시 시도, 포기]
+        transactionTemplate.executeWithoutResult(status -> idsByAttempts.forEach((attempts, ids) -> {
+            if (attempts >= maxAttempts) {
+                counts[1] += outboxRepository.markFailed(ids, claim.leaseUntil(), error);
+            } else {
+                counts[0] += outboxRepository.retryLater(ids, claim.leaseUntil(), now.plus(backoff(attempts)), error);
+            }
+        }));
+
+        retried.increment(counts[0]);
+        abandoned.increment(counts[1]);
+        log.warn("알림 발송 실패: count={}, abandoned={}, reason={}", claim.rows().size(), counts[1], error);
+    }
+
+    // initial-backoff * 2^(attempts-1), 최대 max-backoff
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    // 초당 rate-per-second 건을 넘지 않도록 기다린다 (인스턴스별)
+    private void throttle(int permits) throws InterruptedException {
+        long now = System.nanoTime();
+        long waitNanos = nextSendNanos - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        nextSendNanos = Math.max(now, nextSendNanos) + (long) (permits * 1_000_000_000L / ratePerSecond);
+    }
+
+}
@@ -2,51 +2,82 @@ package com.berryweb.shop.posts.service;
 
 import com.berryweb.shop.posts.entity.PostFile;
 import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.AttachmentsReleasedEvent;
+import com.berryweb.shop.posts.event.PostFileChangedEvent;
 import com.berryweb.shop.posts.repository.PostFileRepository;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.UUID;
 
+// 모든 public 메서드 실행 시간 (posts.service, class/method 태그, 백분위 히스토그램)
+@Slf4j
 @Service
-@RequiredArgsConstructor
+@Timed(value = "posts.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional(readOnly = true)
 public class PostFileService {
 
     private final PostFileRepository postFileRepository;
     private final PostService postService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttachmentStorage attachmentStorage;
+
+    private final Counter uploadedBytes;
+    private final Counter deduplicatedBytes;
 
     @Value("${file.upload.directory:uploads}")
     private String uploadDirectory;
 
+    // 스트리밍 업로드는 multipart 제한을 거치지 않으므로 같은 한도를 직접 적용
+    @Value("${spring.servlet.multipart.max-file-size:10MB}")
+    private DataSize maxFileSize;
+
+    public PostFileService(PostFileRepository postFileRepository, PostService postService,
+                           ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                           AttachmentStorage attachmentStorage) {
+        this.postFileRepository = postFileRepository;
+        this.postService = postService;
+        this.eventPublisher = eventPublisher;
+        this.attachmentStorage = attachmentStorage;
+        this.uploadedBytes = Counter.builder("posts.files.uploaded.bytes")
+                .description("업로드되어 저장된 첨부파일 바이트 수")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.deduplicatedBytes = Counter.builder("posts.files.deduplicated.bytes")
+                .description("같은 내용이 이미 있어 새로 쓰지 않은 첨부파일 바이트 수")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
     // 특정 게시글의 파일들 조회 (트랜잭션 내에서 실행)
     @Transactional(readOnly = true)
     public List<PostFile> getFilesByPostId(Long postId) {
-        System.out.println("=== 파일 조회 시작 ===");
-        System.out.println("게시글 ID: " + postId);
-
         List<PostFile> files = postFileRepository.findByPostIdOrderByCreatedAtAsc(postId);
 
-        System.out.println("조회된 파일 개수: " + files.size());
-
         // 각 파일의 postId를 명시적으로 설정 (LAZY 로딩 이슈 방지)
         files.forEach(file -> {
             if (file.getPostId() == null && file.getPost() != null) {
                 file.setPostId(file.getPost().getId());
             }
-            System.out.println("파일: " + file.getOriginalName() + " (크기: " + file.getFormattedFileSize() + ")");
         });
 
-        System.out.println("=== 파일 조회 완료 ===");
+        log.debug("파일 조회: postId={}, count={}", postId, files.size());
         return files;
     }
 
@@ -78,80 +109,205 @@ public class PostFileService {
         return file;
     }
 
-    // 파일 업로드
+    // 파일 업로드 (multipart)
+    // multipart 파트는 이미 메모리/임시 파일에 있으므로 해시를 먼저 계산해, 같은 내용이 있으면 다시 쓰지 않는다.
     @Transactional
     public PostFile uploadFile(Long postId, MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("업로드할 파일이 없습니다.");
         }
 
-        System.out.println("=== 파일 업로드 시작 ===");
-        System.out.println("게시글 ID: " + postId);
-        System.out.println("파일명: " + file.getOriginalFilename());
-        System.out.println("파일 크기: " + file.getSize());
-        System.out.println("Content Type: " + file.getContentType());
+        log.debug("파일 업로드 시작: postId={}, name={}, size={}, contentType={}",
+                postId, file.getOriginalFilename(), file.getSize(), file.getContentType());
+
+        String hash;
+        try (InputStream in = file.getInputStream()) {
+            hash = attachmentStorage.hash(in);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return storeFile(postId, file.getOriginalFilename(), file.getContentType(), hash, in);
+        }
+    }
+
+    // 파일 업로드 (요청 본문 스트리밍)
+    // multipart 임시 파일을 거치지 않고 요청 본문을 최종 위치에 한 번에 기록한다.
+    @Transactional
+    public PostFile uploadFileStream(Long postId, String originalName, String contentType, InputStream in) throws IOException {
+        return uploadFileStream(postId, originalName, contentType, null, in);
+    }
+
+    // 파일 업로드 (요청 본문 스트리밍, 클라이언트가 SHA-256 을 미리 알려준 경우)
+    // 같은 내용이 이미 저장되어 있으면 본문을 읽지 않고 참조만 추가한다. 없으면 받은 본문이 선언한 해시와 같은지 확인한다.
+    @Transactional
+    public PostFile uploadFileStream(Long postId, String originalName, String contentType, String declaredHash,
+                                     InputStream in) throws IOException {
+        if (originalName == null || originalName.isBlank()) {
+            throw new IllegalArgumentException("파일명이 없습니다.");
+        }
+        String hash = null;
+        if (declaredHash != null && !declaredHash.isBlank()) {
+            hash = declaredHash.trim().toLowerCase();
+            if (!hash.matches("[0-9a-f]{64}")) {
+                throw new IllegalArgumentException("SHA-256 형식이 올바르지 않습니다: " + declaredHash);
+            }
+        }
+
+        log.debug("파일 스트리밍 업로드 시작: postId={}, name={}, declaredSha256={}", postId, originalName, hash);
+
+        return storeFile(postId, originalName, contentType, hash, new LimitedInputStream(in, maxFileSize.toBytes()));
+    }
 
+    // 분할 업로드로 조립하고 해시를 확인한 파일 등록 (ChunkedUploadService)
+    // 조립 파일은 복사 없이 blobs 로 옮겨지고, 같은 내용이 이미 있으면 그대로 남는다 (호출자가 지움).
+    @Transactional
+    public PostFile uploadAssembledFile(Long postId, String originalName, String contentType, Path assembled,
+                                        String hash) throws IOException {
         Post post = postService.getPostById(postId);
+        return registerFile(post, originalName, contentType, attachmentStorage.adopt(assembled, hash, contentType));
+    }
 
-        // 저장할 파일명 생성 (UUID + 원본 확장자)
-        String originalName = file.getOriginalFilename();
-        String extension = getFileExtension(originalName);
-        String storedName = UUID.randomUUID().toString() + extension;
+    // 파일 저장 + DB 등록
+    // 내용은 SHA-256 으로 한 번만 저장하고 (AttachmentStorage), 행마다 고유한 저장 파일명(UUID)은 다운로드 URL 용으로 둔다.
+    private PostFile storeFile(Long postId, String originalName, String contentType, String knownHash,
+                               InputStream in) throws IOException {
+        Post post = postService.getPostById(postId);
 
-        // 업로드 디렉토리 생성
-        Path uploadPath = Paths.get(uploadDirectory);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        // 같은 내용이 있으면 재사용, 없으면 저장
+        AttachmentStorage.StoredBlob stored = knownHash != null ? attachmentStorage.reuse(knownHash) : null;
+        if (stored == null) {
+            stored = attachmentStorage.store(in, knownHash, contentType);
         }
+        return registerFile(post, originalName, contentType, stored);
+    }
 
-        // 파일 저장
-        Path filePath = uploadPath.resolve(storedName);
-        Files.copy(file.getInputStream(), filePath);
+    private PostFile registerFile(Post post, String originalName, String contentType,
+                                  AttachmentStorage.StoredBlob stored) {
+        Long postId = post.getId();
+
+        // 저장할 파일명 생성 (UUID + 원본 확장자)
+        String extension = getFileExtension(originalName);
+        String storedName = UUID.randomUUID().toString() + extension;
 
         // 파일 정보 DB 저장
         PostFile fileEntity = new PostFile(
                 originalName,
                 storedName,
-                filePath.toString(),
-                file.getSize(),
-                file.getContentType(),
+                stored.path().toString(),
+                stored.size(),
+                contentType,
+                stored.hash(),
                 post
         );
 
         PostFile savedFile = postFileRepository.save(fileEntity);
-        System.out.println("파일 업로드 완료: " + savedFile.getOriginalName());
-        System.out.println("=== 파일 업로드 완료 ===");
+        postService.adjustFileCount(postId, 1);
+        if (savedFile.isImage()) {
+            // 게시글의 첫 이미지를 목록 썸네일로 사용
+            postService.assignThumbnailIfAbsent(postId, storedName);
+        }
+        if (stored.deduplicated()) {
+            deduplicatedBytes.increment(stored.size());
+        } else {
+            uploadedBytes.increment(stored.size());
+        }
+        // 커밋 후 썸네일 / 미리보기 생성 (ImageDerivativeService)
+        eventPublisher.publishEvent(new PostFileChangedEvent(postId, savedFile.getFileSize(), savedFile));
+        log.info("파일 업로드 완료: postId={}, fileId={}, name={}, size={}, sha256={}, deduplicated={}",
+                postId, savedFile.getId(), savedFile.getOriginalName(), stored.size(), stored.hash(),
+                stored.deduplicated());
 
         return savedFile;
     }
 
+    // 최대 크기를 넘으면 읽기를 중단하는 스트림
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                checkLimit(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                checkLimit(n);
+            }
+            return n;
+        }
+
+        private void checkLimit(long n) {
+            count += n;
+            if (count > limit) {
+                throw new IllegalArgumentException("파일 크기가 제한(" + limit + " bytes)을 초과했습니다.");
+            }
+        }
+    }
+
     // 파일 삭제
+    // 실제 파일은 커밋 후 다른 행이 같은 내용을 참조하지 않을 때만 지운다 (AttachmentStorage)
     @Transactional
     public void deleteFile(Long id) throws IOException {
         PostFile fileEntity = getFileById(id);
-
-        // 실제 파일 삭제
-        Path filePath = Paths.get(fileEntity.getFilePath());
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
-            System.out.println("물리적 파일 삭제 완료: " + fileEntity.getOriginalName());
-        }
+        // 엔티티를 읽은 뒤 저장 위치가 옮겨졌을 수 있으므로 (UploadLayoutMigrator) 지울 경로는 행을 잠그고 다시 읽는다
+        String filePath = postFileRepository.findFilePathByIdForUpdate(id).orElse(fileEntity.getFilePath());
 
         // DB에서 파일 정보 삭제
         postFileRepository.delete(fileEntity);
-        System.out.println("DB에서 파일 정보 삭제 완료");
+        postService.adjustFileCount(fileEntity.getPostId(), -1);
+        if (fileEntity.isImage()) {
+            // 대표 이미지였다면 남은 이미지 중 첫 번째로 교체
+            String next = postFileRepository
+                    .findFirstByPostIdAndContentTypeStartingWithOrderByIdAsc(fileEntity.getPostId(), "image/")
+                    .map(PostFile::getStoredName)
+                    .orElse(null);
+            postService.replaceThumbnail(fileEntity.getPostId(), fileEntity.getStoredName(), next);
+        }
+        eventPublisher.publishEvent(new PostFileChangedEvent(fileEntity.getPostId(), -fileEntity.getFileSize()));
+        eventPublisher.publishEvent(new AttachmentsReleasedEvent(List.of(filePath)));
+        log.info("파일 삭제 완료: postId={}, fileId={}, sha256={}",
+                fileEntity.getPostId(), fileEntity.getId(), fileEntity.getContentHash());
     }
 
-    // 파일 다운로드용 바이트 배열 반환
-    public byte[] downloadFile(String storedName) throws IOException {
-        PostFile postFile = getFileByStoredName(storedName);
+    // 파일 다운로드용 실제 경로 반환 (내용은 컨트롤러에서 스트리밍)
+    // 압축 저장된 파일이면 원본 경로는 없고 getStoredEncodings 의 압축본만 있다.
+    public Path getDownloadPath(PostFile postFile) {
         Path filePath = Paths.get(postFile.getFilePath());
 
-        if (!Files.exists(filePath)) {
-            throw new IllegalArgumentException("파일이 존재하지 않습니다: " + storedName);
+        if (!isStored(filePath)) {
+            // 행을 읽은 뒤 저장 위치가 옮겨졌으면 (UploadLayoutMigrator) 새 경로로 다시 조회
+            filePath = postFileRepository.findFilePathById(postFile.getId())
+                    .map(Paths::get)
+                    .filter(this::isStored)
+                    .orElseThrow(() -> new IllegalArgumentException("파일이 존재하지 않습니다: " + postFile.getStoredName()));
         }
 
-        return Files.readAllBytes(filePath);
+        return filePath;
+    }
+
+    private boolean isStored(Path filePath) {
+        return Files.exists(filePath) || !attachmentStorage.encodings(filePath).isEmpty();
+    }
+
+    // 압축 저장된 인코딩 목록 (원본 그대로면 빈 목록)
+    public List<ContentEncoding> getStoredEncodings(Path filePath) {
+        return Files.exists(filePath) ? List.of() : attachmentStorage.encodings(filePath);
+    }
+
+    public Path getEncodedPath(Path filePath, ContentEncoding encoding) {
+        return attachmentStorage.encodedPath(filePath, encoding);
     }
 
     // 특정 게시글의 파일 개수
@@ -187,44 +343,35 @@ public class PostFileService {
         if (fileName == null || !fileName.contains(".")) {
             return "";
         }
-        return fileName.substring(fileName.lastIndexOf("."));
+        String extension = fileName.substring(fileName.lastIndexOf("."));
+        // 파일명은 클라이언트가 보낸 값이므로 경로 문자 등이 섞인 확장자는 버린다
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension : "";
     }
 
     // 파일 크기를 읽기 쉬운 형태로 변환
     public String formatFileSize(Long fileSize) {
-        if (fileSize == null || fileSize == 0) return "0 B";
-
-        String[] units = {"B", "KB", "MB", "GB"};
-        int unitIndex = 0;
-        double size = fileSize.doubleValue();
-
-        while (size >= 1024 && unitIndex < units.length - 1) {
-            size /= 1024;
-            unitIndex++;
-        }
-
-        return String.format("%.1f %s", size, units[unitIndex]);
+        return PostFile.formatFileSize(fileSize);
     }
 
     @PostConstruct
     public void initializeUploadDirectory() {
         try {
             Path uploadPath = Paths.get(uploadDirectory);
-            System.out.println("업로드 경로: " + uploadPath.toAbsolutePath());
+            log.info("업로드 경로: {}", uploadPath.toAbsolutePath());
 
             if (!Files.exists(uploadPath)) {
                 Files.createDirectories(uploadPath);
-                System.out.println("업로드 폴더 생성 완료!");
+                log.info("업로드 폴더 생성 완료");
             }
 
             // 쓰기 권한 테스트
             Path testFile = uploadPath.resolve("test.tmp");
             Files.write(testFile, "test".getBytes());
             Files.delete(testFile);
-            System.out.println("업로드 폴더 쓰기 권한 확인 완료!");
+            log.debug("업로드 폴더 쓰기 권한 확인 완료");
 
         } catch (IOException e) {
-            System.err.println("업로드 폴더 설정 실패: " + e.getMessage());
+            log.error("업로드 폴더 설정 실패: {}", uploadDirectory, e);
         }
     }
 
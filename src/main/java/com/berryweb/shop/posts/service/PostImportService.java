@@ -0,0 +1,237 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.dto.PostImportReq;
+import com.berryweb.shop.posts.entity.Comment;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 게시글/댓글 일괄 가져오기 (NDJSON)
+// chunk-size 건마다 트랜잭션을 나눠 커밋하고, 트랜잭션 안에서는 batch-size 행마다 flush 해서 JDBC 배치로 INSERT 한다.
+// 앞선 chunk 는 커밋되므로 중간에 실패하면 그 chunk 부터 다시 보내면 된다.
+@Slf4j
+@Service
+public class PostImportService {
+
+    private static final String UPDATE_POST_CREATED_AT = "UPDATE posts SET created_at = ?, updated_at = ? WHERE id = ?";
+    private static final String UPDATE_COMMENT_CREATED_AT = "UPDATE comments SET created_at = ?, updated_at = ? WHERE id = ?";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+    private final int chunkSize;
+
+    public PostImportService(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                             JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${bulk-import.batch-size:50}") int batchSize,
+                             @Value("${bulk-import.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    // 가져오기 결과
+    public record ImportResult(long posts, long comments, int chunks, long elapsedMs) {
+
+        public double rowsPerSecond() {
+            return elapsedMs > 0 ? (posts + comments) * 1000.0 / elapsedMs : posts + comments;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("posts", posts);
+            result.put("comments", comments);
+            result.put("chunks", chunks);
+            result.put("elapsedMs", elapsedMs);
+            result.put("rowsPerSecond", Math.round(rowsPerSecond()));
+            return result;
+        }
+    }
+
+    // 중간에 읽기/검증이 실패한 경우: 앞선 chunk 는 이미 커밋되어 있다
+    // 한 줄이 게시글 하나이므로 committed.posts() + 1 번째 줄부터 다시 보내면 된다
+    @Getter
+    public static class ImportFailedException extends IllegalArgumentException {
+
+        private final long line;
+        private final ImportResult committed;
+
+        public ImportFailedException(String message, long line, ImportResult committed) {
+            super(message);
+            this.line = line;
+            this.committed = committed;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("error", getMessage());
+            result.put("line", line);
+            result.put("resumeFromLine", committed.posts() + 1);
+            result.put("committed", committed.toMap());
+            return result;
+        }
+    }
+
+    // 한 줄에 게시글 하나씩 읽어 chunk 단위로 저장
+    public ImportResult importNdjson(InputStream in) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        long posts = 0;
+        long comments = 0;
+        int chunks = 0;
+        long line = 0;
+
+        try (MappingIterator<PostImportReq> iterator = objectMapper.readerFor(PostImportReq.class).readValues(in)) {
+            List<PostImportReq> chunk = new ArrayList<>(chunkSize);
+            while (true) {
+                PostImportReq item;
+                try {
+                    item = next(iterator, line + 1);
+                    if (item != null) {
+                        validate(item, line + 1);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 아직 커밋하지 않은 chunk 는 버려지므로, 커밋된 만큼과 실패한 줄을 함께 알려준다
+                    ImportResult committed = new ImportResult(posts, comments, chunks, System.currentTimeMillis() - startedAt);
+                    log.warn("일괄 가져오기 실패: line={}, committedPosts={}, committedComments={}, committedChunks={}, reason={}",
+                            line + 1, posts, comments, chunks, e.getMessage());
+                    throw new ImportFailedException(e.getMessage(), line + 1, committed);
+                }
+                if (item != null) {
+                    line++;
+                    chunk.add(item);
+                }
+                if (chunk.size() == chunkSize || (item == null && !chunk.isEmpty())) {
+                    comments += saveChunk(chunk);
+                    posts += chunk.size();
+                    chunks++;
+                    chunk.clear();
+                }
+                if (item == null) {
+                    break;
+                }
+            }
+        }
+
+        ImportResult result = new ImportResult(posts, comments, chunks, System.currentTimeMillis() - startedAt);
+        log.info("일괄 가져오기 완료: posts={}, comments={}, chunks={}, elapsedMs={}, rowsPerSecond={}",
+                posts, comments, chunks, result.elapsedMs(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private PostImportReq next(MappingIterator<PostImportReq> iterator, long line) throws IOException {
+        try {
+            return iterator.hasNextValue() ? iterator.nextValue() : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(line + "번째 줄을 읽을 수 없습니다: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validate(PostImportReq item, long line) {
+        if (isBlank(item.getTitle()) || isBlank(item.getContent()) || isBlank(item.getAuthor())) {
+            throw new IllegalArgumentException(line + "번째 줄: title, content, author 는 필수입니다.");
+        }
+        if (item.getComments() != null) {
+            for (PostImportReq.CommentItem comment : item.getComments()) {
+                if (isBlank(comment.getContent()) || isBlank(comment.getAuthor())) {
+                    throw new IllegalArgumentException(line + "번째 줄: 댓글의 content, author 는 필수입니다.");
+                }
+            }
+        }
+    }
+
+    // chunk 하나를 한 트랜잭션으로 저장, 저장한 댓글 수 반환
+    private long saveChunk(List<PostImportReq> chunk) {
+        Long savedComments = transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            session.setJdbcBatchSize(batchSize);
+            // 가져온 행으로 2차 캐시를 채우지 않는다 (작성 시각을 JDBC 로 되돌리므로 캐시 사본이 달라짐)
+            session.setCacheMode(CacheMode.IGNORE);
+
+            List<Object[]> postTimestamps = new ArrayList<>();
+            List<Object[]> commentTimestamps = new ArrayList<>();
+            long commentCount = 0;
+            int pendingRows = 0;
+
+            for (PostImportReq item : chunk) {
+                List<PostImportReq.CommentItem> items = item.getComments() != null ? item.getComments() : List.of();
+
+                Post post = new Post(item.getTitle(), item.getContent(), item.getAuthor(), item.getIsNotice(),
+                        item.getIsPinned(), item.getIsActive(), item.getExpiryDate(), false);
+                post.setViewCount(item.getViewCount() != null ? item.getViewCount() : 0L);
+                post.setCommentCount(items.size());
+                entityManager.persist(post);
+                if (item.getCreatedAt() != null) {
+                    Timestamp createdAt = Timestamp.valueOf(item.getCreatedAt());
+                    postTimestamps.add(new Object[]{createdAt, createdAt, post.getId()});
+                }
+
+                for (PostImportReq.CommentItem commentItem : items) {
+                    Comment comment = new Comment(commentItem.getContent(), commentItem.getAuthor(), post);
+                    entityManager.persist(comment);
+                    if (commentItem.getCreatedAt() != null) {
+                        Timestamp createdAt = Timestamp.valueOf(commentItem.getCreatedAt());
+                        commentTimestamps.add(new Object[]{createdAt, createdAt, comment.getId()});
+                    }
+                }
+                commentCount += items.size();
+
+                // 이벤트 리스너(검색 색인 등)는 커밋 후 실행된다
+                eventPublisher.publishEvent(PostChangedEvent.created(post));
+
+                // 영속성 컨텍스트가 커지지 않도록 배치 단위로 비운다
+                pendingRows += 1 + items.size();
+                if (pendingRows >= batchSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pendingRows = 0;
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            // @CreationTimestamp 가 INSERT 시각으로 덮어쓰므로 원본 작성 시각은 배치 UPDATE 로 되돌린다
+            if (!postTimestamps.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_POST_CREATED_AT, postTimestamps);
+            }
+            if (!commentTimestamps.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_COMMENT_CREATED_AT, commentTimestamps);
+            }
+            return commentCount;
+        });
+        return savedComments != null ? savedComments : 0L;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+}
@@ -1,36 +1,175 @@
 package com.berryweb.shop.posts.service;
 
+import com.berryweb.shop.posts.dto.CursorPage;
+import com.berryweb.shop.posts.dto.PostCursor;
+import com.berryweb.shop.posts.dto.PostSummary;
+import com.berryweb.shop.posts.entity.NotificationOutbox;
 import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.event.AttachmentsReleasedEvent;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.NotificationOutboxRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
 import com.berryweb.shop.posts.repository.PostRepository;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import com.berryweb.shop.posts.search.SearchField;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// 모든 public 메서드 실행 시간 (posts.service, class/method 태그, 백분위 히스토그램)
+@Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "posts.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional(readOnly = true)
 public class PostService {
 
     private final PostRepository postRepository;
+    private final PostFileRepository postFileRepository;
+    private final ViewCountAccumulator viewCountAccumulator;
+    private final PostSearchIndex postSearchIndex;
+    private final ActiveNoticeCache activeNoticeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationOutboxRepository notificationOutboxRepository;
 
     // ============ 기존 메서드들 (일반 게시글) ============
 
     // 일반 게시글만 조회 (공지사항 제외)
-    public Page<Post> getAllPosts(Pageable pageable) {
+    public Page<PostSummary> getAllPosts(Pageable pageable) {
         return postRepository.findByIsNoticeFalseOrderByCreatedAtDesc(pageable);
     }
 
     // 전체 게시글 조회 (공지사항 + 일반 게시글, 공지사항 우선)
-    public Page<Post> getAllPostsWithNotices(Pageable pageable) {
+    public Page<PostSummary> getAllPostsWithNotices(Pageable pageable) {
         return postRepository.findActivePostsOrderByNoticeAndPinned(pageable);
     }
 
+    // ============ 키셋(커서) 페이지네이션 ============
+
+    // 목록 정렬 구간: (isNotice, isPinned) 값이 같은 묶음. isPinned 가 null 이면 중요 여부 무관
+    private record KeysetSegment(boolean notice, Boolean pinned, boolean activeOnly) {
+
+        boolean contains(PostCursor cursor) {
+            return notice == cursor.isNotice() && (pinned == null || pinned == cursor.isPinned());
+        }
+    }
+
+    // 일반 게시글 (최신순)
+    private static final List<KeysetSegment> REGULAR_POST_SEGMENTS = List.of(
+            new KeysetSegment(false, null, false));
+
+    // 전체 게시글 (활성 공지 -> 일반 게시글, 각각 중요 우선)
+    private static final List<KeysetSegment> ACTIVE_POST_SEGMENTS = List.of(
+            new KeysetSegment(true, true, true),
+            new KeysetSegment(true, false, true),
+            new KeysetSegment(false, true, false),
+            new KeysetSegment(false, false, false));
+
+    // 전체 공지사항 (중요 우선)
+    private static final List<KeysetSegment> NOTICE_SEGMENTS = List.of(
+            new KeysetSegment(true, true, false),
+            new KeysetSegment(true, false, false));
+
+    // 일반 게시글 목록 (커서)
+    public CursorPage<PostSummary> getAllPostsByCursor(String cursor, boolean backward, int size) {
+        return findByCursor(REGULAR_POST_SEGMENTS, cursor, backward, size);
+    }
+
+    // 전체 게시글 목록 (공지사항 우선, 커서)
+    public CursorPage<PostSummary> getAllPostsWithNoticesByCursor(String cursor, boolean backward, int size) {
+        return findByCursor(ACTIVE_POST_SEGMENTS, cursor, backward, size);
+    }
+
+    // 전체 공지사항 목록 (커서)
+    public CursorPage<PostSummary> getAllNoticesByCursor(String cursor, boolean backward, int size) {
+        return findByCursor(NOTICE_SEGMENTS, cursor, backward, size);
+    }
+
+    // 구간별로 seek 쿼리를 이어 붙여 한 페이지를 채운다 (OFFSET / COUNT 없음)
+    private CursorPage<PostSummary> findByCursor(List<KeysetSegment> segments, String cursor, boolean backward, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 는 1 이상이어야 합니다.");
+        }
+
+        PostCursor from = cursor != null && !cursor.isBlank() ? PostCursor.decode(cursor) : null;
+        if (from == null && backward) {
+            throw new IllegalArgumentException("이전 페이지를 조회하려면 커서가 필요합니다.");
+        }
+
+        int startSegment = 0;
+        if (from != null) {
+            startSegment = -1;
+            for (int i = 0; i < segments.size(); i++) {
+                if (segments.get(i).contains(from)) {
+                    startSegment = i;
+                    break;
+                }
+            }
+            if (startSegment < 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 읽는다
+        List<PostSummary> rows = new ArrayList<>();
+        if (!backward) {
+            for (int i = startSegment; i < segments.size() && rows.size() <= size; i++) {
+                KeysetSegment segment = segments.get(i);
+                Limit limit = Limit.of(size + 1 - rows.size());
+                rows.addAll(from != null && i == startSegment
+                        ? postRepository.findKeysetAfter(segment.notice(), segment.pinned(), segment.activeOnly(),
+                                from.getCreatedAt(), from.getId(), limit)
+                        : postRepository.findKeysetHead(segment.notice(), segment.pinned(), segment.activeOnly(), limit));
+            }
+        } else {
+            for (int i = startSegment; i >= 0 && rows.size() <= size; i--) {
+                KeysetSegment segment = segments.get(i);
+                Limit limit = Limit.of(size + 1 - rows.size());
+                rows.addAll(i == startSegment
+                        ? postRepository.findKeysetBefore(segment.notice(), segment.pinned(), segment.activeOnly(),
+                                from.getCreatedAt(), from.getId(), limit)
+                        : postRepository.findKeysetTail(segment.notice(), segment.pinned(), segment.activeOnly(), limit));
+            }
+        }
+
+        boolean hasMore = rows.size() > size;
+        List<PostSummary> content = new ArrayList<>(rows.subList(0, Math.min(size, rows.size())));
+        if (backward) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new CursorPage<>(content, null, null);
+        }
+
+        String first = PostCursor.of(content.get(0)).encode();
+        String last = PostCursor.of(content.get(content.size() - 1)).encode();
+        String nextCursor = backward || hasMore ? last : null;
+        String prevCursor = backward ? (hasMore ? first : null) : (from != null ? first : null);
+        return new CursorPage<>(content, nextCursor, prevCursor);
+    }
+
     // 게시글 상세 조회
     public Post getPostById(Long id) {
         return postRepository.findById(id)
@@ -38,19 +177,62 @@ public class PostService {
     }
 
     // 게시글 상세 조회 (조회수 증가)
-    @Transactional
+    // 조회수는 ViewCountAccumulator 에 누적했다가 일괄 반영하므로 UPDATE 가 발생하지 않는다.
+    // 읽기 전용 트랜잭션이라 응답용으로 보정한 viewCount 는 DB 로 flush 되지 않는다.
+    // 게시글은 2차 캐시에서 올 수 있으므로 조회수는 DB 에서 따로 읽는다.
     public Post getPostByIdWithViewCount(Long id) {
         Post post = getPostById(id);
-        postRepository.incrementViewCount(id);
-        post.incrementViewCount(); // 엔티티도 업데이트
+        viewCountAccumulator.increment(id);
+        long viewCount = postRepository.findViewCountById(id).orElse(0L);
+        post.setViewCount(viewCount + viewCountAccumulator.getPendingCount(id));
+        return post;
+    }
+
+    // 게시글 상세 조회 (게시글 + 첨부파일 + 댓글, 조회수 증가)
+    // 컬렉션 두 개를 한 번에 fetch join 할 수 없으므로 쿼리 2개로 나눠 같은 영속성 컨텍스트에 로딩한다.
+    // 반환된 게시글의 getFiles() / getComments() 는 초기화된 상태라 추가 쿼리가 발생하지 않는다.
+    // 쿼리 결과는 2차 캐시가 아니라 조회한 행으로 채워지므로 조회수도 현재 DB 값이다.
+    public Post getPostDetailWithViewCount(Long id) {
+        postRepository.findWithFilesById(id)
+                .orElseThrow(() -> new IllegalArgumentException("게시글을 찾을 수 없습니다. ID: " + id));
+        Post post = postRepository.findWithCommentsById(id)
+                .orElseThrow(() -> new IllegalArgumentException("게시글을 찾을 수 없습니다. ID: " + id));
+
+        viewCountAccumulator.increment(id);
+        post.setViewCount(post.getViewCount() + viewCountAccumulator.getPendingCount(id));
         return post;
     }
 
+    // 상세 응답 버전 (ETag 용, 게시글이 없으면 null)
+    // 본문에 영향을 주는 값(게시글 수정 시각, 상태, 만료 여부, 댓글/파일 변경)만으로 만든다. 조회수는 포함하지 않는다.
+    public String getDetailVersion(Long id) {
+        List<Object[]> rows = postRepository.findDetailVersion(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        LocalDateTime expiryDate = (LocalDateTime) row[2];
+        boolean expired = expiryDate != null && LocalDateTime.now().isAfter(expiryDate);
+
+        StringBuilder version = new StringBuilder().append(id);
+        for (Object value : row) {
+            version.append('|').append(value);
+        }
+        return version.append('|').append(expired).toString();
+    }
+
+    // 조회수만 증가 (상세 조회가 304 로 끝난 경우)
+    public void recordView(Long id) {
+        viewCountAccumulator.increment(id);
+    }
+
     // 일반 게시글 생성
     @Transactional
     public Post createPost(String title, String content, String author) {
         Post post = new Post(title, content, author);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.created(savedPost));
+        return savedPost;
     }
 
     // 게시글 수정 (기존)
@@ -59,30 +241,71 @@ public class PostService {
         Post post = getPostById(id);
         post.setTitle(title);
         post.setContent(content);
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.updated(savedPost));
+        return savedPost;
     }
 
     // 게시글 삭제
     @Transactional
     public void deletePost(Long id) {
         Post post = getPostById(id);
+        // 첨부파일은 cascade 로 함께 삭제되므로 어차피 로딩되는 목록에서 크기를 합산
+        long removedFileSize = post.getFiles().stream().mapToLong(PostFile::getFileSize).sum();
+        // 로딩한 행의 경로는 그 사이 옮겨졌을 수 있으므로 (UploadLayoutMigrator) 행을 잠그고 다시 읽는다
+        List<String> removedFilePaths = postFileRepository.findFilePathsByPostIdForUpdate(id);
         postRepository.delete(post);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id, removedFileSize));
+        if (!removedFilePaths.isEmpty()) {
+            // 실제 파일은 커밋 후 참조가 없을 때만 삭제
+            eventPublisher.publishEvent(new AttachmentsReleasedEvent(removedFilePaths));
+        }
     }
 
     // 제목으로 검색 (일반 게시글)
-    public Page<Post> searchByTitle(String title, Pageable pageable) {
-        return postRepository.findByTitleContainingIgnoreCase(title, pageable);
+    public Page<PostSummary> searchByTitle(String title, Pageable pageable) {
+        return searchIndexed(title, EnumSet.of(SearchField.TITLE), null, pageable,
+                () -> postRepository.findByTitleContainingIgnoreCase(title, pageable));
     }
 
     // 작성자로 검색 (일반 게시글)
-    public Page<Post> searchByAuthor(String author, Pageable pageable) {
-        return postRepository.findByAuthorContainingIgnoreCase(author, pageable);
+    public Page<PostSummary> searchByAuthor(String author, Pageable pageable) {
+        return searchIndexed(author, EnumSet.of(SearchField.AUTHOR), null, pageable,
+                () -> postRepository.findByAuthorContainingIgnoreCase(author, pageable));
     }
 
     // 제목 또는 내용으로 검색 (일반 게시글)
-    public Page<Post> searchByTitleOrContent(String keyword, Pageable pageable) {
-        return postRepository.findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
-                keyword, keyword, pageable);
+    public Page<PostSummary> searchByTitleOrContent(String keyword, Pageable pageable) {
+        return searchIndexed(keyword, EnumSet.of(SearchField.TITLE, SearchField.CONTENT), null, pageable,
+                () -> postRepository.findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
+                        keyword, keyword, pageable));
+    }
+
+    // 필드를 지정한 검색 (notice: null 전체, true 공지사항만, false 일반 게시글만)
+    public Page<PostSummary> search(String keyword, Set<SearchField> fields, Boolean notice, Pageable pageable) {
+        Set<SearchField> targetFields = fields == null || fields.isEmpty() ? EnumSet.allOf(SearchField.class) : fields;
+        return searchIndexed(keyword, targetFields, notice, pageable,
+                () -> Boolean.TRUE.equals(notice)
+                        ? searchNoticesByKeywordFromDb(keyword, pageable)
+                        : postRepository.findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
+                                keyword, keyword, pageable));
+    }
+
+    // 색인 검색 (점수순), 색인이 준비되지 않았거나 한 글자 검색어면 DB 검색으로 대체
+    private Page<PostSummary> searchIndexed(String keyword, Set<SearchField> fields, Boolean notice, Pageable pageable,
+                                     Supplier<Page<PostSummary>> fallback) {
+        if (!postSearchIndex.canSearch(keyword)) {
+            return fallback.get();
+        }
+
+        PostSearchIndex.SearchHits hits = postSearchIndex.search(keyword, fields, notice, pageable);
+        Map<Long, PostSummary> postsById = postRepository.findSummariesByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        List<PostSummary> posts = hits.ids().stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(posts, pageable, hits.total());
     }
 
     // ============ 공지사항 관련 메서드들 ============
@@ -93,10 +316,11 @@ public class PostService {
                              Boolean isActive, LocalDateTime expiryDate, Boolean sendNotification) {
         Post notice = new Post(title, content, author, true, isPinned, isActive, expiryDate, sendNotification);
         Post savedNotice = postRepository.save(notice);
+        eventPublisher.publishEvent(PostChangedEvent.created(savedNotice));
 
-        // 알림 발송 로직 (추후 구현)
+        // 알림은 같은 트랜잭션에서 outbox 에 기록만 하고, 발송은 커밋 후 NotificationDispatcher 가 한다
         if (Boolean.TRUE.equals(sendNotification) && Boolean.TRUE.equals(isActive)) {
-            sendNotificationToUsers(savedNotice);
+            notificationOutboxRepository.save(NotificationOutbox.noticeCreated(savedNotice));
         }
 
         return savedNotice;
@@ -119,7 +343,9 @@ public class PostService {
         if (expiryDate != null) notice.setExpiryDate(expiryDate);
         if (sendNotification != null) notice.setSendNotification(sendNotification);
 
-        return postRepository.save(notice);
+        Post savedNotice = postRepository.save(notice);
+        eventPublisher.publishEvent(PostChangedEvent.updated(savedNotice));
+        return savedNotice;
     }
 
     // 통합 게시글 수정 (일반/공지사항 모두 지원)
@@ -136,7 +362,9 @@ public class PostService {
         if (expiryDate != null) post.setExpiryDate(expiryDate);
         if (sendNotification != null) post.setSendNotification(sendNotification);
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.updated(savedPost));
+        return savedPost;
     }
 
     // 공지사항 상태 토글
@@ -149,84 +377,106 @@ public class PostService {
         }
 
         notice.setIsActive(!notice.getIsActive());
-        return postRepository.save(notice);
+        Post savedNotice = postRepository.save(notice);
+        eventPublisher.publishEvent(PostChangedEvent.updated(savedNotice));
+        return savedNotice;
     }
 
     // 활성 공지사항 조회 (페이징)
-    public Page<Post> getActiveNotices(Pageable pageable) {
+    public Page<PostSummary> getActiveNotices(Pageable pageable) {
         return postRepository.findByIsNoticeTrueAndIsActiveTrueOrderByIsPinnedDescCreatedAtDesc(pageable);
     }
 
-    // 활성 공지사항 조회 (List) - 메인 페이지용
-    public List<Post> getActiveNoticesList() {
-        return postRepository.findByIsNoticeTrueAndIsActiveTrueOrderByIsPinnedDescCreatedAtDesc();
+    // 활성 공지사항 조회 (List) - 메인 페이지용, 캐시에서 반환
+    public List<PostSummary> getActiveNoticesList() {
+        return activeNoticeCache.getActiveNotices();
     }
 
     // 전체 공지사항 조회 (관리자용)
-    public Page<Post> getAllNotices(Pageable pageable) {
+    public Page<PostSummary> getAllNotices(Pageable pageable) {
         return postRepository.findByIsNoticeTrueOrderByIsPinnedDescCreatedAtDesc(pageable);
     }
 
-    // 중요 공지사항만 조회
-    public List<Post> getPinnedNotices() {
-        return postRepository.findByIsNoticeTrueAndIsPinnedTrueAndIsActiveTrueOrderByCreatedAtDesc();
+    // 중요 공지사항만 조회 (캐시)
+    public List<PostSummary> getPinnedNotices() {
+        return activeNoticeCache.getPinnedNotices();
     }
 
-    // 일반 공지사항만 조회 (중요공지 제외)
-    public List<Post> getRegularNotices() {
-        return postRepository.findByIsNoticeTrueAndIsPinnedFalseAndIsActiveTrueOrderByCreatedAtDesc();
+    // 일반 공지사항만 조회 (중요공지 제외, 캐시)
+    public List<PostSummary> getRegularNotices() {
+        return activeNoticeCache.getRegularNotices();
     }
 
     // 공지사항 검색 메서드들
-    public Page<Post> searchNoticesByTitle(String title, Pageable pageable) {
-        return postRepository.findByIsNoticeTrueAndTitleContainingIgnoreCase(title, pageable);
+    public Page<PostSummary> searchNoticesByTitle(String title, Pageable pageable) {
+        return searchIndexed(title, EnumSet.of(SearchField.TITLE), true, pageable,
+                () -> postRepository.findByIsNoticeTrueAndTitleContainingIgnoreCase(title, pageable));
+    }
+
+    public Page<PostSummary> searchNoticesByAuthor(String author, Pageable pageable) {
+        return searchIndexed(author, EnumSet.of(SearchField.AUTHOR), true, pageable,
+                () -> postRepository.findByIsNoticeTrueAndAuthorContainingIgnoreCase(author, pageable));
     }
 
-    public Page<Post> searchNoticesByAuthor(String author, Pageable pageable) {
-        return postRepository.findByIsNoticeTrueAndAuthorContainingIgnoreCase(author, pageable);
+    public Page<PostSummary> searchNoticesByContent(String content, Pageable pageable) {
+        return searchIndexed(content, EnumSet.of(SearchField.CONTENT), true, pageable,
+                () -> postRepository.findByIsNoticeTrueAndContentContainingIgnoreCase(content, pageable));
     }
 
-    public Page<Post> searchNoticesByContent(String content, Pageable pageable) {
-        return postRepository.findByIsNoticeTrueAndContentContainingIgnoreCase(content, pageable);
+    public Page<PostSummary> searchNoticesByKeyword(String keyword, Pageable pageable) {
+        return searchIndexed(keyword, EnumSet.of(SearchField.TITLE, SearchField.CONTENT), true, pageable,
+                () -> searchNoticesByKeywordFromDb(keyword, pageable));
     }
 
-    public Page<Post> searchNoticesByKeyword(String keyword, Pageable pageable) {
+    private Page<PostSummary> searchNoticesByKeywordFromDb(String keyword, Pageable pageable) {
         return postRepository.findByIsNoticeTrueAndTitleContainingIgnoreCaseOrContentContainingIgnoreCase(
                 keyword, keyword, pageable);
     }
 
     // 공지사항 상태별 조회
-    public Page<Post> getNoticesByStatus(Boolean isActive, Pageable pageable) {
+    public Page<PostSummary> getNoticesByStatus(Boolean isActive, Pageable pageable) {
         return postRepository.findByIsNoticeTrueAndIsActiveOrderByIsPinnedDescCreatedAtDesc(isActive, pageable);
     }
 
     // 공지사항 중요도별 조회
-    public Page<Post> getNoticesByPinned(Boolean isPinned, Pageable pageable) {
+    public Page<PostSummary> getNoticesByPinned(Boolean isPinned, Pageable pageable) {
         return postRepository.findByIsNoticeTrueAndIsPinnedOrderByCreatedAtDesc(isPinned, pageable);
     }
 
     // 만료 임박 공지사항 조회
-    public List<Post> getNoticesExpiringSoon() {
+    public List<PostSummary> getNoticesExpiringSoon() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime threeDaysLater = now.plusDays(3);
         return postRepository.findNoticesExpiringSoon(now, threeDaysLater);
     }
 
-    // 만료된 공지사항 자동 비활성화 (스케줄러)
-    @Scheduled(fixedRate = 3600000) // 1시간마다 실행
+    // 만료 시각이 된 공지사항 비활성화 (NoticeExpiryScheduler 가 만료 시각에 호출)
+    @Transactional
+    public int deactivateNotices(Collection<Long> ids) {
+        int deactivatedCount = postRepository.deactivateExpiredNotices(ids, LocalDateTime.now());
+        if (deactivatedCount > 0) {
+            eventPublisher.publishEvent(PostChangedEvent.bulkUpdated());
+            log.info("만료된 공지사항 {}개를 비활성화했습니다: ids={}", deactivatedCount, ids);
+        }
+        return deactivatedCount;
+    }
+
+    // 만료된 공지사항 일괄 비활성화 (안전망, 평소에는 NoticeExpiryScheduler 가 만료 시각에 처리)
+    @Scheduled(fixedRateString = "${notice-expiry.sweep-interval-ms:3600000}") // 기본 1시간마다 실행
     @Transactional
     public void deactivateExpiredNotices() {
         LocalDateTime now = LocalDateTime.now();
         int deactivatedCount = postRepository.deactivateExpiredNotices(now);
         if (deactivatedCount > 0) {
-            System.out.println("만료된 공지사항 " + deactivatedCount + "개를 비활성화했습니다.");
+            eventPublisher.publishEvent(PostChangedEvent.bulkUpdated());
+            log.info("만료된 공지사항 {}개를 비활성화했습니다.", deactivatedCount);
         }
     }
 
     // ============ 기존 메서드들 ============
 
     // 파일이 첨부된 게시글 조회
-    public Page<Post> getPostsWithFiles(Pageable pageable) {
+    public Page<PostSummary> getPostsWithFiles(Pageable pageable) {
         return postRepository.findPostsWithFiles(pageable);
     }
 
@@ -235,6 +485,55 @@ public class PostService {
         return postRepository.findPostsWithComments();
     }
 
+    // 댓글 개수 증감 (CommentService 에서 호출, 호출자 트랜잭션에 참여)
+    @Transactional
+    public void adjustCommentCount(Long postId, int delta) {
+        postRepository.adjustCommentCount(postId, delta);
+    }
+
+    // 첨부파일 개수 증감 (PostFileService 에서 호출, 호출자 트랜잭션에 참여)
+    @Transactional
+    public void adjustFileCount(Long postId, int delta) {
+        postRepository.adjustFileCount(postId, delta);
+    }
+
+    // 대표 이미지 지정 / 교체 (PostFileService 에서 호출, 호출자 트랜잭션에 참여)
+    @Transactional
+    public void assignThumbnailIfAbsent(Long postId, String storedName) {
+        postRepository.assignThumbnailIfAbsent(postId, storedName);
+    }
+
+    @Transactional
+    public void replaceThumbnail(Long postId, String current, String next) {
+        postRepository.replaceThumbnail(postId, current, next);
+    }
+
+    // 댓글/첨부파일 개수 보정 + 본문 요약 / 대표 이미지 채우기 (스케줄러, 기본 매일 04:30)
+    @Scheduled(cron = "${post-counts.reconcile-cron:0 30 4 * * *}")
+    @Transactional
+    public void reconcileCounts() {
+        int fixedCount = postRepository.reconcileCounts();
+        if (fixedCount > 0) {
+            log.info("댓글/파일 개수가 어긋난 게시글 {}개를 보정했습니다.", fixedCount);
+        }
+
+        // excerpt 컬럼 추가 이전에 작성된 게시글의 본문 요약 채우기
+        int backfilledCount = postRepository.backfillExcerpts();
+        if (backfilledCount > 0) {
+            log.info("본문 요약이 없는 게시글 {}개를 채웠습니다.", backfilledCount);
+        }
+
+        int thumbnailCount = postRepository.backfillThumbnails();
+        if (thumbnailCount > 0) {
+            log.info("대표 이미지가 없는 게시글 {}개를 채웠습니다.", thumbnailCount);
+        }
+
+        // 목록에 보이는 값이 바뀌었으면 알림 (공지 캐시 등)
+        if (fixedCount + backfilledCount + thumbnailCount > 0) {
+            eventPublisher.publishEvent(PostChangedEvent.bulkUpdated());
+        }
+    }
+
     // 작성자별 게시글 개수
     public long getPostCountByAuthor(String author) {
         return postRepository.countByAuthor(author);
@@ -272,11 +571,4 @@ public class PostService {
         return postRepository.countExpiredNotices(LocalDateTime.now());
     }
 
-    // 알림 발송 (추후 구현)
-    private void sendNotificationToUsers(Post notice) {
-        // 실제 알림 발송 로직 구현
-        // 예: 이메일, 푸시 알림, SMS 등
-        System.out.println("새 공지사항 알림 발송: " + notice.getTitle());
-    }
-
 }
\ No newline at end of file
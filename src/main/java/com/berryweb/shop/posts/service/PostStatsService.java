@@ -0,0 +1,282 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.dto.PostStats;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.event.PostFileChangedEvent;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import com.berryweb.shop.posts.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 게시판 통계 (메모리 카운터)
+// 쓰기 이벤트로 카운터를 갱신하고, 주기적으로 DB 와 맞춘다 (이벤트와 겹쳐도 잃지 않도록 차이만 반영). 통계 API 는 스냅샷만 읽는다.
+@Service
+@RequiredArgsConstructor
+public class PostStatsService {
+
+    private static final int EXPIRING_SOON_DAYS = 3;
+
+    private final PostRepository postRepository;
+    private final PostFileRepository postFileRepository;
+
+    // 재계산은 한 번에 하나씩 (주기 재계산과 일괄 변경 후 공지사항 다시 읽기)
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    // 이벤트 반영은 read lock 으로 동시에, 재계산의 기준점 기록과 결과 반영은 write lock 으로 이벤트 사이에서 한다
+    private final ReentrantReadWriteLock counterLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong regularPosts = new AtomicLong();
+    private final AtomicLong totalFileSize = new AtomicLong();
+
+    // 공지사항 ID -> 상태 (공지사항은 수가 적어 전부 메모리에 둔다)
+    private final Map<Long, NoticeState> notices = new ConcurrentHashMap<>();
+
+    // 재계산 기준점 이후 이벤트로 바뀐 공지사항 ID, 재계산 중이 아니면 null (counterLock 으로 보호)
+    private Set<Long> touchedNotices;
+
+    // 카운터가 바뀔 때마다 증가 (스냅샷 유효성 확인용)
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile boolean loaded = false;
+    private volatile CachedStats cached;
+
+    private record NoticeState(boolean active, boolean pinned, LocalDateTime expiryDate) {
+
+        static NoticeState of(Post post) {
+            return new NoticeState(post.isActive(), post.isPinned(), post.getExpiryDate());
+        }
+    }
+
+    // 스냅샷 + 만든 시점의 버전 + 만료/만료임박 개수가 바뀌는 다음 시각
+    private record CachedStats(PostStats stats, long version, LocalDateTime validUntil) {
+    }
+
+    // 현재 통계 스냅샷
+    public PostStats getSnapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        CachedStats current = cached;
+        if (current != null && current.version() == version.get()
+                && (current.validUntil() == null || now.isBefore(current.validUntil()))) {
+            return current.stats();
+        }
+
+        CachedStats rebuilt = buildSnapshot(now);
+        cached = rebuilt;
+        return rebuilt.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.BULK_UPDATED) {
+            reload(false);
+            return;
+        }
+
+        counterLock.readLock().lock();
+        try {
+            switch (event.getType()) {
+                case CREATED -> {
+                    Post post = event.getPost();
+                    if (post.isNotice()) {
+                        touchNotice(post.getId());
+                        notices.put(post.getId(), NoticeState.of(post));
+                    } else {
+                        regularPosts.incrementAndGet();
+                    }
+                }
+                case UPDATED -> {
+                    Post post = event.getPost();
+                    touchNotice(post.getId());
+                    boolean wasNotice = notices.containsKey(post.getId());
+                    if (post.isNotice()) {
+                        notices.put(post.getId(), NoticeState.of(post));
+                        if (!wasNotice) {
+                            regularPosts.decrementAndGet();
+                        }
+                    } else if (wasNotice) {
+                        notices.remove(post.getId());
+                        regularPosts.incrementAndGet();
+                    }
+                }
+                case DELETED -> {
+                    touchNotice(event.getPostId());
+                    if (notices.remove(event.getPostId()) == null) {
+                        regularPosts.decrementAndGet();
+                    }
+                    totalFileSize.addAndGet(-event.getRemovedFileSize());
+                }
+                default -> {
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            counterLock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostFileChanged(PostFileChangedEvent event) {
+        counterLock.readLock().lock();
+        try {
+            totalFileSize.addAndGet(event.getSizeDelta());
+            version.incrementAndGet();
+        } finally {
+            counterLock.readLock().unlock();
+        }
+    }
+
+    // read lock 을 잡은 상태에서 호출
+    private void touchNotice(Long id) {
+        Set<Long> touched = touchedNotices;
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    // DB 기준으로 카운터 재계산 (기본 10분마다)
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:600000}", initialDelayString = "${stats.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        reload(true);
+    }
+
+    // DB 를 읽는 동안 들어온 이벤트를 덮어쓰지 않도록, 읽기 전 카운터 값을 기준점으로 잡고 (DB 값 - 기준점) 만큼만 더한다.
+    // 공지사항은 기준점 이후 이벤트로 바뀐 항목을 이벤트 쪽 상태로 둔다.
+    // (커밋은 DB 조회보다 먼저, 이벤트는 기준점 이후에 온 변경은 두 번 셀 수 있지만 다음 재계산에서 맞춰진다)
+    // counters 가 false 면 공지사항만 다시 읽는다 (일괄 변경 이벤트).
+    private void reload(boolean counters) {
+        reconcileLock.lock();
+        try {
+            long regularBase;
+            long fileSizeBase;
+            counterLock.writeLock().lock();
+            try {
+                regularBase = regularPosts.get();
+                fileSizeBase = totalFileSize.get();
+                touchedNotices = ConcurrentHashMap.newKeySet();
+            } finally {
+                counterLock.writeLock().unlock();
+            }
+
+            long regular = 0;
+            long fileSize = 0;
+            Map<Long, NoticeState> states;
+            try {
+                if (counters) {
+                    regular = postRepository.countByIsNoticeFalse();
+                    Long total = postFileRepository.getTotalFileSize();
+                    fileSize = total != null ? total : 0L;
+                }
+                states = loadNoticeStates();
+            } catch (RuntimeException e) {
+                counterLock.writeLock().lock();
+                try {
+                    touchedNotices = null;
+                } finally {
+                    counterLock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            counterLock.writeLock().lock();
+            try {
+                if (counters) {
+                    regularPosts.addAndGet(regular - regularBase);
+                    totalFileSize.addAndGet(fileSize - fileSizeBase);
+                    loaded = true;
+                }
+                Set<Long> touched = touchedNotices;
+                touchedNotices = null;
+                states.forEach((id, state) -> {
+                    if (!touched.contains(id)) {
+                        notices.put(id, state);
+                    }
+                });
+                notices.keySet().removeIf(id -> !states.containsKey(id) && !touched.contains(id));
+                version.incrementAndGet();
+            } finally {
+                counterLock.writeLock().unlock();
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private Map<Long, NoticeState> loadNoticeStates() {
+        Map<Long, NoticeState> states = new HashMap<>();
+        for (Object[] row : postRepository.findNoticeStates()) {
+            states.put((Long) row[0], new NoticeState(
+                    Boolean.TRUE.equals(row[1]),
+                    Boolean.TRUE.equals(row[2]),
+                    (LocalDateTime) row[3]));
+        }
+        return states;
+    }
+
+    private CachedStats buildSnapshot(LocalDateTime now) {
+        long snapshotVersion = version.get();
+        LocalDateTime soonLimit = now.plusDays(EXPIRING_SOON_DAYS);
+
+        long active = 0;
+        long pinned = 0;
+        long expired = 0;
+        long expiringSoon = 0;
+        LocalDateTime validUntil = null;
+
+        for (NoticeState notice : notices.values()) {
+            if (notice.active()) {
+                active++;
+                if (notice.pinned()) {
+                    pinned++;
+                }
+            }
+
+            LocalDateTime expiryDate = notice.expiryDate();
+            if (expiryDate == null) {
+                continue;
+            }
+            if (expiryDate.isBefore(now)) {
+                expired++;
+            } else if (notice.active() && !expiryDate.isAfter(soonLimit)) {
+                expiringSoon++;
+            }
+
+            // 이 공지의 만료 / 만료임박 여부가 바뀌는 가장 가까운 시각
+            LocalDateTime soonStart = expiryDate.minusDays(EXPIRING_SOON_DAYS);
+            LocalDateTime boundary = (soonStart.isAfter(now) ? soonStart : expiryDate).plusNanos(1);
+            if (boundary.isAfter(now) && (validUntil == null || boundary.isBefore(validUntil))) {
+                validUntil = boundary;
+            }
+        }
+
+        long totalNotices = notices.size();
+        long regular = regularPosts.get();
+        PostStats stats = new PostStats(
+                regular + totalNotices,
+                regular,
+                totalNotices,
+                active,
+                pinned,
+                expired,
+                expiringSoon,
+                totalFileSize.get(),
+                now
+        );
+        return new CachedStats(stats, snapshotVersion, validUntil);
+    }
+
+}
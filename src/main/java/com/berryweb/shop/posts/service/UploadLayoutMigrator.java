@@ -0,0 +1,122 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+// 첨부파일 저장 위치 이전 (평면 배치 -> fan-out 배치)
+// 예전 uploads/blobs/<hash> 와 내용 주소 저장 이전의 uploads/<UUID> 파일을 uploads/blobs/ab/cd/<hash> 로 옮기고 files.file_path 를 갱신한다.
+// interval-ms 마다 batch-size 행씩만 처리해 디스크 I/O 를 제한하고, 한 번 끝까지 돌면 멈춘다 (새 업로드는 처음부터 fan-out 에 저장).
+// 파일마다 트랜잭션을 나누며, 예전 파일은 행 갱신이 커밋된 뒤에 지우므로 이전 중에도 다운로드가 끊기지 않는다.
+@Slf4j
+@Component
+public class UploadLayoutMigrator {
+
+    private final PostFileRepository postFileRepository;
+    private final AttachmentStorage attachmentStorage;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Counter migrated;
+    private final Counter failed;
+
+    // 다음에 볼 행 ID (재시작하면 처음부터, 이미 옮긴 행은 건너뜀)
+    private Long lastId = 0L;
+    private volatile boolean finished = false;
+
+    public UploadLayoutMigrator(PostFileRepository postFileRepository, AttachmentStorage attachmentStorage,
+                                TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                                @Value("${file.layout-migration.enabled:true}") boolean enabled,
+                                @Value("${file.layout-migration.batch-size:50}") int batchSize) {
+        this.postFileRepository = postFileRepository;
+        this.attachmentStorage = attachmentStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.migrated = Counter.builder("posts.files.layout.migrated")
+                .description("fan-out 배치로 옮긴 첨부파일 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("posts.files.layout.failed")
+                .description("옮기지 못한 첨부파일 행 수 (파일 없음, I/O 오류)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${file.layout-migration.interval-ms:1000}",
+            initialDelayString = "${file.layout-migration.initial-delay-ms:60000}")
+    public void migrateBatch() {
+        if (!enabled || finished) {
+            return;
+        }
+
+        List<PostFile> batch = postFileRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            finished = true;
+            log.info("첨부파일 저장 위치 이전 완료: migrated={}, failed={}", (long) migrated.count(), (long) failed.count());
+            return;
+        }
+
+        for (PostFile file : batch) {
+            lastId = file.getId();
+            if (attachmentStorage.isFanOut(Paths.get(file.getFilePath()))) {
+                continue;
+            }
+            try {
+                Boolean moved = transactionTemplate.execute(status -> {
+                    try {
+                        return migrate(file.getId(), file.getContentHash(), status::setRollbackOnly);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                if (Boolean.TRUE.equals(moved)) {
+                    migrated.increment();
+                }
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("첨부파일 저장 위치 이전 실패: fileId={}, path={}", file.getId(), file.getFilePath(), e);
+            }
+        }
+    }
+
+    // 한 행 이전 (트랜잭션 안), 옮겼으면 true
+    private boolean migrate(Long fileId, String contentHash, Runnable rollback) throws IOException {
+        // 같은 파일을 가리키던 다른 행과 함께 이미 옮겨졌거나, 그 사이 삭제된 행은 건너뜀
+        String current = postFileRepository.findFilePathById(fileId).orElse(null);
+        if (current == null || attachmentStorage.isFanOut(Paths.get(current))) {
+            return false;
+        }
+
+        Path source = Paths.get(current);
+        AttachmentStorage.Relocation relocation = attachmentStorage.relocate(source, contentHash);
+        if (relocation == null) {
+            failed.increment();
+            log.warn("옮길 첨부파일이 없습니다: fileId={}, path={}", fileId, current);
+            return false;
+        }
+
+        // 다른 인스턴스가 먼저 옮겼으면 0 행 -> 롤백 (새로 만든 링크만 지우고 예전 파일은 그대로)
+        int updated = postFileRepository.relocate(current, relocation.path().toString(), relocation.hash());
+        if (updated == 0) {
+            rollback.run();
+            return false;
+        }
+        log.debug("첨부파일 저장 위치 이전: fileId={}, rows={}, from={}, to={}", fileId, updated, current, relocation.path());
+        return true;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.berryweb.shop.posts.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// 조회수 write-behind 누적기
+// 조회 요청마다 UPDATE 를 날리지 않고 게시글별 LongAdder 에 모아 두었다가 주기적으로 일괄 반영한다.
+// 캐시된 게시글의 조회수는 응답에 쓰지 않으므로 (PostService 참고) 반영 후 2차 캐시를 지우지 않는다.
+@Component
+public class ViewCountAccumulator {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 게시글 ID -> 아직 DB 에 반영되지 않은 조회수
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // 반영 대기 중인 증가분 중 가장 오래된 것의 시각 (0 이면 대기 없음)
+    private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+    private final Timer flushLag;
+    private final DistributionSummary batchSize;
+
+    public ViewCountAccumulator(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushLag = Timer.builder("posts.view_count.flush.lag")
+                .description("조회수 증가가 DB 에 반영되기까지 걸린 시간")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("posts.view_count.flush.batch_size")
+                .description("한 번의 flush 에서 갱신한 게시글 수")
+                .register(meterRegistry);
+        Gauge.builder("posts.view_count.pending_posts", pending, Map::size)
+                .description("반영 대기 중인 게시글 수")
+                .register(meterRegistry);
+    }
+
+    // 조회수 1 증가 (메모리에만 기록)
+    public void increment(Long postId) {
+        add(postId, 1L);
+        oldestPendingNanos.compareAndSet(0L, System.nanoTime());
+    }
+
+    // 증가분 기록
+    // flush 가 한가한 adder 를 맵에서 빼는 사이에 그 adder 에 더해진 증가분은 flush 가 더 이상 보지 않으므로,
+    // 더한 뒤 adder 가 맵에서 빠져 있으면 남은 값을 거둬 새 adder 로 옮긴다.
+    // (sumThenReset 은 셀마다 getAndSet 으로 비우므로 같은 증가분이 두 번 반영되지 않는다)
+    private void add(Long postId, long delta) {
+        LongAdder adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        adder.add(delta);
+        while (pending.get(postId) != adder) {
+            long orphaned = adder.sumThenReset();
+            if (orphaned == 0) {
+                return;
+            }
+            adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+            adder.add(orphaned);
+        }
+    }
+
+    // 아직 DB 에 반영되지 않은 조회수
+    public long getPendingCount(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    // 주기적으로 누적된 조회수를 일괄 반영
+    @Scheduled(fixedDelayString = "${view-count.flush-interval-ms:5000}")
+    public void flush() {
+        long startedAt = oldestPendingNanos.getAndSet(0L);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta == 0) {
+                // 한 주기 동안 조회가 없던 게시글은 맵에서 제거 (제거 직전에 들어온 증가분은 함께 반영, 제거 후의 증가분은 add 가 옮긴다)
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    delta = entry.getValue().sumThenReset();
+                }
+                if (delta == 0) {
+                    continue;
+                }
+            }
+            batch.add(new Object[]{delta, entry.getKey()});
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            // 실패한 증가분은 다음 주기에 다시 반영되도록 되돌려 둔다
+            batch.forEach(row -> add((Long) row[1], (Long) row[0]));
+            oldestPendingNanos.compareAndSet(0L, startedAt != 0L ? startedAt : System.nanoTime());
+            throw e;
+        }
+
+        batchSize.record(batch.size());
+        if (startedAt != 0L) {
+            flushLag.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 종료 시 남은 조회수 반영
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+}
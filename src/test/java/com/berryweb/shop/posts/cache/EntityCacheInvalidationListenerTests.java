@@ -0,0 +1,87 @@
+package com.berryweb.shop.posts.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// 캐시되는 엔티티의 커밋된 변경만 무효화로 넘기는지 확인
+class EntityCacheInvalidationListenerTests {
+
+    private final SecondLevelCacheInvalidator invalidator = mock(SecondLevelCacheInvalidator.class);
+    private final EntityPersister persister = mock(EntityPersister.class);
+
+    private EntityCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        when(persister.canWriteToCache()).thenReturn(true);
+        listener = new EntityCacheInvalidationListener(mock(EntityManagerFactory.class), invalidator);
+    }
+
+    @Test
+    void updateAndDeletePublishTheChangedId() {
+        listener.onPostUpdate(updateEvent(5L));
+        listener.onPostDelete(deleteEvent(6L));
+
+        verify(invalidator).entityChanged(persister, 5L);
+        verify(invalidator).entityChanged(persister, 6L);
+    }
+
+    @Test
+    void insertOnlyInvalidatesQueries() {
+        PostInsertEvent event = mock(PostInsertEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(7L);
+
+        listener.onPostInsert(event);
+
+        verify(invalidator).entityChanged(persister, null);
+    }
+
+    @Test
+    void uncachedEntitiesAreIgnored() {
+        when(persister.canWriteToCache()).thenReturn(false);
+
+        assertThat(listener.requiresPostCommitHandling(persister)).isFalse();
+        listener.onPostUpdate(updateEvent(5L));
+        listener.onPostDelete(deleteEvent(6L));
+
+        verify(invalidator, never()).entityChanged(any(), any());
+    }
+
+    @Test
+    void failedCommitsPublishNothing() {
+        listener.onPostUpdateCommitFailed(updateEvent(5L));
+        listener.onPostDeleteCommitFailed(deleteEvent(6L));
+        listener.onPostInsertCommitFailed(mock(PostInsertEvent.class));
+
+        verifyNoInteractions(invalidator);
+    }
+
+    private PostUpdateEvent updateEvent(Long id) {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(id);
+        return event;
+    }
+
+    private PostDeleteEvent deleteEvent(Long id) {
+        PostDeleteEvent event = mock(PostDeleteEvent.class);
+        when(event.getPersister()).thenReturn(persister);
+        when(event.getId()).thenReturn(id);
+        return event;
+    }
+
+}
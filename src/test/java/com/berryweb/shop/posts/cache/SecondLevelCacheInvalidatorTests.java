@@ -0,0 +1,222 @@
+package com.berryweb.shop.posts.cache;
+
+import com.berryweb.shop.posts.config.SecondLevelCacheConfig;
+import com.berryweb.shop.posts.entity.Comment;
+import com.berryweb.shop.posts.entity.NotificationOutbox;
+import com.berryweb.shop.posts.entity.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 2차 캐시 무효화: 한 행 갱신은 그 게시글만 지우고 커밋 후에 전파하는지, 받은 메시지를 로컬에 적용하는지 확인 (H2 + Caffeine)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SecondLevelCacheConfig.class, SecondLevelCacheInvalidator.class, SecondLevelCacheInvalidatorTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheInvalidatorTests {
+
+    private static final String POST = Post.class.getName();
+    private static final String COMMENT = Comment.class.getName();
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SecondLevelCacheInvalidator invalidator;
+
+    @MockitoBean
+    private CacheInvalidationBroadcaster broadcaster;
+
+    private TransactionTemplate transactionTemplate;
+    private Cache cache;
+    private Long first;
+    private Long second;
+
+    @BeforeEach
+    void setUp() {
+        when(broadcaster.getInstanceId()).thenReturn("self");
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+
+        first = transactionTemplate.execute(status -> persist(new Post("첫 글", "내용", "작성자")));
+        second = transactionTemplate.execute(status -> persist(new Post("둘째 글", "내용", "작성자")));
+        cache.evictAllRegions();
+        load(first);
+        load(second);
+        assertThat(cache.containsEntity(Post.class, first)).isTrue();
+        assertThat(cache.containsEntity(Post.class, second)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager().createQuery("DELETE FROM Post").executeUpdate());
+        cache.evictAllRegions();
+    }
+
+    @Test
+    void rowUpdateEvictsOnlyThatPostAndPublishesAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidator.rowUpdated(Post.class, first);
+
+            // 커밋 전: 로컬에서 그 게시글만 지우고 아직 전파하지 않는다
+            assertThat(cache.containsEntity(Post.class, first)).isFalse();
+            assertThat(cache.containsEntity(Post.class, second)).isTrue();
+            verify(broadcaster, never()).publish(any());
+        });
+
+        assertThat(cache.containsEntity(Post.class, second)).isTrue();
+        CacheInvalidation published = published();
+        assertThat(published.entities()).isEqualTo(Map.of(POST, Set.of(first)));
+        assertThat(published.evictAll()).isEmpty();
+        assertThat(published.spaces()).containsExactly("posts");
+    }
+
+    @Test
+    void rowUpdateMakesCachedQueriesOnTheTableStale() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        countCached();
+        countCached();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        invalidator.rowUpdated(Post.class, first);
+        countCached();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rowUpdateOfUncachedEntityDoesNothing() {
+        invalidator.rowUpdated(NotificationOutbox.class, 7L);
+
+        assertThat(cache.containsEntity(Post.class, first)).isTrue();
+        verify(broadcaster, never()).publish(any());
+    }
+
+    @Test
+    void bulkUpdatePublishesRegionEvictionAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            invalidator.bulkUpdated(Post.class);
+            verify(broadcaster, never()).publish(any());
+        });
+
+        CacheInvalidation published = published();
+        assertThat(published.entities()).isEmpty();
+        assertThat(published.evictAll()).containsExactly(POST);
+        assertThat(published.spaces()).containsExactly("posts");
+    }
+
+    @Test
+    void applyEvictsReceivedEntitiesAndRegions() {
+        double before = meterRegistry.counter("posts.cache.invalidation.received").count();
+
+        invalidator.apply(new CacheInvalidation("peer", Map.of(POST, Set.of(first)), Set.of(COMMENT), Set.of("posts")));
+
+        assertThat(cache.containsEntity(Post.class, first)).isFalse();
+        assertThat(cache.containsEntity(Post.class, second)).isTrue();
+        verify(broadcaster, never()).publish(any());
+        assertThat(meterRegistry.counter("posts.cache.invalidation.received").count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void applyIgnoresOwnMessages() {
+        double before = meterRegistry.counter("posts.cache.invalidation.received").count();
+
+        invalidator.apply(new CacheInvalidation("self", Map.of(POST, Set.of(first)), Set.of(), Set.of("posts")));
+
+        assertThat(cache.containsEntity(Post.class, first)).isTrue();
+        assertThat(meterRegistry.counter("posts.cache.invalidation.received").count()).isEqualTo(before);
+    }
+
+    private Long persist(Post post) {
+        EntityManager entityManager = entityManager();
+        entityManager.persist(post);
+        return post.getId();
+    }
+
+    // 새 영속성 컨텍스트에서 읽어 2차 캐시에 올린다
+    private void load(Long id) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.find(Post.class, id);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void countCached() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createQuery("SELECT COUNT(p) FROM Post p", Long.class)
+                    .setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private EntityManager entityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+
+    // 전파한 변경을 메시지로 만든다
+    @SuppressWarnings("unchecked")
+    private CacheInvalidation published() {
+        ArgumentCaptor<Consumer<CacheInvalidation.Builder>> change = ArgumentCaptor.forClass(Consumer.class);
+        verify(broadcaster).publish(change.capture());
+        CacheInvalidation.Builder builder = new CacheInvalidation.Builder();
+        change.getAllValues().forEach(each -> each.accept(builder));
+        return builder.build("self");
+    }
+
+}
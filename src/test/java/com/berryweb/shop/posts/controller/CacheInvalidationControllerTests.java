@@ -0,0 +1,92 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.cache.CacheInvalidation;
+import com.berryweb.shop.posts.cache.CacheInvalidationBroadcaster;
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.config.SecurityConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 캐시 무효화 수신: 토큰이 맞는 요청만 적용하는지 확인 (SecurityConfig 포함)
+@SpringJUnitWebConfig({CacheInvalidationControllerTests.MvcConfig.class, SecurityConfig.class, CacheInvalidationController.class})
+class CacheInvalidationControllerTests {
+
+    private static final String BODY = """
+            {"origin":"peer","entities":{"com.berryweb.shop.posts.entity.Post":[3]},"evictAll":[],"spaces":["posts"]}
+            """;
+
+    @Configuration
+    @EnableWebMvc
+    static class MvcConfig {
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockitoBean
+    private CacheInvalidationBroadcaster broadcaster;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator invalidator;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(broadcaster.isTrusted("secret")).thenReturn(true);
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void trustedTokenIsApplied() throws Exception {
+        mockMvc.perform(post(CacheInvalidationBroadcaster.PATH)
+                        .header(CacheInvalidationBroadcaster.TOKEN_HEADER, "secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isNoContent());
+
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(invalidator).apply(invalidation.capture());
+        assertThat(invalidation.getValue().origin()).isEqualTo("peer");
+        assertThat(invalidation.getValue().entities()).isEqualTo(Map.of("com.berryweb.shop.posts.entity.Post", Set.of(3L)));
+        assertThat(invalidation.getValue().spaces()).containsExactly("posts");
+    }
+
+    @Test
+    void missingOrWrongTokenIsRejected() throws Exception {
+        mockMvc.perform(post(CacheInvalidationBroadcaster.PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(CacheInvalidationBroadcaster.PATH)
+                        .header(CacheInvalidationBroadcaster.TOKEN_HEADER, "other")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BODY))
+                .andExpect(status().isForbidden());
+
+        verify(invalidator, never()).apply(any());
+    }
+
+}
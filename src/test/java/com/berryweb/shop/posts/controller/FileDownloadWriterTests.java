@@ -0,0 +1,222 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.service.ContentEncoding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 첨부파일 스트리밍: 전체 / 단일 Range / 범위 밖 / If-Range 불일치 / sendfile 위임 / 304 확인
+class FileDownloadWriterTests {
+
+    private static final String ETAG = "\"abc123\"";
+    private static final String DISPOSITION = "attachment; filename=\"a.txt\"";
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FileDownloadWriter writer = new FileDownloadWriter(meterRegistry);
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(dir.resolve("a.txt"), "0123456789");
+    }
+
+    @Test
+    void writesWholeFileWithoutRange() throws IOException {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/files/a.txt"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo(DISPOSITION);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(downloadedBytes()).isEqualTo(10);
+    }
+
+    @Test
+    void writesRequestedRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+        assertThat(downloadedBytes()).isEqualTo(4);
+    }
+
+    @Test
+    void writesSuffixRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void rejectsRangeBeyondEnd() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void ignoresMultipleRanges() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void headWritesHeadersOnly() throws IOException {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("HEAD", "/files/a.txt"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void handsLargeRangeToSendfile() throws IOException {
+        Path large = Files.write(dir.resolve("large.bin"), new byte[100 * 1024]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/large.bin");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1024-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(request, response, large, ETAG, DISPOSITION);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(large.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(1024L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(100L * 1024);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void matchingETagReturnsNotModifiedWithoutBody() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("immutable");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(downloadedBytes()).isZero();
+    }
+
+    @Test
+    void unmodifiedSinceLastModifiedReturnsNotModified() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, Files.getLastModifiedTime(file).toMillis());
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(request, response, file, null, DISPOSITION);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void differentETagReturnsFile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    void sendsStoredEncodingAsIs() throws IOException {
+        Path encoded = compressed();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.write(new MockHttpServletRequest("GET", "/files/a.txt"), response, encoded, ETAG, DISPOSITION,
+                "text/plain", ContentEncoding.GZIP);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getContentLengthLong()).isEqualTo(Files.size(encoded));
+        assertThat(response.getContentAsByteArray()).isEqualTo(Files.readAllBytes(encoded));
+    }
+
+    @Test
+    void decodesForClientsWithoutMatchingEncoding() throws IOException {
+        Path encoded = compressed();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/files/a.txt");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        writer.writeDecoded(request, response, encoded, ContentEncoding.GZIP, 10, ETAG, DISPOSITION);
+
+        // 풀린 내용의 중간부터 보낼 수 없으므로 Range 를 무시하고 전체를 보낸다
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("none");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    private Path compressed() throws IOException {
+        Path encoded = dir.resolve("a.txt.gz");
+        try (OutputStream out = ContentEncoding.GZIP.encode(Files.newOutputStream(encoded), 6)) {
+            Files.copy(file, out);
+        }
+        return encoded;
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(request, response, file, ETAG, DISPOSITION);
+        return response;
+    }
+
+    private double downloadedBytes() {
+        return meterRegistry.counter("posts.files.downloaded.bytes").count();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.berryweb.shop.posts.controller;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.service.PostFileService;
+import com.berryweb.shop.posts.service.PostImportService;
+import com.berryweb.shop.posts.service.PostService;
+import com.berryweb.shop.posts.service.PostStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 상세 조회 조건부 요청: 버전이 같으면 본문을 읽지 않고 304 (조회수는 증가), 바뀌면 200
+class PostDetailConditionalGetTests {
+
+    private final PostService postService = mock(PostService.class);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        PostController controller = new PostController(postService, mock(PostFileService.class),
+                mock(PostStatsService.class), mock(PostImportService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+        Post post = new Post("제목", "내용", "작성자");
+        post.setId(1L);
+        when(postService.getDetailVersion(1L)).thenReturn("1|v1");
+        when(postService.getPostDetailWithViewCount(1L)).thenReturn(post);
+    }
+
+    @Test
+    void returnsWeakETagWithNoCache() throws Exception {
+        String etag = mockMvc.perform(get("/api/posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("W/\"");
+    }
+
+    @Test
+    void matchingETagSkipsLoadingButCountsView() throws Exception {
+        String etag = mockMvc.perform(get("/api/posts/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(postService).recordView(1L);
+        // 첫 요청에서만 본문을 읽었다
+        verify(postService).getPostDetailWithViewCount(1L);
+    }
+
+    @Test
+    void changedVersionReturnsFullResponse() throws Exception {
+        String etag = mockMvc.perform(get("/api/posts/1")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(postService.getDetailVersion(1L)).thenReturn("1|v2");
+
+        String changed = mockMvc.perform(get("/api/posts/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(changed).isNotEqualTo(etag);
+        verify(postService, never()).recordView(1L);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.berryweb.shop.posts.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 2-gram 토크나이저: 정규화, 단어 분리, gram 생성 확인
+class NGramTokenizerTests {
+
+    @Test
+    void splitsKoreanWordsIntoBigrams() {
+        assertThat(NGramTokenizer.tokenize("공지사항입니다"))
+                .containsExactly("공지", "지사", "사항", "항입", "입니", "니다");
+    }
+
+    @Test
+    void normalizesWidthAndCaseAndSplitsOnPunctuation() {
+        assertThat(NGramTokenizer.words("Hello, ＷＯＲＬＤ! 2024년")).containsExactly("hello", "world", "2024년");
+    }
+
+    @Test
+    void keepsSingleCharacterWords() {
+        assertThat(NGramTokenizer.tokenize("a 가나")).containsExactly("a", "가나");
+    }
+
+    @Test
+    void blankTextHasNoTokens() {
+        assertThat(NGramTokenizer.tokenize(null)).isEmpty();
+        assertThat(NGramTokenizer.tokenize("  ... ")).isEmpty();
+    }
+
+}
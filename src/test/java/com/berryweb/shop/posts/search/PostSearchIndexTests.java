@@ -0,0 +1,102 @@
+package com.berryweb.shop.posts.search;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 메모리 역색인: 재구축, 검색 / 랭킹 / 공지 필터 / 페이지, 증분 갱신 확인
+class PostSearchIndexTests {
+
+    private static final Set<SearchField> ALL_FIELDS = EnumSet.allOf(SearchField.class);
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final PostSearchIndex index = new PostSearchIndex(postRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(postRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(
+                post(1L, "서버 점검 안내", "오늘 밤 점검이 있습니다", "관리자", true),
+                post(2L, "자유 게시글", "서버 점검 언제 끝나나요", "사용자", false),
+                post(3L, "점심 메뉴", "김치찌개 추천", "사용자", false)));
+        index.rebuild();
+    }
+
+    @Test
+    void notReadyUntilRebuilt() {
+        PostSearchIndex fresh = new PostSearchIndex(postRepository);
+
+        assertThat(fresh.canSearch("점검")).isFalse();
+        assertThat(index.canSearch("점검")).isTrue();
+        // 한 글자 단어는 gram 이 없어 DB 검색으로 넘긴다
+        assertThat(index.canSearch("점 검")).isFalse();
+    }
+
+    @Test
+    void requiresAllGramsInOneFieldAndRanksTitleFirst() {
+        PostSearchIndex.SearchHits hits = index.search("서버 점검", ALL_FIELDS, null, PageRequest.of(0, 10));
+
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+        assertThat(hits.total()).isEqualTo(2);
+    }
+
+    @Test
+    void filtersNoticesAndFields() {
+        assertThat(index.search("점검", ALL_FIELDS, true, PageRequest.of(0, 10)).ids()).containsExactly(1L);
+        assertThat(index.search("점검", ALL_FIELDS, false, PageRequest.of(0, 10)).ids()).containsExactly(2L);
+        assertThat(index.search("사용자", EnumSet.of(SearchField.TITLE), null, PageRequest.of(0, 10)).ids()).isEmpty();
+        assertThat(index.search("사용자", EnumSet.of(SearchField.AUTHOR), null, PageRequest.of(0, 10)).ids())
+                .containsExactly(3L, 2L);
+    }
+
+    @Test
+    void pagesRankedResults() {
+        PostSearchIndex.SearchHits hits = index.search("사용자", ALL_FIELDS, null, PageRequest.of(1, 1));
+
+        assertThat(hits.ids()).containsExactly(2L);
+        assertThat(hits.total()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesUpdatesAndDeletes() {
+        index.onPostChanged(PostChangedEvent.updated(post(3L, "서버 이전 안내", "점검 없음", "관리자", false)));
+        assertThat(index.search("김치", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).isEmpty();
+        assertThat(index.search("서버", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).contains(3L);
+
+        index.onPostChanged(PostChangedEvent.deleted(1L, 0));
+        assertThat(index.search("서버", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void excludesDocumentsWhoseGramsAreOnlyScattered() {
+        index.index(post(4L, "사항 정리", "공지 사항은 지사에서", "관리자", false));
+        index.index(post(5L, "공지사항 정리", "내용", "관리자", false));
+
+        // 공지 / 지사 / 사항 이 모두 있지만 이어져 있지 않으면 일치하지 않는다 (LIKE '%공지사항%' 과 같음)
+        assertThat(index.search("공지사항", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).containsExactly(5L);
+        // 여러 단어는 그 순서 그대로 이어져 있어야 한다
+        assertThat(index.search("점검 서버", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).isEmpty();
+        // 공백 / 대소문자 / 문장부호 차이는 정규화로 무시한다
+        assertThat(index.search("서버   점검!", ALL_FIELDS, null, PageRequest.of(0, 10)).ids()).containsExactly(1L, 2L);
+    }
+
+    private static Post post(Long id, String title, String content, String author, boolean notice) {
+        Post post = new Post(title, content, author, notice, false, true, null, false);
+        post.setId(id);
+        return post;
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.dto.PostSummary;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 활성 공지사항 캐시: 한 번 읽어 재사용하고, 공지 변경 / 가장 이른 만료 시각에 다시 읽는지 확인
+class ActiveNoticeCacheTests {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final ActiveNoticeCache cache = new ActiveNoticeCache(postRepository);
+
+    @Test
+    void loadsOnceAndSplitsPinnedNotices() {
+        when(postRepository.findActiveNoticeSummaries()).thenReturn(List.of(
+                notice(1L, true, null),
+                notice(2L, false, null),
+                notice(3L, false, LocalDateTime.now().minusMinutes(1))));
+
+        assertThat(ids(cache.getActiveNotices())).containsExactly(1L, 2L);
+        assertThat(ids(cache.getPinnedNotices())).containsExactly(1L);
+        assertThat(ids(cache.getRegularNotices())).containsExactly(2L);
+
+        verify(postRepository, times(1)).findActiveNoticeSummaries();
+    }
+
+    @Test
+    void reloadsWhenEarliestNoticeExpires() throws InterruptedException {
+        when(postRepository.findActiveNoticeSummaries()).thenReturn(
+                List.of(notice(1L, false, null), notice(2L, false, LocalDateTime.now().plusNanos(200_000_000))),
+                List.of(notice(1L, false, null)));
+
+        assertThat(ids(cache.getActiveNotices())).containsExactly(1L, 2L);
+        Thread.sleep(300);
+
+        assertThat(ids(cache.getActiveNotices())).containsExactly(1L);
+        verify(postRepository, times(2)).findActiveNoticeSummaries();
+    }
+
+    @Test
+    void invalidatesOnlyOnNoticeChanges() {
+        when(postRepository.findActiveNoticeSummaries()).thenReturn(List.of(notice(1L, false, null)));
+        cache.getActiveNotices();
+
+        // 일반 게시글 변경은 무시
+        cache.onPostChanged(PostChangedEvent.created(post(10L, false)));
+        cache.getActiveNotices();
+        verify(postRepository, times(1)).findActiveNoticeSummaries();
+
+        // 캐시된 공지가 일반 게시글로 바뀐 경우
+        cache.onPostChanged(PostChangedEvent.updated(post(1L, false)));
+        cache.getActiveNotices();
+        verify(postRepository, times(2)).findActiveNoticeSummaries();
+
+        cache.onPostChanged(PostChangedEvent.created(post(11L, true)));
+        cache.getActiveNotices();
+        verify(postRepository, times(3)).findActiveNoticeSummaries();
+
+        cache.onPostChanged(PostChangedEvent.deleted(10L, 0));
+        cache.getActiveNotices();
+        verify(postRepository, times(4)).findActiveNoticeSummaries();
+    }
+
+    private static PostSummary notice(Long id, boolean pinned, LocalDateTime expiryDate) {
+        LocalDateTime now = LocalDateTime.now();
+        return new PostSummary(id, "공지", "관리자", true, pinned, true, expiryDate, 0L, 0, 0, null, null, now, now);
+    }
+
+    private static Post post(Long id, boolean notice) {
+        Post post = new Post("제목", "내용", "작성자", notice, false, true, null, false);
+        post.setId(id);
+        return post;
+    }
+
+    private static List<Long> ids(List<PostSummary> posts) {
+        return posts.stream().map(PostSummary::getId).toList();
+    }
+
+}
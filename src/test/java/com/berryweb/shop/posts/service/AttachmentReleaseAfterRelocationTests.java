@@ -0,0 +1,174 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 엔티티를 읽은 뒤 저장 위치가 옮겨져도 (UploadLayoutMigrator) 삭제하면 새 위치의 파일을 지우는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "file.compression.enabled=false"
+})
+@Import({PostService.class, PostFileService.class, AttachmentStorage.class,
+        AttachmentReleaseAfterRelocationTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AttachmentReleaseAfterRelocationTests {
+
+    @TempDir
+    static Path uploadDirectory;
+
+    @DynamicPropertySource
+    static void uploadProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.directory", () -> uploadDirectory.toString());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostFileService postFileService;
+
+    @Autowired
+    private PostFileRepository postFileRepository;
+
+    @Autowired
+    private AttachmentStorage attachmentStorage;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private TransactionTemplate transactionTemplate;
+    private UploadLayoutMigrator migrator;
+    private Long postId;
+    private Long fileId;
+    private Path legacy;
+    private Path fanOut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // 이전은 삭제 트랜잭션과 따로 커밋된다
+        TransactionTemplate separate = new TransactionTemplate(transactionManager);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        migrator = new UploadLayoutMigrator(postFileRepository, attachmentStorage, separate,
+                new SimpleMeterRegistry(), true, 50);
+
+        postId = postService.createPost("제목", "내용", "작성자").getId();
+        legacy = Files.writeString(uploadDirectory.resolve(UUID.randomUUID() + ".txt"), "legacy " + UUID.randomUUID());
+        String hash;
+        try (InputStream in = Files.newInputStream(legacy)) {
+            hash = attachmentStorage.hash(in);
+        }
+        fanOut = uploadDirectory.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+
+        // 내용 주소 저장 이전의 UUID 파일 행 (content_hash 없음)
+        fileId = transactionTemplate.execute(status -> {
+            Post post = postService.getPostById(postId);
+            String name = legacy.getFileName().toString();
+            return postFileRepository.save(new PostFile(name, name, legacy.toString(), 20L, "text/plain", post)).getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM files");
+        jdbcTemplate.update("DELETE FROM posts");
+    }
+
+    @Test
+    void deleteFileReleasesRelocatedBlob() {
+        transactionTemplate.executeWithoutResult(status -> {
+            PostFile stale = postFileService.getFileById(fileId);
+            migrateRelocates();
+            assertThat(stale.getFilePath()).isEqualTo(legacy.toString());
+
+            try {
+                postFileService.deleteFile(fileId);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(fanOut).doesNotExist();
+        assertThat(legacy).doesNotExist();
+    }
+
+    @Test
+    void deletePostReleasesRelocatedBlob() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Post stale = postService.getPostById(postId);
+            assertThat(stale.getFiles()).extracting(PostFile::getFilePath).containsExactly(legacy.toString());
+            migrateRelocates();
+
+            postService.deletePost(postId);
+        });
+
+        assertThat(fanOut).doesNotExist();
+        assertThat(legacy).doesNotExist();
+    }
+
+    // 다른 트랜잭션에서 이전이 커밋되어 행은 새 경로를, 읽어 둔 엔티티는 예전 경로를 가리킨다
+    private void migrateRelocates() {
+        migrator.migrateBatch();
+        assertThat(fanOut).exists();
+        assertThat(legacy).doesNotExist();
+        assertThat(jdbcTemplate.queryForObject("SELECT file_path FROM files WHERE id = ?", String.class, fileId))
+                .isEqualTo(fanOut.toString());
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.event.AttachmentsReleasedEvent;
+import com.berryweb.shop.posts.repository.AttachmentBlobRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import com.berryweb.shop.posts.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 여러 인스턴스: 인스턴스마다 잠금이 따로여도 해시 행 잠금으로 재사용 중인 내용을 다른 인스턴스의 정리가 지우지 않는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AttachmentStorageFenceTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostFileRepository postFileRepository;
+
+    @Autowired
+    private AttachmentBlobRepository attachmentBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private TransactionTemplate transactionTemplate;
+    // 같은 DB 와 uploads 를 쓰는 두 인스턴스
+    private AttachmentStorage uploader;
+    private AttachmentStorage collector;
+    private AttachmentStorage.StoredBlob orphan;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        uploader = newStorage();
+        collector = newStorage();
+        post = postRepository.save(new Post("제목", "내용", "작성자"));
+
+        // 마지막 참조가 막 삭제되어 정리를 기다리는 내용
+        orphan = transactionTemplate.execute(status -> {
+            try {
+                return uploader.store(new ByteArrayInputStream("shared".getBytes(StandardCharsets.UTF_8)), null, "text/plain");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM files");
+        jdbcTemplate.update("DELETE FROM posts");
+        jdbcTemplate.update("DELETE FROM attachment_blobs");
+    }
+
+    @Test
+    void collectWaitsForUncommittedReuseOnAnotherInstance() throws Exception {
+        CountDownLatch reused = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AttachmentStorage.StoredBlob> upload = executor.submit(() -> transactionTemplate.execute(status -> {
+                try {
+                    AttachmentStorage.StoredBlob blob = uploader.reuse(orphan.hash());
+                    postFileRepository.save(new PostFile("a.txt", "a-stored.txt", blob.path().toString(), blob.size(),
+                            "text/plain", blob.hash(), post));
+                    reused.countDown();
+                    commit.await(10, TimeUnit.SECONDS);
+                    return blob;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            assertThat(reused.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // 새 참조는 아직 커밋 전이라 다른 인스턴스에서 세면 0 개
+            Future<?> release = executor.submit(() ->
+                    collector.onAttachmentsReleased(new AttachmentsReleasedEvent(List.of(orphan.path().toString()))));
+            Thread.sleep(300);
+            assertThat(release.isDone()).isFalse();
+
+            commit.countDown();
+            assertThat(upload.get(10, TimeUnit.SECONDS)).isNotNull();
+            release.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+
+        assertThat(uploader.locate(orphan.hash())).isEqualTo(orphan.path());
+    }
+
+    @Test
+    void reuseAfterCollectOnAnotherInstanceFindsNothing() {
+        collector.onAttachmentsReleased(new AttachmentsReleasedEvent(List.of(orphan.path().toString())));
+
+        AttachmentStorage.StoredBlob reused = transactionTemplate.execute(status -> {
+            try {
+                return uploader.reuse(orphan.hash());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(reused).isNull();
+        assertThat(uploader.locate(orphan.hash())).isNull();
+        assertThat(attachmentBlobRepository.existsById(orphan.hash())).isFalse();
+    }
+
+    private AttachmentStorage newStorage() {
+        return new AttachmentStorage(postFileRepository, attachmentBlobRepository, transactionManager,
+                uploadDirectory.toString(), false, DataSize.ofKilobytes(1), 6, 5000);
+    }
+
+}
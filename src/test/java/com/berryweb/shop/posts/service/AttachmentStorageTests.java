@@ -0,0 +1,247 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.event.AttachmentsReleasedEvent;
+import com.berryweb.shop.posts.repository.AttachmentBlobRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 내용 주소 저장소: 같은 내용은 한 번만 저장하고, 롤백 / 참조 없음이면 지우며, 해시 잠금은 제한 시간 안에서만 기다리는지 확인
+class AttachmentStorageTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private final PostFileRepository postFileRepository = mock(PostFileRepository.class);
+    private final AttachmentBlobRepository attachmentBlobRepository = mock(AttachmentBlobRepository.class);
+
+    private AttachmentStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        // 압축은 ContentEncoding 쪽에서 따로 확인하므로 끈다
+        storage = new AttachmentStorage(postFileRepository, attachmentBlobRepository,
+                new SynchronizingTransactionManager(), uploadDirectory.toString(), false, DataSize.ofKilobytes(1), 6, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void storesSameContentOnce() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob first = storage.store(content("hello"), null, "text/plain");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(first.deduplicated()).isFalse();
+        assertThat(first.size()).isEqualTo(5);
+        assertThat(first.path()).isEqualTo(uploadDirectory.resolve("blobs").resolve(first.hash().substring(0, 2))
+                .resolve(first.hash().substring(2, 4)).resolve(first.hash()));
+        assertThat(Files.readString(first.path())).isEqualTo("hello");
+
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob second = storage.store(content("hello"), first.hash(), "text/plain");
+        AttachmentStorage.StoredBlob reused = storage.reuse(first.hash());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(second.deduplicated()).isTrue();
+        assertThat(second.path()).isEqualTo(first.path());
+        assertThat(reused.deduplicated()).isTrue();
+        assertThat(reused.size()).isEqualTo(5);
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    void reuseOfUnknownContentReturnsNull() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(storage.reuse(storage.hash(content("missing")))).isNull();
+        // 잠그지 않았으므로 등록된 동기화도 없다
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void rejectsContentThatDoesNotMatchDeclaredHash() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        String otherHash = storage.hash(content("other"));
+
+        assertThatThrownBy(() -> storage.store(content("hello"), otherHash, "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.locate(storage.hash(content("hello")))).isNull();
+        assertThat(tempFiles()).isEmpty();
+    }
+
+    @Test
+    void requiresTransaction() {
+        assertThatThrownBy(() -> storage.store(content("hello"), null, "text/plain"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rollbackDeletesNewlyStoredContent() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob blob = storage.store(content("hello"), null, "text/plain");
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(Files.exists(blob.path())).isFalse();
+        assertThat(storage.locate(blob.hash())).isNull();
+    }
+
+    @Test
+    void collectsContentOnlyWhenUnreferenced() throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob blob = storage.store(content("hello"), null, "image/png");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        Path derivative = storage.derivativePath(blob.hash(), "thumb.jpg");
+        Files.createDirectories(derivative.getParent());
+        Files.writeString(derivative, "thumb");
+        AttachmentsReleasedEvent released = new AttachmentsReleasedEvent(List.of(blob.path().toString()));
+
+        when(postFileRepository.countByContentHash(blob.hash())).thenReturn(1L);
+        storage.onAttachmentsReleased(released);
+        assertThat(Files.exists(blob.path())).isTrue();
+        assertThat(Files.exists(derivative)).isTrue();
+
+        when(postFileRepository.countByContentHash(blob.hash())).thenReturn(0L);
+        storage.onAttachmentsReleased(released);
+        assertThat(Files.exists(blob.path())).isFalse();
+        assertThat(Files.exists(derivative.getParent())).isFalse();
+    }
+
+    @Test
+    void deletesLegacyFilesDirectly() throws IOException {
+        Path legacy = Files.writeString(uploadDirectory.resolve("0b7c-legacy.txt"), "hello");
+
+        storage.onAttachmentsReleased(new AttachmentsReleasedEvent(List.of(legacy.toString())));
+
+        assertThat(Files.exists(legacy)).isFalse();
+    }
+
+    @Test
+    void waitsForHashLockOnlyUntilTimeout() throws Exception {
+        CountDownLatch stored = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            // 다른 업로드가 같은 내용을 저장하고 아직 커밋하지 않은 상태
+            Future<?> holder = other.submit(() -> {
+                TransactionSynchronizationManager.initSynchronization();
+                try {
+                    storage.store(content("hello"), null, "text/plain");
+                    stored.countDown();
+                    release.await();
+                    complete(TransactionSynchronization.STATUS_COMMITTED);
+                } finally {
+                    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        TransactionSynchronizationManager.clearSynchronization();
+                    }
+                }
+                return null;
+            });
+            assertThat(stored.await(5, TimeUnit.SECONDS)).isTrue();
+
+            TransactionSynchronizationManager.initSynchronization();
+            assertThatThrownBy(() -> storage.store(content("hello"), null, "text/plain"))
+                    .isInstanceOf(IOException.class);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+
+            AttachmentStorage.StoredBlob blob = storage.store(content("hello"), null, "text/plain");
+            assertThat(blob.deduplicated()).isTrue();
+        } finally {
+            release.countDown();
+            other.shutdownNow();
+        }
+    }
+
+    @Test
+    void storesCompressibleTextEncodedOnly() throws IOException {
+        storage = new AttachmentStorage(postFileRepository, attachmentBlobRepository,
+                new SynchronizingTransactionManager(), uploadDirectory.toString(), true, DataSize.ofKilobytes(1), 6, 100);
+        String text = "같은 줄이 반복되는 텍스트 파일\n".repeat(200);
+
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob blob = storage.store(content(text), null, "text/plain; charset=UTF-8");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(Files.exists(blob.path())).isFalse();
+        assertThat(storage.encodings(blob.path())).containsExactly(ContentEncoding.ZSTD, ContentEncoding.GZIP);
+        assertThat(storage.locate(blob.hash())).isEqualTo(blob.path());
+        try (InputStream in = ContentEncoding.GZIP.decode(Files.newInputStream(storage.encodedPath(blob.path(), ContentEncoding.GZIP)))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(text);
+        }
+
+        // 압축 저장된 내용을 재사용할 때는 원본 크기를 기존 행에서 가져온다
+        when(postFileRepository.findFileSizeByContentHash(blob.hash())).thenReturn(blob.size());
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(storage.reuse(blob.hash()).size()).isEqualTo(blob.size());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    @Test
+    void keepsImagesAndSmallFilesRaw() throws IOException {
+        storage = new AttachmentStorage(postFileRepository, attachmentBlobRepository,
+                new SynchronizingTransactionManager(), uploadDirectory.toString(), true, DataSize.ofKilobytes(1), 6, 100);
+
+        TransactionSynchronizationManager.initSynchronization();
+        AttachmentStorage.StoredBlob small = storage.store(content("short"), null, "text/plain");
+        AttachmentStorage.StoredBlob svg = storage.store(content("<svg/>".repeat(500)), null, "image/svg+xml");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(Files.exists(small.path())).isTrue();
+        assertThat(storage.encodings(small.path())).isEmpty();
+        assertThat(Files.exists(svg.path())).isTrue();
+        assertThat(storage.encodings(svg.path())).isEmpty();
+    }
+
+    // 트랜잭션 종료 (등록된 동기화의 afterCompletion 호출)
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        Path temp = uploadDirectory.resolve("tmp");
+        if (!Files.isDirectory(temp)) {
+            return List.of();
+        }
+        try (var files = Files.list(temp)) {
+            return files.toList();
+        }
+    }
+
+    private static InputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,353 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.repository.UploadChunkRepository;
+import com.berryweb.shop.posts.repository.UploadSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 분할 업로드: 순서 없는 조각 / 이어 받기 / 조각 해시 확인 / 완료 시 전체 해시 확인 / 세션 수 제한 / 인스턴스 사이 세션 공유 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChunkedUploadServiceTests {
+
+    private static final String CONTENT = "0123456789"; // 4 bytes 조각 3개 (4, 4, 2)
+
+    @TempDir
+    Path uploadDirectory;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private UploadChunkRepository uploadChunkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private final PostService postService = mock(PostService.class);
+    private final PostFileService postFileService = mock(PostFileService.class);
+
+    private ChunkedUploadService service;
+
+    @BeforeEach
+    void setUp() {
+        service = newService(100, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM upload_chunks");
+        jdbcTemplate.update("DELETE FROM upload_sessions");
+    }
+
+    @Test
+    void resumesAndAssemblesChunksInAnyOrder() throws IOException {
+        String uploadId = createSession(1L);
+        AtomicReference<String> assembled = new AtomicReference<>();
+        PostFile stored = new PostFile();
+        when(postFileService.uploadAssembledFile(eq(1L), eq("a.txt"), eq("text/plain"), any(Path.class), eq(sha256(CONTENT))))
+                .thenAnswer(invocation -> {
+                    assembled.set(Files.readString(invocation.getArgument(3, Path.class)));
+                    return stored;
+                });
+
+        writeChunk(uploadId, 2, "89");
+        writeChunk(uploadId, 0, "0123");
+
+        // 빠진 조각이 있으면 세션을 유지하고, 상태로 이어 보낼 조각을 알 수 있다
+        assertThatThrownBy(() -> service.complete(uploadId)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.getStatus(uploadId).get("receivedChunks")).isEqualTo(List.of(0, 2));
+
+        writeChunk(uploadId, 1, "4567");
+
+        assertThat(service.complete(uploadId)).isSameAs(stored);
+        assertThat(assembled.get()).isEqualTo(CONTENT);
+        assertThat(service.getStatus(uploadId)).isNull();
+        assertThat(sessionFiles()).isEmpty();
+    }
+
+    @Test
+    void rejectsChunkWithWrongHashUntilResent() throws IOException {
+        String uploadId = createSession(1L);
+
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, sha256("xxxx"), stream("0123")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.getStatus(uploadId).get("receivedChunks")).isEqualTo(List.of());
+
+        Map<String, Object> result = writeChunk(uploadId, 0, "0123");
+        assertThat(result.get("receivedChunks")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsMalformedOrMissingChunkHash() throws IOException {
+        String uploadId = createSession(1L);
+
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, null, stream("0123")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, "abc", stream("0123")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsChunksOfWrongSizeOrIndex() throws IOException {
+        String uploadId = createSession(1L);
+
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, sha256("01234"), stream("01234")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 2, sha256("8"), stream("8")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 3, sha256("0123"), stream("0123")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void closesSessionWhenAssembledHashDiffers() throws IOException {
+        Map<String, Object> session = service.createSession(1L, "a.txt", "text/plain", 10L, sha256("9876543210"));
+        String uploadId = (String) session.get("uploadId");
+        writeChunk(uploadId, 0, "0123");
+        writeChunk(uploadId, 1, "4567");
+        writeChunk(uploadId, 2, "89");
+
+        assertThatThrownBy(() -> service.complete(uploadId)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(service.getStatus(uploadId)).isNull();
+        assertThat(sessionFiles()).isEmpty();
+        verify(postFileService, never()).uploadAssembledFile(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void limitsSessionsPerPostAndInTotal() throws IOException {
+        service = newService(2, 1);
+        createSession(1L);
+
+        // 잘못된 요청(400)이 아니라 잠시 후 다시 시도할 요청(429)
+        assertThatThrownBy(() -> createSession(1L)).isInstanceOf(ChunkedUploadService.TooManyUploadSessionsException.class);
+        createSession(2L);
+        assertThatThrownBy(() -> createSession(3L)).isInstanceOf(ChunkedUploadService.TooManyUploadSessionsException.class);
+        assertThat(sessionFiles()).hasSize(2);
+    }
+
+    @Test
+    void continuesOnAnotherInstanceAndAfterRestart() throws IOException {
+        String uploadId = createSession(1L);
+        ChunkedUploadService other = newService(100, 5);
+        PostFile stored = new PostFile();
+        when(postFileService.uploadAssembledFile(eq(1L), eq("a.txt"), eq("text/plain"), any(Path.class), eq(sha256(CONTENT))))
+                .thenReturn(stored);
+
+        writeChunk(uploadId, 0, "0123");
+        other.writeChunk(uploadId, 2, sha256("89"), stream("89"));
+        assertThat(other.getStatus(uploadId).get("receivedChunks")).isEqualTo(List.of(0, 2));
+
+        // 재시작한 인스턴스 (메모리에 남은 것 없음)
+        ChunkedUploadService restarted = newService(100, 5);
+        restarted.writeChunk(uploadId, 1, sha256("4567"), stream("4567"));
+
+        assertThat(other.complete(uploadId)).isSameAs(stored);
+        assertThat(service.getStatus(uploadId)).isNull();
+        assertThat(sessionFiles()).isEmpty();
+    }
+
+    @Test
+    void rejectsSecondWriterOfSameChunkAndCompletionWhileWriting() throws IOException {
+        String uploadId = createSession(1L);
+        writeChunk(uploadId, 0, "0123");
+        writeChunk(uploadId, 2, "89");
+        ChunkedUploadService other = newService(100, 5);
+
+        // 조각 1 을 받는 도중에 다른 인스턴스로 같은 조각과 완료 요청이 온다
+        InputStream slow = new InterleavingInputStream("4567", () -> {
+            assertThatThrownBy(() -> other.writeChunk(uploadId, 1, sha256("4567"), stream("4567")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("받는 중");
+            assertThatThrownBy(() -> other.complete(uploadId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("1개");
+        });
+
+        assertThat(service.writeChunk(uploadId, 1, sha256("4567"), slow).get("receivedChunks")).isEqualTo(3);
+        verify(postFileService, never()).uploadAssembledFile(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void stalledWriterStopsAfterLeaseAndLeavesTakeoverResult() throws IOException {
+        service = newService(100, 5, 1);
+        String uploadId = createSession(1L);
+        ChunkedUploadService other = newService(100, 5, 1);
+
+        // 임대가 지날 때까지 멈춘 요청의 조각을 다른 요청이 이어받아 끝낸다
+        InputStream stalled = new InterleavingInputStream("xxxx", () -> {
+            try {
+                Thread.sleep(1100);
+                other.writeChunk(uploadId, 0, sha256("0123"), stream("0123"));
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThatThrownBy(() -> service.writeChunk(uploadId, 0, sha256("xxxx"), stalled))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1초");
+
+        // 멈췄던 요청은 쓰지도, 이어받은 결과를 지우지도 않는다
+        assertThat(service.getStatus(uploadId).get("receivedChunks")).isEqualTo(List.of(0));
+        assertThat(Files.readString(uploadDirectory.resolve("sessions").resolve(uploadId + ".upload")))
+                .startsWith("0123");
+    }
+
+    @Test
+    void expiresIdleSessionsAndOrphanFiles() throws IOException {
+        String uploadId = createSession(1L);
+        String active = createSession(2L);
+        jdbcTemplate.update("UPDATE upload_sessions SET last_activity = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(61)), uploadId);
+        Path orphan = Files.writeString(uploadDirectory.resolve("sessions").resolve("orphan.upload"), "x");
+        Files.setLastModifiedTime(orphan, FileTime.fromMillis(System.currentTimeMillis() - 61 * 60_000L));
+
+        service.expireSessions();
+
+        assertThat(service.getStatus(uploadId)).isNull();
+        assertThat(service.getStatus(active)).isNotNull();
+        assertThat(sessionFiles()).containsExactly(uploadDirectory.resolve("sessions").resolve(active + ".upload"));
+    }
+
+    @Test
+    void rejectsFilesOverLimit() {
+        assertThatThrownBy(() -> service.createSession(1L, "a.txt", "text/plain", 1025L, sha256(CONTENT)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void abortDeletesSessionFile() throws IOException {
+        String uploadId = createSession(1L);
+        writeChunk(uploadId, 0, "0123");
+
+        service.abort(uploadId);
+
+        assertThat(service.getStatus(uploadId)).isNull();
+        assertThat(sessionFiles()).isEmpty();
+        assertThatThrownBy(() -> writeChunk(uploadId, 1, "4567")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ChunkedUploadService newService(int maxSessions, int maxSessionsPerPost) {
+        return newService(maxSessions, maxSessionsPerPost, 300);
+    }
+
+    private ChunkedUploadService newService(int maxSessions, int maxSessionsPerPost, long chunkLeaseSeconds) {
+        return new ChunkedUploadService(postService, postFileService, uploadSessionRepository, uploadChunkRepository,
+                transactionManager, new SimpleMeterRegistry(), uploadDirectory.toString(), DataSize.ofBytes(4),
+                DataSize.ofKilobytes(1), 60, chunkLeaseSeconds, maxSessions, maxSessionsPerPost);
+    }
+
+    private String createSession(Long postId) throws IOException {
+        Map<String, Object> session = service.createSession(postId, "a.txt", "text/plain", 10L, sha256(CONTENT));
+        assertThat(session.get("chunkCount")).isEqualTo(3);
+        return (String) session.get("uploadId");
+    }
+
+    private Map<String, Object> writeChunk(String uploadId, int index, String content) throws IOException {
+        return service.writeChunk(uploadId, index, sha256(content), stream(content));
+    }
+
+    private List<Path> sessionFiles() throws IOException {
+        Path sessions = uploadDirectory.resolve("sessions");
+        if (!Files.isDirectory(sessions)) {
+            return List.of();
+        }
+        try (var files = Files.list(sessions)) {
+            return files.toList();
+        }
+    }
+
+    // 첫 읽기 전에 다른 요청을 끼워 넣는 조각 본문
+    private static class InterleavingInputStream extends InputStream {
+
+        private final ByteArrayInputStream content;
+        private Runnable interleaved;
+
+        InterleavingInputStream(String content, Runnable interleaved) {
+            this.content = stream(content);
+            this.interleaved = interleaved;
+        }
+
+        @Override
+        public int read() {
+            runInterleaved();
+            return content.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            runInterleaved();
+            return content.read(b, off, len);
+        }
+
+        private void runInterleaved() {
+            if (interleaved != null) {
+                Runnable run = interleaved;
+                interleaved = null;
+                run.run();
+            }
+        }
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
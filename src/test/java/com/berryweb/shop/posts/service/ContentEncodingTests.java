@@ -0,0 +1,66 @@
+package com.berryweb.shop.posts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 압축 인코딩: Accept-Encoding 협상과 압축 / 해제 왕복 확인
+class ContentEncodingTests {
+
+    private static final Set<ContentEncoding> BOTH = EnumSet.allOf(ContentEncoding.class);
+
+    @Test
+    void prefersZstdWhenBothAreAccepted() {
+        assertThat(ContentEncoding.negotiate("gzip, deflate, br, zstd", BOTH)).isEqualTo(ContentEncoding.ZSTD);
+    }
+
+    @Test
+    void honoursQualityValues() {
+        assertThat(ContentEncoding.negotiate("zstd;q=0.5, gzip", BOTH)).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("zstd;q=0, gzip;q=0.1", BOTH)).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("gzip;q=0", List.of(ContentEncoding.GZIP))).isNull();
+    }
+
+    @Test
+    void wildcardCoversUnlistedEncodings() {
+        assertThat(ContentEncoding.negotiate("*", BOTH)).isEqualTo(ContentEncoding.ZSTD);
+        assertThat(ContentEncoding.negotiate("zstd;q=0, *", BOTH)).isEqualTo(ContentEncoding.GZIP);
+    }
+
+    @Test
+    void onlyPicksStoredEncodings() {
+        assertThat(ContentEncoding.negotiate("zstd", List.of(ContentEncoding.GZIP))).isNull();
+        assertThat(ContentEncoding.negotiate("gzip, zstd", List.of(ContentEncoding.GZIP))).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("identity", BOTH)).isNull();
+        assertThat(ContentEncoding.negotiate(null, BOTH)).isNull();
+        assertThat(ContentEncoding.negotiate("gzip", List.of())).isNull();
+    }
+
+    @Test
+    void roundTripsContent() throws IOException {
+        byte[] content = "줄마다 같은 내용이 반복되는 텍스트\n".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+            try (OutputStream out = encoding.encode(encoded, 6)) {
+                out.write(content);
+            }
+            assertThat(encoded.size()).isLessThan(content.length / 10);
+
+            try (InputStream in = encoding.decode(new ByteArrayInputStream(encoded.toByteArray()))) {
+                assertThat(in.readAllBytes()).isEqualTo(content);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.event.PostFileChangedEvent;
+import com.berryweb.shop.posts.repository.AttachmentBlobRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// 이미지 파생본: 미리보기 / 썸네일 크기, 업로드 후 백그라운드 생성, 만들 수 없는 이미지 표시, 원본이 없을 때 재시도 확인
+class ImageDerivativeServiceTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private AttachmentStorage storage;
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() {
+        storage = new AttachmentStorage(mock(PostFileRepository.class), mock(AttachmentBlobRepository.class),
+                new SynchronizingTransactionManager(), uploadDirectory.toString(), false,
+                DataSize.ofKilobytes(1), 6, 1000);
+        service = newService(40_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void generatesPreviewAndThumbnailOnRequest() throws IOException {
+        PostFile file = image(2000, 1000);
+
+        Path thumbnail = service.getDerivative(file, ImageDerivativeService.Variant.THUMBNAIL);
+        Path preview = service.getDerivative(file, ImageDerivativeService.Variant.PREVIEW);
+
+        assertThat(size(thumbnail)).containsExactly(320, 160);
+        assertThat(size(preview)).containsExactly(1280, 640);
+    }
+
+    @Test
+    void doesNotEnlargeSmallImages() throws IOException {
+        PostFile file = image(100, 50);
+
+        assertThat(size(service.getDerivative(file, ImageDerivativeService.Variant.PREVIEW))).containsExactly(100, 50);
+    }
+
+    @Test
+    void generatesInBackgroundAfterUpload() throws Exception {
+        PostFile file = image(800, 600);
+
+        service.onPostFileChanged(new PostFileChangedEvent(1L, 100, file));
+
+        Path thumbnail = storage.derivativePath(file.getContentHash(), "thumbnail.jpg");
+        for (int i = 0; i < 100 && !Files.exists(thumbnail); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(size(thumbnail)).containsExactly(320, 240);
+    }
+
+    @Test
+    void marksBrokenImagesAndDoesNotRetry() throws IOException {
+        Path source = Files.writeString(uploadDirectory.resolve("broken.png"), "not an image");
+        PostFile file = file(source, "image/png");
+
+        assertThatThrownBy(() -> service.getDerivative(file, ImageDerivativeService.Variant.THUMBNAIL))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.derivativePath(file.getContentHash(), "unsupported")).exists();
+        assertThatThrownBy(() -> service.getDerivative(file, ImageDerivativeService.Variant.PREVIEW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void marksImagesOverPixelLimit() throws IOException {
+        service.shutdown();
+        service = newService(10_000L);
+        PostFile file = image(200, 100);
+
+        assertThatThrownBy(() -> service.getDerivative(file, ImageDerivativeService.Variant.THUMBNAIL))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.derivativePath(file.getContentHash(), "unsupported")).exists();
+    }
+
+    @Test
+    void retriesWhenSourceIsMissing() throws IOException {
+        Path source = uploadDirectory.resolve("later.png");
+        PostFile file = file(source, "image/png", "ab".repeat(32));
+
+        // 원본이 없으면 실패로 표시하지 않고 null (잠시 후 다시 요청)
+        assertThat(service.getDerivative(file, ImageDerivativeService.Variant.THUMBNAIL)).isNull();
+        assertThat(storage.derivativePath(file.getContentHash(), "unsupported")).doesNotExist();
+
+        ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        assertThat(size(service.getDerivative(file, ImageDerivativeService.Variant.THUMBNAIL))).containsExactly(40, 20);
+    }
+
+    @Test
+    void rejectsNonImageFiles() throws IOException {
+        Path source = Files.writeString(uploadDirectory.resolve("a.txt"), "text");
+
+        assertThatThrownBy(() -> service.getDerivative(file(source, "text/plain"), ImageDerivativeService.Variant.THUMBNAIL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ImageDerivativeService newService(long maxPixels) {
+        return new ImageDerivativeService(storage, new SimpleMeterRegistry(), 1, 10, 320, 1280, 0.85f, maxPixels, 5000);
+    }
+
+    private PostFile image(int width, int height) throws IOException {
+        Path source = uploadDirectory.resolve(width + "x" + height + ".png");
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+        return file(source, "image/png");
+    }
+
+    private PostFile file(Path source, String contentType) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            return file(source, contentType, storage.hash(in));
+        }
+    }
+
+    private static PostFile file(Path source, String contentType, String hash) {
+        String name = source.getFileName().toString();
+        return new PostFile(name, name, source.toString(), 0L, contentType, hash, new Post("제목", "내용", "작성자"));
+    }
+
+    private static int[] size(Path image) throws IOException {
+        BufferedImage read = ImageIO.read(image.toFile());
+        return new int[]{read.getWidth(), read.getHeight()};
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 공지사항 만료: 가장 이른 만료 시각 하나에만 타이머를 걸고, 그 시각이 된 공지만 비활성화하는지 확인
+class NoticeExpirySchedulerTests {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final PostService postService = mock(PostService.class);
+    private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+
+    private final List<Scheduled> timers = new ArrayList<>();
+
+    private NoticeExpiryScheduler scheduler;
+
+    private record Scheduled(Runnable task, Instant at, ScheduledFuture<?> future) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            ScheduledFuture<?> future = mock(ScheduledFuture.class);
+            timers.add(new Scheduled(invocation.getArgument(0), invocation.getArgument(1), future));
+            return future;
+        }).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        scheduler = new NoticeExpiryScheduler(postRepository, postService, taskScheduler, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadArmsSingleTimerAtEarliestExpiry() {
+        LocalDateTime first = LocalDateTime.now().plusMinutes(5);
+        when(postRepository.findScheduledExpiries()).thenReturn(List.of(
+                new Object[]{1L, first.plusMinutes(10)},
+                new Object[]{2L, first},
+                new Object[]{3L, first.plusHours(1)}));
+
+        scheduler.load();
+
+        assertThat(scheduler.size()).isEqualTo(3);
+        assertThat(timers).hasSize(1);
+        assertThat(timers.get(0).at()).isEqualTo(instant(first));
+    }
+
+    @Test
+    void rearmsOnlyWhenEarliestExpiryChanges() {
+        LocalDateTime at = LocalDateTime.now().plusMinutes(10);
+        scheduler.schedule(1L, at);
+
+        // 더 늦은 만료는 타이머를 바꾸지 않는다
+        scheduler.schedule(2L, at.plusMinutes(5));
+        assertThat(timers).hasSize(1);
+
+        // 더 이른 만료가 오면 기존 타이머를 취소하고 다시 건다
+        scheduler.schedule(3L, at.minusMinutes(5));
+        assertThat(timers).hasSize(2);
+        verify(timers.get(0).future()).cancel(false);
+        assertThat(timers.get(1).at()).isEqualTo(instant(at.minusMinutes(5)));
+
+        // 그 공지를 취소하면 다음 만료 시각으로 되돌아간다
+        scheduler.cancel(3L);
+        assertThat(timers).hasSize(3);
+        assertThat(timers.get(2).at()).isEqualTo(instant(at));
+        assertThat(scheduler.size()).isEqualTo(2);
+    }
+
+    @Test
+    void firingDeactivatesOnlyDueNoticesAndArmsNext() {
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        scheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+        scheduler.schedule(2L, LocalDateTime.now().minusSeconds(2));
+        scheduler.schedule(3L, later);
+
+        lastTimer().task().run();
+
+        verify(postService).deactivateNotices(List.of(2L, 1L));
+        assertThat(scheduler.size()).isEqualTo(1);
+        assertThat(lastTimer().at()).isEqualTo(instant(later));
+    }
+
+    @Test
+    void retriesFailedDeactivationLater() {
+        when(postService.deactivateNotices(anyCollection())).thenThrow(new IllegalStateException("db down"));
+        scheduler.schedule(1L, LocalDateTime.now().minusSeconds(1));
+
+        LocalDateTime before = LocalDateTime.now();
+        lastTimer().task().run();
+
+        assertThat(scheduler.size()).isEqualTo(1);
+        assertThat(lastTimer().at()).isAfterOrEqualTo(instant(before.plus(Duration.ofSeconds(30))));
+    }
+
+    @Test
+    void followsPostChangedEvents() {
+        LocalDateTime at = LocalDateTime.now().plusMinutes(10);
+        Post notice = notice(1L, true, at);
+
+        scheduler.onPostChanged(PostChangedEvent.created(notice));
+        assertThat(scheduler.size()).isEqualTo(1);
+
+        // 비활성으로 바뀐 공지는 큐에서 빠진다
+        scheduler.onPostChanged(PostChangedEvent.updated(notice(1L, false, at)));
+        assertThat(scheduler.size()).isZero();
+        verify(timers.get(0).future()).cancel(false);
+
+        scheduler.onPostChanged(PostChangedEvent.created(notice));
+        scheduler.onPostChanged(PostChangedEvent.deleted(1L, 0));
+        assertThat(scheduler.size()).isZero();
+
+        // 일괄 갱신 이벤트로는 큐를 건드리지 않는다
+        scheduler.onPostChanged(PostChangedEvent.created(notice));
+        scheduler.onPostChanged(PostChangedEvent.bulkUpdated());
+        assertThat(scheduler.size()).isEqualTo(1);
+        verify(postService, never()).deactivateNotices(anyCollection());
+    }
+
+    private Scheduled lastTimer() {
+        return timers.get(timers.size() - 1);
+    }
+
+    private static Post notice(Long id, boolean active, LocalDateTime expiryDate) {
+        Post post = new Post("공지", "내용", "admin", true, false, active, expiryDate, false);
+        post.setId(id);
+        return post;
+    }
+
+    private static Instant instant(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.NotificationOutbox;
+import com.berryweb.shop.posts.notification.Notification;
+import com.berryweb.shop.posts.notification.NotificationSink;
+import com.berryweb.shop.posts.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 알림 발송: 임대를 건 묶음만 발송/삭제하고, 실패하면 같은 임대 조건으로 백오프 재시도 또는 FAILED 처리하는지 확인
+class NotificationDispatcherTests {
+
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private final NotificationSink sink = mock(NotificationSink.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // batch-size 2, 회차당 3묶음, 3번째 시도에서 포기, 임대 60초, 백오프 5초 ~ 60초
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(outboxRepository, sink,
+            new TransactionTemplate(new NoOpTransactionManager()), meterRegistry, 2, 3, 3, 60, 5, 60, 1_000_000);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deliversClaimedBatchAndDeletesUnderSameLease() throws Exception {
+        when(outboxRepository.lockDue(any(), eq(2))).thenReturn(List.of(row(1L, 0), row(2L, 0)), List.of());
+        when(outboxRepository.deleteLeased(anyCollection(), any())).thenReturn(2);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<List<Notification>> sent = ArgumentCaptor.forClass(List.class);
+        verify(sink).send(sent.capture());
+        assertThat(sent.getValue()).extracting(Notification::outboxId).containsExactly(1L, 2L);
+
+        ArgumentCaptor<LocalDateTime> leased = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).lease(eq(List.of(1L, 2L)), leased.capture());
+        assertThat(leased.getValue()).isAfterOrEqualTo(before.plusSeconds(59));
+        verify(outboxRepository).deleteLeased(List.of(1L, 2L), leased.getValue());
+        verify(outboxRepository, times(2)).lockDue(any(), eq(2));
+        assertThat(meterRegistry.counter("posts.notifications.delivered").count()).isEqualTo(2);
+    }
+
+    @Test
+    void stopsRunAtMaxBatches() throws Exception {
+        when(outboxRepository.lockDue(any(), eq(2))).thenReturn(List.of(row(1L, 0)));
+        when(outboxRepository.deleteLeased(anyCollection(), any())).thenReturn(1);
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, times(3)).lockDue(any(), eq(2));
+        verify(sink, times(3)).send(anyList());
+    }
+
+    @Test
+    void toleratesRowsReclaimedAfterLeaseExpired() throws Exception {
+        when(outboxRepository.lockDue(any(), eq(2))).thenReturn(List.of(row(1L, 0), row(2L, 0)), List.of());
+        when(outboxRepository.deleteLeased(anyCollection(), any())).thenReturn(1);
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, times(2)).lockDue(any(), eq(2));
+        verify(outboxRepository, never()).retryLater(anyCollection(), any(), any(), anyString());
+    }
+
+    @Test
+    void backsOffOrAbandonsFailedBatchAndStopsRun() throws Exception {
+        when(outboxRepository.lockDue(any(), eq(2))).thenReturn(List.of(row(1L, 0), row(2L, 2)));
+        when(outboxRepository.retryLater(anyCollection(), any(), any(), anyString())).thenReturn(1);
+        when(outboxRepository.markFailed(anyCollection(), any(), anyString())).thenReturn(1);
+        doThrow(new IllegalStateException("sink down")).when(sink).send(anyList());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<LocalDateTime> leased = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).lease(eq(List.of(1L, 2L)), leased.capture());
+
+        // 첫 시도 실패는 initial-backoff 뒤로, 세 번째 시도 실패는 포기
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).retryLater(eq(List.of(1L)), eq(leased.getValue()), retryAt.capture(), eq("sink down"));
+        assertThat(Duration.between(before, retryAt.getValue())).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(6));
+        verify(outboxRepository).markFailed(List.of(2L), leased.getValue(), "sink down");
+
+        // 발송 대상이 실패하면 그 회차는 멈추고 삭제하지 않는다
+        verify(outboxRepository, times(1)).lockDue(any(), anyInt());
+        verify(outboxRepository, never()).deleteLeased(anyCollection(), any());
+        assertThat(meterRegistry.counter("posts.notifications.retried").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("posts.notifications.abandoned").count()).isEqualTo(1);
+    }
+
+    @Test
+    void capsBackoffAtMaximum() throws Exception {
+        NotificationDispatcher patient = new NotificationDispatcher(outboxRepository, sink,
+                new TransactionTemplate(new NoOpTransactionManager()), meterRegistry, 2, 3, 20, 60, 5, 60, 1_000_000);
+        when(outboxRepository.lockDue(any(), eq(2))).thenReturn(List.of(row(1L, 9)));
+        doThrow(new IllegalStateException("sink down")).when(sink).send(anyList());
+
+        LocalDateTime before = LocalDateTime.now();
+        patient.dispatch();
+
+        // 5초 * 2^9 는 max-backoff(60초)로 잘린다
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).retryLater(eq(List.of(1L)), any(), retryAt.capture(), anyString());
+        assertThat(Duration.between(before, retryAt.getValue())).isBetween(Duration.ofSeconds(60), Duration.ofSeconds(61));
+    }
+
+    private static NotificationOutbox row(Long id, int attempts) {
+        NotificationOutbox row = new NotificationOutbox();
+        row.setId(id);
+        row.setType(NotificationOutbox.TYPE_NOTICE_CREATED);
+        row.setPostId(id * 10);
+        row.setTitle("공지 " + id);
+        row.setAttempts(attempts);
+        row.setCreatedAt(LocalDateTime.now());
+        return row;
+    }
+
+    // 트랜잭션 경계만 흉내 내는 트랜잭션 매니저 (저장소는 mock)
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+}
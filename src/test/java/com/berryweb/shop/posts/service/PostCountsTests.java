@@ -0,0 +1,188 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Comment;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 댓글 / 첨부파일 개수 컬럼: 생성·삭제와 같은 트랜잭션에서 바뀌는지, 보정 작업이 어긋난 값을 고치는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "file.compression.enabled=false"
+})
+@Import({PostService.class, CommentService.class, PostFileService.class, AttachmentStorage.class,
+        PostCountsTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostCountsTests {
+
+    @TempDir
+    static Path uploadDirectory;
+
+    @DynamicPropertySource
+    static void uploadProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.directory", () -> uploadDirectory.toString());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostFileService postFileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private TransactionTemplate transactionTemplate;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        postId = postService.createPost("제목", "내용", "작성자").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM files");
+        jdbcTemplate.update("DELETE FROM posts");
+    }
+
+    @Test
+    void commentCreateAndDeleteAdjustCount() {
+        Comment first = commentService.createComment(postId, "댓글1", "작성자1");
+        commentService.createComment(postId, "댓글2", "작성자2");
+        assertThat(commentCount()).isEqualTo(2);
+
+        commentService.deleteComment(first.getId());
+        assertThat(commentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void commentCountRollsBackWithTheComment() {
+        transactionTemplate.executeWithoutResult(status -> {
+            commentService.createComment(postId, "댓글", "작성자");
+            assertThat(commentCount()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(rows("comments")).isZero();
+        assertThat(commentCount()).isZero();
+    }
+
+    @Test
+    void fileUploadAndDeleteAdjustCount() throws IOException {
+        PostFile first = upload("a.txt", "첫 번째 파일");
+        upload("b.txt", "두 번째 파일");
+        assertThat(fileCount()).isEqualTo(2);
+
+        postFileService.deleteFile(first.getId());
+        assertThat(fileCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fileCountRollsBackWithTheFile() {
+        transactionTemplate.executeWithoutResult(status -> {
+            upload("a.txt", "되돌릴 파일");
+            assertThat(fileCount()).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(rows("files")).isZero();
+        assertThat(fileCount()).isZero();
+    }
+
+    @Test
+    void reconcileRepairsDriftedCounts() {
+        commentService.createComment(postId, "댓글", "작성자");
+        upload("a.txt", "파일");
+        Long untouched = postService.createPost("다른 글", "내용", "작성자").getId();
+
+        // 카운터를 거치지 않은 변경으로 어긋난 값
+        jdbcTemplate.update("UPDATE posts SET comment_count = 7, file_count = 0 WHERE id = ?", postId);
+
+        postService.reconcileCounts();
+
+        assertThat(commentCount()).isEqualTo(1);
+        assertThat(fileCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE id = ?", Integer.class, untouched))
+                .isZero();
+    }
+
+    private PostFile upload(String name, String content) {
+        try {
+            return postFileService.uploadFileStream(postId, name, "text/plain",
+                    new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int commentCount() {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE id = ?", Integer.class, postId);
+    }
+
+    private int fileCount() {
+        return jdbcTemplate.queryForObject("SELECT file_count FROM posts WHERE id = ?", Integer.class, postId);
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+}
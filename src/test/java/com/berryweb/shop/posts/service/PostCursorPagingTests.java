@@ -0,0 +1,147 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.dto.CursorPage;
+import com.berryweb.shop.posts.dto.PostCursor;
+import com.berryweb.shop.posts.dto.PostSummary;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 키셋(커서) 페이지네이션: 구간(공지/중요)을 넘나들며 앞뒤로 이동하는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(PostService.class)
+class PostCursorPagingTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostService postService;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private Long r1, r2, r3, r4, pinned, n1, n2, n3;
+
+    // 만든 순서가 곧 최신순의 역순 (created_at 이 같아도 id 로 정렬)
+    @BeforeEach
+    void setUp() {
+        r1 = persist(new Post("글1", "내용", "작성자"));
+        r2 = persist(new Post("글2", "내용", "작성자"));
+        r3 = persist(new Post("글3", "내용", "작성자"));
+        pinned = persist(new Post("중요 글", "내용", "작성자", false, true, true, null, false));
+        r4 = persist(new Post("글4", "내용", "작성자"));
+        n1 = persist(new Post("중요 공지", "내용", "관리자", true, true, true, null, false));
+        n2 = persist(new Post("공지", "내용", "관리자", true, false, true, null, false));
+        n3 = persist(new Post("내린 공지", "내용", "관리자", true, false, false, null, false));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void walksRegularPostsForwardByCreatedAt() {
+        CursorPage<PostSummary> first = postService.getAllPostsByCursor(null, false, 2);
+        assertThat(ids(first)).containsExactly(r4, pinned);
+        assertThat(first.isHasPrevious()).isFalse();
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorPage<PostSummary> second = postService.getAllPostsByCursor(first.getNextCursor(), false, 2);
+        assertThat(ids(second)).containsExactly(r3, r2);
+        assertThat(second.isHasPrevious()).isTrue();
+
+        CursorPage<PostSummary> last = postService.getAllPostsByCursor(second.getNextCursor(), false, 2);
+        assertThat(ids(last)).containsExactly(r1);
+        assertThat(last.isHasNext()).isFalse();
+    }
+
+    @Test
+    void crossesNoticeAndPinnedSegmentsInBothDirections() {
+        CursorPage<PostSummary> first = postService.getAllPostsWithNoticesByCursor(null, false, 3);
+        assertThat(ids(first)).containsExactly(n1, n2, pinned);
+
+        CursorPage<PostSummary> second = postService.getAllPostsWithNoticesByCursor(first.getNextCursor(), false, 3);
+        assertThat(ids(second)).containsExactly(r4, r3, r2);
+
+        CursorPage<PostSummary> last = postService.getAllPostsWithNoticesByCursor(second.getNextCursor(), false, 3);
+        assertThat(ids(last)).containsExactly(r1);
+        assertThat(last.isHasNext()).isFalse();
+
+        CursorPage<PostSummary> back = postService.getAllPostsWithNoticesByCursor(last.getPrevCursor(), true, 3);
+        assertThat(ids(back)).containsExactly(r4, r3, r2);
+        assertThat(back.isHasPrevious()).isTrue();
+        assertThat(back.isHasNext()).isTrue();
+
+        CursorPage<PostSummary> top = postService.getAllPostsWithNoticesByCursor(back.getPrevCursor(), true, 3);
+        assertThat(ids(top)).containsExactly(n1, n2, pinned);
+        assertThat(top.isHasPrevious()).isFalse();
+    }
+
+    @Test
+    void listsAllNoticesPinnedFirstIncludingInactive() {
+        CursorPage<PostSummary> page = postService.getAllNoticesByCursor(null, false, 10);
+
+        assertThat(ids(page)).containsExactly(n1, n3, n2);
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertThatThrownBy(() -> postService.getAllPostsByCursor(null, true, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> postService.getAllPostsByCursor("not-a-cursor", false, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> postService.getAllPostsByCursor(null, false, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // 공지사항 커서로 일반 게시글 목록을 이어 볼 수 없다
+        String noticeCursor = postService.getAllNoticesByCursor(null, false, 1).getNextCursor();
+        assertThatThrownBy(() -> postService.getAllPostsByCursor(noticeCursor, false, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesCursorsWithoutCreatedAt() {
+        PostSummary legacy = new PostSummary(99L, "제목", "작성자", false, false, true, null, 0L, 0, 0, null, null, null, null);
+        assertThatThrownBy(() -> PostCursor.of(legacy)).isInstanceOf(IllegalStateException.class);
+
+        String withoutCreatedAt = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("0|0|null|99".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> postService.getAllPostsByCursor(withoutCreatedAt, false, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long persist(Post post) {
+        return entityManager.persist(post).getId();
+    }
+
+    private static List<Long> ids(CursorPage<PostSummary> page) {
+        return page.getContent().stream().map(PostSummary::getId).toList();
+    }
+
+}
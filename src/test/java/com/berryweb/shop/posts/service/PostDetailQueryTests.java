@@ -0,0 +1,85 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Comment;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 게시글 상세 조회가 쿼리 2개로 끝나는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(PostService.class)
+class PostDetailQueryTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostService postService;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        Post post = entityManager.persist(new Post("제목", "내용", "작성자"));
+        entityManager.persist(new Comment("댓글1", "작성자1", post));
+        entityManager.persist(new Comment("댓글2", "작성자2", post));
+        entityManager.persist(new Comment("댓글3", "작성자3", post));
+        entityManager.persist(new PostFile("a.txt", "a-stored.txt", "uploads/a-stored.txt", 10L, "text/plain", post));
+        entityManager.persist(new PostFile("b.png", "b-stored.png", "uploads/b-stored.png", 20L, "image/png", post));
+        entityManager.flush();
+        entityManager.clear();
+        postId = post.getId();
+    }
+
+    @Test
+    void postDetailLoadsPostCommentsAndFilesInTwoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Post post = postService.getPostDetailWithViewCount(postId);
+
+        // 컨트롤러가 응답을 만들 때 접근하는 값들
+        assertThat(post.getComments()).hasSize(3);
+        assertThat(post.getFiles()).hasSize(2);
+        post.getFiles().forEach(file -> {
+            file.getDownloadUrl();
+            file.getFormattedFileSize();
+            file.getPostId();
+        });
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+}
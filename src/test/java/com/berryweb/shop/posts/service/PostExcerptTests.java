@@ -0,0 +1,144 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.dto.PostSummary;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 목록용 본문 요약: 길이가 제한되고, 본문 수정 시 함께 바뀌며, 목록 쿼리/응답에 본문이 없는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.berryweb.shop.posts.service.PostExcerptTests$RecordingInspector"
+})
+@Import(PostService.class)
+class PostExcerptTests {
+
+    // 실행한 SQL 을 모은다
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostService postService;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        RecordingInspector.statements.clear();
+    }
+
+    @Test
+    void excerptIsBoundedAndCollapsesWhitespace() {
+        // 보조 평면 문자(이모지)도 한 글자로 센다
+        String content = "첫 줄\n\n\t둘째   줄 " + "😀가".repeat(300);
+
+        String excerpt = Post.excerptOf(content);
+
+        assertThat(excerpt).startsWith("첫 줄 둘째 줄 😀가");
+        assertThat(excerpt.codePointCount(0, excerpt.length())).isEqualTo(Post.EXCERPT_LENGTH);
+        assertThat(Character.isHighSurrogate(excerpt.charAt(excerpt.length() - 1))).isFalse();
+        assertThat(Post.excerptOf("  짧은 본문 ")).isEqualTo("짧은 본문");
+        assertThat(Post.excerptOf(null)).isNull();
+    }
+
+    @Test
+    void storesBoundedExcerptOnCreate() {
+        Long id = postService.createPost("제목", "가".repeat(1000), "작성자").getId();
+        entityManager.flush();
+
+        assertThat(storedExcerpt(id)).isEqualTo("가".repeat(Post.EXCERPT_LENGTH));
+    }
+
+    @Test
+    void updatesExcerptWhenContentChanges() {
+        Long id = postService.createPost("제목", "처음 본문", "작성자").getId();
+        Long noticeId = postService.createNotice("공지", "처음 공지", "관리자", false, true, null, false).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        postService.updatePost(id, "제목", "고친\n본문");
+        postService.updateNotice(noticeId, null, "고친 공지", null, null, null, null);
+        entityManager.flush();
+
+        assertThat(storedExcerpt(id)).isEqualTo("고친 본문");
+        assertThat(storedExcerpt(noticeId)).isEqualTo("고친 공지");
+    }
+
+    @Test
+    void listQueryReadsExcerptInsteadOfContent() {
+        postService.createPost("제목", "본문 " + "긴 내용 ".repeat(500), "작성자");
+        entityManager.flush();
+        entityManager.clear();
+        RecordingInspector.statements.clear();
+
+        List<PostSummary> posts = postService.getAllPosts(PageRequest.of(0, 10)).getContent();
+
+        assertThat(posts).singleElement().extracting(PostSummary::getExcerpt).asString().startsWith("본문 긴 내용");
+        List<String> selects = RecordingInspector.statements.stream()
+                .filter(sql -> sql.contains("select") && sql.contains("from posts"))
+                .toList();
+        assertThat(selects).anySatisfy(sql -> assertThat(sql).contains(".excerpt"))
+                .allSatisfy(sql -> assertThat(sql).doesNotContain(".content"));
+    }
+
+    @Test
+    void listResponseDoesNotSerializeContent() {
+        postService.createPost("제목", "본문", "작성자");
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PostSummary> posts = postService.getAllPosts(PageRequest.of(0, 10)).getContent();
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(posts).get(0);
+
+        assertThat(json.has("content")).isFalse();
+        assertThat(json.get("excerpt").asText()).isEqualTo("본문");
+    }
+
+    private String storedExcerpt(Long id) {
+        return jdbcTemplate.queryForObject("SELECT excerpt FROM posts WHERE id = ?", String.class, id);
+    }
+
+}
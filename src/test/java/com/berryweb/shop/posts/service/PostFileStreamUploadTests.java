@@ -0,0 +1,257 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 스트리밍 업로드: 한 번 읽으면서 해시/크기를 구하고, 크기 제한에서 끊고, 실패하면 쓰던 파일을 남기지 않는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.servlet.multipart.max-file-size=64KB",
+        "file.compression.enabled=false"
+})
+@Import({PostService.class, PostFileService.class, AttachmentStorage.class, PostFileStreamUploadTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostFileStreamUploadTests {
+
+    private static final int LIMIT = 64 * 1024;
+
+    @TempDir
+    static Path uploadDirectory;
+
+    @DynamicPropertySource
+    static void uploadProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload.directory", () -> uploadDirectory.toString());
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostFileService postFileService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private ViewCountAccumulator viewCountAccumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        postId = postService.createPost("제목", "내용", "작성자").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM files");
+        jdbcTemplate.update("DELETE FROM posts");
+    }
+
+    @Test
+    void hashesAndSizesWhileReadingOnce() throws IOException {
+        byte[] content = randomBytes(LIMIT);
+        CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(content));
+
+        PostFile file = postFileService.uploadFileStream(postId, "a.bin", "application/octet-stream", in);
+
+        // 본문은 한 번만 읽었고, 그 한 번에서 해시와 크기가 나왔다
+        assertThat(in.bytesRead).isEqualTo(content.length);
+        assertThat(in.closed).isTrue();
+        assertThat(file.getContentHash()).isEqualTo(sha256(content));
+        assertThat(file.getFileSize()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(Path.of(file.getFilePath()))).isEqualTo(content);
+    }
+
+    @Test
+    void stopsReadingOnceLimitIsExceeded() throws IOException {
+        List<Path> before = storedFiles();
+        // 끝이 없는 본문: 제한에서 끊지 않으면 끝나지 않는다
+        CountingInputStream in = new CountingInputStream(new EndlessInputStream());
+
+        assertThatThrownBy(() -> postFileService.uploadFileStream(postId, "big.bin", "application/octet-stream", in))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(LIMIT));
+
+        assertThat(in.bytesRead).isGreaterThan(LIMIT).isLessThan(LIMIT * 2L);
+        assertThat(storedFiles()).isEqualTo(before);
+        assertThat(fileRows()).isZero();
+    }
+
+    @Test
+    void acceptsContentExactlyAtLimit() throws IOException {
+        PostFile file = postFileService.uploadFileStream(postId, "limit.bin", "application/octet-stream",
+                new ByteArrayInputStream(randomBytes(LIMIT)));
+
+        assertThat(file.getFileSize()).isEqualTo(LIMIT);
+    }
+
+    @Test
+    void removesPartialFileWhenStreamFails() throws IOException {
+        List<Path> before = storedFiles();
+        InputStream broken = new FailingInputStream(randomBytes(LIMIT / 2));
+
+        assertThatThrownBy(() -> postFileService.uploadFileStream(postId, "broken.bin", "application/octet-stream", broken))
+                .isInstanceOf(IOException.class);
+
+        assertThat(storedFiles()).isEqualTo(before);
+        assertThat(fileRows()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT file_count FROM posts WHERE id = ?", Integer.class, postId)).isZero();
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(uploadDirectory)) {
+            return files.filter(Files::isRegularFile).sorted().toList();
+        }
+    }
+
+    private int fileRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM files", Integer.class);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 읽은 바이트 수를 센다 (mark/reset 으로 다시 읽을 수 없다)
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream in;
+        private long bytesRead;
+        private boolean closed;
+
+        CountingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                bytesRead++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                bytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            in.close();
+        }
+    }
+
+    private static class EndlessInputStream extends InputStream {
+
+        @Override
+        public int read() {
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            Arrays.fill(b, off, off + len, (byte) 'x');
+            return len;
+        }
+    }
+
+    // 일부를 보낸 뒤 연결이 끊긴 본문
+    private static class FailingInputStream extends InputStream {
+
+        private final InputStream head;
+
+        FailingInputStream(byte[] head) {
+            this.head = new ByteArrayInputStream(head);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = head.read();
+            if (b == -1) {
+                throw new IOException("connection reset");
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = head.read(b, off, len);
+            if (n == -1) {
+                throw new IOException("connection reset");
+            }
+            return n;
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+// 일괄 가져오기: chunk 마다 커밋, 트랜잭션 안에서는 JDBC 배치 INSERT, 중간 실패 시 커밋된 만큼을 알려주는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "bulk-import.batch-size=10",
+        "bulk-import.chunk-size=25"
+})
+@Import({PostImportService.class, PostImportServiceTests.Json.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostImportServiceTests {
+
+    @TestConfiguration
+    static class Json {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM comments");
+        jdbcTemplate.update("DELETE FROM posts");
+    }
+
+    @Test
+    void commitsOneChunkPerChunkSizePosts() throws IOException {
+        PostImportService.ImportResult result = postImportService.importNdjson(ndjson(60, 1));
+
+        assertThat(result.posts()).isEqualTo(60);
+        assertThat(result.comments()).isEqualTo(60);
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(rows("posts")).isEqualTo(60);
+        assertThat(rows("comments")).isEqualTo(60);
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT comment_count FROM posts", Integer.class))
+                .containsExactly(1);
+    }
+
+    @Test
+    void insertsInJdbcBatches() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        postImportService.importNdjson(ndjson(100, 0));
+
+        // 행마다 INSERT 를 준비하면 100 번 이상, batch-size(10) 로 묶이면 배치마다 한 번 (+ chunk 끝 flush, 시퀀스 조회)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(100);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(100 / 10 + 4 + 5);
+    }
+
+    @Test
+    void keepsOriginalCreatedAt() throws IOException {
+        String line = "{\"title\":\"제목\",\"content\":\"내용\",\"author\":\"작성자\",\"createdAt\":\"2020-01-02T03:04:05\","
+                + "\"comments\":[{\"content\":\"댓글\",\"author\":\"작성자\",\"createdAt\":\"2020-01-03T00:00:00\"}]}";
+
+        postImportService.importNdjson(stream(line));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM posts", Timestamp.class).toLocalDateTime())
+                .isEqualTo(LocalDateTime.of(2020, 1, 2, 3, 4, 5));
+        assertThat(jdbcTemplate.queryForObject("SELECT created_at FROM comments", Timestamp.class).toLocalDateTime())
+                .isEqualTo(LocalDateTime.of(2020, 1, 3, 0, 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void invalidLineReportsCommittedChunksAndFailingLine() {
+        String lines = IntStream.rangeClosed(1, 29).mapToObj(i -> post(i, 1)).collect(Collectors.joining("\n"))
+                + "\n{\"title\":\"제목\",\"content\":\"\",\"author\":\"작성자\"}\n" + post(31, 0);
+
+        PostImportService.ImportFailedException failure = catchThrowableOfType(
+                PostImportService.ImportFailedException.class, () -> postImportService.importNdjson(stream(lines)));
+
+        // 첫 chunk(1~25번째 줄)만 커밋되고, 26~29번째 줄은 함께 버려진다
+        assertThat(failure.getLine()).isEqualTo(30);
+        assertThat(failure.getCommitted().posts()).isEqualTo(25);
+        assertThat(failure.getCommitted().comments()).isEqualTo(25);
+        assertThat(failure.getCommitted().chunks()).isEqualTo(1);
+        assertThat(rows("posts")).isEqualTo(25);
+
+        Map<String, Object> body = failure.toMap();
+        assertThat(body).containsEntry("line", 30L).containsEntry("resumeFromLine", 26L).containsKey("error");
+        assertThat((Map<String, Object>) body.get("committed")).containsEntry("posts", 25L).containsEntry("chunks", 1);
+    }
+
+    @Test
+    void unreadableLineReportsItsNumber() {
+        String lines = post(1, 0) + "\n{\"title\": \n";
+
+        PostImportService.ImportFailedException failure = catchThrowableOfType(
+                PostImportService.ImportFailedException.class, () -> postImportService.importNdjson(stream(lines)));
+
+        assertThat(failure.getLine()).isEqualTo(2);
+        assertThat(failure.getCommitted().posts()).isZero();
+        assertThat(rows("posts")).isZero();
+    }
+
+    @Test
+    void reportsRowsPerSecond() {
+        PostImportService.ImportResult result = new PostImportService.ImportResult(300, 200, 1, 250);
+
+        assertThat(result.rowsPerSecond()).isEqualTo(2000.0);
+        assertThat(result.toMap()).containsEntry("rowsPerSecond", 2000L).containsEntry("elapsedMs", 250L);
+        // 너무 빨라 0ms 로 재진 경우에도 0 으로 나누지 않는다
+        assertThat(new PostImportService.ImportResult(3, 2, 1, 0).rowsPerSecond()).isEqualTo(5.0);
+    }
+
+    private InputStream ndjson(int posts, int commentsPerPost) {
+        return stream(IntStream.rangeClosed(1, posts).mapToObj(i -> post(i, commentsPerPost)).collect(Collectors.joining("\n")));
+    }
+
+    private String post(int i, int comments) {
+        String commentItems = IntStream.range(0, comments)
+                .mapToObj(c -> "{\"content\":\"댓글" + c + "\",\"author\":\"작성자\"}")
+                .collect(Collectors.joining(","));
+        return "{\"title\":\"제목" + i + "\",\"content\":\"내용\",\"author\":\"작성자\",\"comments\":[" + commentItems + "]}";
+    }
+
+    private InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int rows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.dto.PostStats;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.event.PostChangedEvent;
+import com.berryweb.shop.posts.event.PostFileChangedEvent;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import com.berryweb.shop.posts.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 통계 스냅샷: 처음 한 번 DB 와 맞추고, 이후에는 이벤트로만 카운터를 갱신하며, 재계산이 도중의 이벤트를 잃지 않는지 확인
+class PostStatsServiceTests {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final PostFileRepository postFileRepository = mock(PostFileRepository.class);
+    private final PostStatsService statsService = new PostStatsService(postRepository, postFileRepository);
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        when(postRepository.countByIsNoticeFalse()).thenReturn(5L);
+        when(postFileRepository.getTotalFileSize()).thenReturn(1000L);
+        when(postRepository.findNoticeStates()).thenReturn(List.of(
+                new Object[]{1L, true, true, null},
+                new Object[]{2L, true, false, now.plusDays(1)},
+                new Object[]{3L, false, false, now.minusDays(1)}));
+    }
+
+    @Test
+    void firstSnapshotIsReconciledFromDatabase() {
+        PostStats stats = statsService.getSnapshot();
+
+        assertThat(stats.getTotalPosts()).isEqualTo(8);
+        assertThat(stats.getRegularPosts()).isEqualTo(5);
+        assertThat(stats.getTotalNotices()).isEqualTo(3);
+        assertThat(stats.getActiveNotices()).isEqualTo(2);
+        assertThat(stats.getPinnedNotices()).isEqualTo(1);
+        assertThat(stats.getExpiredNotices()).isEqualTo(1);
+        assertThat(stats.getExpiringSoonNotices()).isEqualTo(1);
+        assertThat(stats.getTotalFileSize()).isEqualTo(1000);
+    }
+
+    @Test
+    void reusesSnapshotUntilSomethingChanges() {
+        PostStats first = statsService.getSnapshot();
+
+        assertThat(statsService.getSnapshot()).isSameAs(first);
+
+        statsService.onPostFileChanged(new PostFileChangedEvent(10L, 50));
+        assertThat(statsService.getSnapshot()).isNotSameAs(first);
+    }
+
+    @Test
+    void appliesWriteEventsWithoutQueryingAgain() {
+        statsService.getSnapshot();
+
+        statsService.onPostChanged(PostChangedEvent.created(post(10L, false)));
+        statsService.onPostChanged(PostChangedEvent.created(post(11L, true)));
+        statsService.onPostChanged(PostChangedEvent.deleted(12L, 300));
+        statsService.onPostFileChanged(new PostFileChangedEvent(10L, 50));
+        // 일반 게시글을 공지사항으로 변경
+        statsService.onPostChanged(PostChangedEvent.updated(post(10L, true)));
+
+        PostStats stats = statsService.getSnapshot();
+        assertThat(stats.getRegularPosts()).isEqualTo(4);
+        assertThat(stats.getTotalNotices()).isEqualTo(5);
+        assertThat(stats.getActiveNotices()).isEqualTo(4);
+        assertThat(stats.getTotalFileSize()).isEqualTo(750);
+
+        verify(postRepository, times(1)).countByIsNoticeFalse();
+        verify(postFileRepository, times(1)).getTotalFileSize();
+    }
+
+    @Test
+    void reconcileKeepsEventsAppliedWhileQuerying() {
+        statsService.getSnapshot();
+        LocalDateTime now = LocalDateTime.now();
+        // DB 를 센 뒤 커밋된 변경의 이벤트가 재계산 도중에 들어온다 (조회 결과에는 없음)
+        when(postRepository.countByIsNoticeFalse()).thenAnswer(invocation -> {
+            statsService.onPostChanged(PostChangedEvent.created(post(20L, false)));
+            statsService.onPostChanged(PostChangedEvent.created(post(21L, true)));
+            statsService.onPostChanged(PostChangedEvent.deleted(1L, 0));
+            statsService.onPostFileChanged(new PostFileChangedEvent(20L, 50));
+            return 5L;
+        });
+        when(postRepository.findNoticeStates()).thenReturn(List.of(
+                new Object[]{1L, true, true, null},
+                new Object[]{2L, true, false, now.plusDays(1)},
+                new Object[]{3L, false, false, now.minusDays(1)}));
+
+        statsService.reconcile();
+
+        PostStats stats = statsService.getSnapshot();
+        assertThat(stats.getRegularPosts()).isEqualTo(6);
+        assertThat(stats.getTotalFileSize()).isEqualTo(1050);
+        // 새 공지(21)는 남고, 삭제한 공지(1)는 조회 결과에 있어도 되살아나지 않는다
+        assertThat(stats.getTotalNotices()).isEqualTo(3);
+        assertThat(stats.getPinnedNotices()).isZero();
+    }
+
+    @Test
+    void reconcileRepairsDriftFromDatabase() {
+        statsService.getSnapshot();
+        statsService.onPostChanged(PostChangedEvent.created(post(20L, false)));
+        when(postRepository.countByIsNoticeFalse()).thenReturn(9L);
+        when(postFileRepository.getTotalFileSize()).thenReturn(400L);
+        when(postRepository.findNoticeStates()).thenReturn(List.<Object[]>of(new Object[]{2L, true, true, null}));
+
+        statsService.reconcile();
+
+        PostStats stats = statsService.getSnapshot();
+        assertThat(stats.getRegularPosts()).isEqualTo(9);
+        assertThat(stats.getTotalFileSize()).isEqualTo(400);
+        assertThat(stats.getTotalNotices()).isEqualTo(1);
+        assertThat(stats.getPinnedNotices()).isEqualTo(1);
+    }
+
+    private static Post post(Long id, boolean notice) {
+        Post post = new Post("제목", "내용", "작성자", notice, false, true, null, false);
+        post.setId(id);
+        return post;
+    }
+
+}
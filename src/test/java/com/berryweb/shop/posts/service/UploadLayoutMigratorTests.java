@@ -0,0 +1,150 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.entity.PostFile;
+import com.berryweb.shop.posts.repository.AttachmentBlobRepository;
+import com.berryweb.shop.posts.repository.PostFileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// 저장 위치 이전: 평면 배치 / UUID 파일을 fan-out 으로 옮기고, 행 갱신이 커밋된 뒤에만 예전 파일을 지우는지 확인
+class UploadLayoutMigratorTests {
+
+    @TempDir
+    Path uploadDirectory;
+
+    private final PostFileRepository postFileRepository = mock(PostFileRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AttachmentStorage storage;
+    private UploadLayoutMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        storage = new AttachmentStorage(postFileRepository, mock(AttachmentBlobRepository.class),
+                new SynchronizingTransactionManager(), uploadDirectory.toString(), false, DataSize.ofKilobytes(1), 6, 1000);
+        migrator = new UploadLayoutMigrator(postFileRepository, storage, new TransactionTemplate(new SynchronizingTransactionManager()),
+                meterRegistry, true, 50);
+    }
+
+    @Test
+    void movesFlatBlobsAndLegacyFilesAfterCommit() throws IOException {
+        Path flat = write(uploadDirectory.resolve("blobs"), null, "flat content");
+        String flatHash = hash(flat);
+        Files.move(flat, flat.resolveSibling(flatHash));
+        flat = flat.resolveSibling(flatHash);
+        Path legacy = write(uploadDirectory, "9f1c-legacy.txt", "legacy content");
+        String legacyHash = hash(legacy);
+
+        PostFile flatFile = file(1L, flat, flatHash);
+        PostFile legacyFile = file(2L, legacy, null);
+        when(postFileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(flatFile, legacyFile));
+        when(postFileRepository.findFilePathById(1L)).thenReturn(Optional.of(flat.toString()));
+        when(postFileRepository.findFilePathById(2L)).thenReturn(Optional.of(legacy.toString()));
+        when(postFileRepository.relocate(anyString(), anyString(), anyString())).thenReturn(1);
+
+        migrator.migrateBatch();
+
+        Path flatTarget = fanOut(flatHash);
+        Path legacyTarget = fanOut(legacyHash);
+        verify(postFileRepository).relocate(flat.toString(), flatTarget.toString(), flatHash);
+        verify(postFileRepository).relocate(legacy.toString(), legacyTarget.toString(), legacyHash);
+        assertThat(Files.readString(flatTarget)).isEqualTo("flat content");
+        assertThat(Files.readString(legacyTarget)).isEqualTo("legacy content");
+        assertThat(flat).doesNotExist();
+        assertThat(legacy).doesNotExist();
+        assertThat(meterRegistry.counter("posts.files.layout.migrated").count()).isEqualTo(2);
+    }
+
+    @Test
+    void keepsOldFileWhenAnotherInstanceMovedItFirst() throws IOException {
+        Path legacy = write(uploadDirectory, "9f1c-legacy.txt", "legacy content");
+        String legacyHash = hash(legacy);
+        when(postFileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(file(1L, legacy, null)));
+        when(postFileRepository.findFilePathById(1L)).thenReturn(Optional.of(legacy.toString()));
+        when(postFileRepository.relocate(anyString(), anyString(), anyString())).thenReturn(0);
+
+        migrator.migrateBatch();
+
+        // 롤백: 새로 만든 링크만 지우고 예전 파일은 그대로
+        assertThat(legacy).exists();
+        assertThat(fanOut(legacyHash)).doesNotExist();
+        assertThat(meterRegistry.counter("posts.files.layout.migrated").count()).isZero();
+    }
+
+    @Test
+    void skipsFanOutRowsAndCountsMissingFiles() throws IOException {
+        Path stored = write(uploadDirectory, "a.txt", "already moved");
+        String hash = hash(stored);
+        Path target = fanOut(hash);
+        Files.createDirectories(target.getParent());
+        Files.move(stored, target);
+        Path missing = uploadDirectory.resolve("missing.txt");
+
+        when(postFileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class)))
+                .thenReturn(List.of(file(1L, target, hash), file(2L, missing, null)));
+        when(postFileRepository.findFilePathById(2L)).thenReturn(Optional.of(missing.toString()));
+
+        migrator.migrateBatch();
+
+        verify(postFileRepository, never()).findFilePathById(1L);
+        verify(postFileRepository, never()).relocate(anyString(), anyString(), any());
+        assertThat(meterRegistry.counter("posts.files.layout.failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsAfterLastBatch() {
+        when(postFileRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+
+        migrator.migrateBatch();
+        migrator.migrateBatch();
+
+        verify(postFileRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    private Path fanOut(String hash) {
+        return uploadDirectory.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static Path write(Path directory, String name, String content) throws IOException {
+        Files.createDirectories(directory);
+        return Files.writeString(directory.resolve(name != null ? name : "pending"), content);
+    }
+
+    private String hash(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return storage.hash(in);
+        }
+    }
+
+    private static PostFile file(Long id, Path path, String hash) {
+        PostFile file = new PostFile(path.getFileName().toString(), path.getFileName().toString(), path.toString(),
+                0L, "text/plain", hash, new Post("제목", "내용", "작성자"));
+        file.setId(id);
+        return file;
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.berryweb.shop.posts.service;
+
+import com.berryweb.shop.posts.cache.SecondLevelCacheInvalidator;
+import com.berryweb.shop.posts.entity.Post;
+import com.berryweb.shop.posts.search.PostSearchIndex;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+// 조회수 write-behind: 응답에 대기 중인 조회수 포함, 일괄 반영 / 종료 시 반영 / 지표, flush 와 동시 증가에서 유실이 없는지 확인 (H2)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({PostService.class, ViewCountAccumulator.class, ViewCountAccumulatorTests.Metrics.class})
+class ViewCountAccumulatorTests {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ViewCountAccumulator accumulator;
+
+    @MockitoBean
+    private PostSearchIndex postSearchIndex;
+
+    @MockitoBean
+    private ActiveNoticeCache activeNoticeCache;
+
+    @MockitoBean
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    @Test
+    void responsesIncludeViewsNotYetFlushed() {
+        Long id = persist(10L);
+
+        postService.getPostByIdWithViewCount(id);
+        postService.getPostByIdWithViewCount(id);
+        assertThat(postService.getPostByIdWithViewCount(id).getViewCount()).isEqualTo(13L);
+        entityManager.clear();
+        assertThat(postService.getPostDetailWithViewCount(id).getViewCount()).isEqualTo(14L);
+
+        // DB 에는 아직 반영되지 않았다
+        assertThat(storedViewCount(id)).isEqualTo(10L);
+        assertThat(accumulator.getPendingCount(id)).isEqualTo(4L);
+    }
+
+    @Test
+    void flushAppliesPendingViewsAsOneBatchAndRecordsItsSize() {
+        Long first = persist(0L);
+        Long second = persist(5L);
+        DistributionSummary batchSize = meterRegistry.get("posts.view_count.flush.batch_size").summary();
+        long batches = batchSize.count();
+        double batched = batchSize.totalAmount();
+
+        accumulator.increment(first);
+        accumulator.increment(first);
+        accumulator.increment(first);
+        accumulator.increment(second);
+        accumulator.flush();
+
+        assertThat(storedViewCount(first)).isEqualTo(3L);
+        assertThat(storedViewCount(second)).isEqualTo(6L);
+        assertThat(accumulator.getPendingCount(first)).isZero();
+        assertThat(batchSize.count()).isEqualTo(batches + 1);
+        assertThat(batchSize.totalAmount()).isEqualTo(batched + 2);
+
+        // 조회가 없던 주기: 반영할 것이 없으면 배치를 기록하지 않고, 한가한 게시글은 대기 목록에서 빠진다
+        accumulator.flush();
+        assertThat(batchSize.count()).isEqualTo(batches + 1);
+        assertThat(meterRegistry.get("posts.view_count.pending_posts").gauge().value()).isZero();
+    }
+
+    @Test
+    void flushesRemainingViewsOnShutdown() {
+        Long id = persist(1L);
+        postService.recordView(id);
+        postService.recordView(id);
+
+        accumulator.flushOnShutdown();
+
+        assertThat(storedViewCount(id)).isEqualTo(3L);
+    }
+
+    @Test
+    void keepsViewsWhenFlushFails() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        doThrow(new DataAccessResourceFailureException("db down")).when(failing).batchUpdate(anyString(), anyList());
+        ViewCountAccumulator accumulator = new ViewCountAccumulator(failing, new SimpleMeterRegistry());
+        accumulator.increment(1L);
+        accumulator.increment(1L);
+
+        assertThatThrownBy(accumulator::flush).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(accumulator.getPendingCount(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    void concurrentIncrementsSurviveFlushesAndIdleRemoval() throws Exception {
+        // flush 가 반영한 증가분을 게시글별로 모은다
+        Map<Long, AtomicLong> flushed = new ConcurrentHashMap<>();
+        JdbcTemplate recording = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(row -> flushed.computeIfAbsent((Long) row[1], id -> new AtomicLong()).addAndGet((Long) row[0]));
+            return new int[rows.size()];
+        }).when(recording).batchUpdate(anyString(), anyList());
+        ViewCountAccumulator accumulator = new ViewCountAccumulator(recording, new SimpleMeterRegistry());
+
+        int threads = 8;
+        int incrementsPerThread = 20_000;
+        Map<Long, AtomicLong> expected = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean incrementing = new AtomicBoolean(true);
+        try {
+            // 게시글이 자주 한가해지도록 ID 를 넓게 흩어 flush 가 adder 를 맵에서 빼는 경우를 만든다
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        long id = ThreadLocalRandom.current().nextLong(1, 200);
+                        accumulator.increment(id);
+                        expected.computeIfAbsent(id, key -> new AtomicLong()).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (incrementing.get()) {
+                    accumulator.flush();
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+            incrementing.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        accumulator.flush();
+
+        assertThat(flushed.keySet()).isEqualTo(expected.keySet());
+        expected.forEach((id, count) -> assertThat(flushed.get(id).get()).as("post %d", id).isEqualTo(count.get()));
+        assertThat(flushed.values().stream().mapToLong(AtomicLong::get).sum()).isEqualTo((long) threads * incrementsPerThread);
+    }
+
+    private Long persist(long viewCount) {
+        Post post = new Post("제목", "내용", "작성자");
+        post.setViewCount(viewCount);
+        Long id = entityManager.persist(post).getId();
+        entityManager.flush();
+        entityManager.clear();
+        return id;
+    }
+
+    private long storedViewCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT view_count FROM posts WHERE id = ?", Long.class, id);
+    }
+
+}